@@ -16,6 +16,8 @@
 
 package org.springframework.boot.actuate.autoconfigure;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Properties;
@@ -43,6 +45,7 @@ import org.springframework.boot.actuate.health.SimpleHealthIndicator;
 import org.springframework.boot.actuate.health.VanillaHealthIndicator;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
 import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
+import org.springframework.boot.actuate.metrics.timer.TimerReader;
 import org.springframework.boot.actuate.trace.InMemoryTraceRepository;
 import org.springframework.boot.actuate.trace.TraceRepository;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
@@ -83,6 +86,9 @@ public class EndpointAutoConfiguration {
 	@Autowired(required = false)
 	private final MetricReader metricRepository = new InMemoryMetricRepository();
 
+	@Autowired(required = false)
+	private final Collection<TimerReader> timerRepositories = Collections.emptySet();
+
 	@Autowired(required = false)
 	private PublicMetrics metrics;
 
@@ -133,7 +139,8 @@ public class EndpointAutoConfiguration {
 	@ConditionalOnMissingBean
 	public MetricsEndpoint metricsEndpoint() {
 		if (this.metrics == null) {
-			this.metrics = new VanillaPublicMetrics(this.metricRepository);
+			this.metrics = new VanillaPublicMetrics(this.metricRepository,
+					this.timerRepositories);
 		}
 		return new MetricsEndpoint(this.metrics);
 	}
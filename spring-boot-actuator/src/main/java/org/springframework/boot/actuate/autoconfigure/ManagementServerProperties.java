@@ -17,9 +17,12 @@
 package org.springframework.boot.actuate.autoconfigure;
 
 import java.net.InetAddress;
+import java.util.Set;
 
 import javax.validation.constraints.NotNull;
 
+import org.springframework.boot.actuate.trace.WebRequestTraceFilter;
+import org.springframework.boot.actuate.trace.WebRequestTraceFilter.Sampling;
 import org.springframework.boot.autoconfigure.security.SecurityPrequisite;
 import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -46,6 +49,8 @@ public class ManagementServerProperties implements SecurityPrequisite {
 
 	private final Security security = maybeCreateSecurity();
 
+	private final Trace trace = new Trace();
+
 	/**
 	 * Returns the management port or {@code null} if the
 	 * {@link ServerProperties#getPort() server port} should be used.
@@ -83,6 +88,10 @@ public class ManagementServerProperties implements SecurityPrequisite {
 		return this.security;
 	}
 
+	public Trace getTrace() {
+		return this.trace;
+	}
+
 	/**
 	 * Security configuration.
 	 */
@@ -120,6 +129,78 @@ public class ManagementServerProperties implements SecurityPrequisite {
 
 	}
 
+	/**
+	 * Request tracing configuration for the {@link WebRequestTraceFilter}.
+	 */
+	public static class Trace {
+
+		private Sampling sampling = Sampling.ALL;
+
+		private double rate = 1.0;
+
+		private int every = 1;
+
+		private long slowThreshold = 1000;
+
+		private Set<String> headers;
+
+		public Sampling getSampling() {
+			return this.sampling;
+		}
+
+		public void setSampling(Sampling sampling) {
+			this.sampling = sampling;
+		}
+
+		/**
+		 * Returns the fraction of requests that are traced if the sampling mode is RATE.
+		 */
+		public double getRate() {
+			return this.rate;
+		}
+
+		public void setRate(double rate) {
+			this.rate = rate;
+		}
+
+		/**
+		 * Returns N, where one request in every N is traced if the sampling mode is
+		 * EVERY.
+		 */
+		public int getEvery() {
+			return this.every;
+		}
+
+		public void setEvery(int every) {
+			this.every = every;
+		}
+
+		/**
+		 * Returns the duration in milliseconds above which a request is traced if the
+		 * sampling mode is ERRORS_AND_SLOW.
+		 */
+		public long getSlowThreshold() {
+			return this.slowThreshold;
+		}
+
+		public void setSlowThreshold(long slowThreshold) {
+			this.slowThreshold = slowThreshold;
+		}
+
+		/**
+		 * Returns the names of the headers to include in traces, or {@code null} to
+		 * include all of them.
+		 */
+		public Set<String> getHeaders() {
+			return this.headers;
+		}
+
+		public void setHeaders(Set<String> headers) {
+			this.headers = headers;
+		}
+
+	}
+
 	private static Security maybeCreateSecurity() {
 		if (ClassUtils.isPresent(SECURITY_CHECK_CLASS, null)) {
 			return new Security();
@@ -17,6 +17,9 @@
 package org.springframework.boot.actuate.autoconfigure;
 
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -29,6 +32,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.metrics.CounterService;
 import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.actuate.metrics.TimerService;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -37,13 +41,15 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
-import org.springframework.util.StopWatch;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.UrlPathHelper;
 
 /**
  * {@link EnableAutoConfiguration Auto-configuration} that records Servlet interactions
- * with a {@link CounterService} and {@link GaugeService}.
+ * with a {@link CounterService} and {@link GaugeService} (and a {@link TimerService} if
+ * there is one, to record the distribution of response times). The metric names are
+ * derived from the pattern of the matching Spring MVC handler mapping (e.g.
+ * "/orders/{id}" rather than "/orders/123"), and all other requests are recorded under
+ * "unmapped", so the number of names stays bounded.
  * 
  * @author Dave Syer
  * @author Phillip Webb
@@ -56,12 +62,23 @@ public class MetricFilterAutoConfiguration {
 
 	private static final int UNDEFINED_HTTP_STATUS = 999;
 
+	/**
+	 * Same value as {@code HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE} (Spring MVC
+	 * might not be on the classpath).
+	 */
+	private static final String BEST_MATCHING_PATTERN_ATTRIBUTE = "org.springframework.web.servlet.HandlerMapping.bestMatchingPattern";
+
+	private static final String UNMAPPED_PATH = "/unmapped";
+
 	@Autowired
 	private CounterService counterService;
 
 	@Autowired
 	private GaugeService gaugeService;
 
+	@Autowired(required = false)
+	private TimerService timerService;
+
 	@Bean
 	public Filter metricFilter() {
 		return new MetricsFilter();
@@ -73,24 +90,30 @@ public class MetricFilterAutoConfiguration {
 	@Order(Ordered.HIGHEST_PRECEDENCE)
 	private final class MetricsFilter extends OncePerRequestFilter {
 
+		private final ConcurrentMap<String, MetricKeys> keys = new ConcurrentHashMap<String, MetricKeys>();
+
+		private final MetricKeys unmappedKeys = new MetricKeys(getSuffix(UNMAPPED_PATH));
+
 		@Override
 		protected void doFilterInternal(HttpServletRequest request,
 				HttpServletResponse response, FilterChain chain) throws ServletException,
 				IOException {
-			UrlPathHelper helper = new UrlPathHelper();
-			String suffix = helper.getPathWithinApplication(request);
-			StopWatch stopWatch = new StopWatch();
-			stopWatch.start();
+			long start = System.nanoTime();
 			try {
 				chain.doFilter(request, response);
 			}
 			finally {
-				stopWatch.stop();
-				String gaugeKey = getKey("response" + suffix);
-				MetricFilterAutoConfiguration.this.gaugeService.submit(gaugeKey,
-						stopWatch.getTotalTimeMillis());
-				String counterKey = getKey("status." + getStatus(response) + suffix);
-				MetricFilterAutoConfiguration.this.counterService.increment(counterKey);
+				long elapsed = System.nanoTime() - start;
+				int status = getStatus(response);
+				MetricKeys keys = getKeys(request);
+				MetricFilterAutoConfiguration.this.gaugeService.submit(
+						keys.getGaugeKey(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+				MetricFilterAutoConfiguration.this.counterService.increment(keys
+						.getCounterKey(status));
+				if (MetricFilterAutoConfiguration.this.timerService != null) {
+					MetricFilterAutoConfiguration.this.timerService.record(
+							keys.getGaugeKey(), elapsed, TimeUnit.NANOSECONDS);
+				}
 			}
 		}
 
@@ -103,18 +126,124 @@ public class MetricFilterAutoConfiguration {
 			}
 		}
 
-		private String getKey(String string) {
+		private MetricKeys getKeys(HttpServletRequest request) {
+			Object pattern = request.getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE);
+			if (pattern == null) {
+				// Raw paths are unbounded so they all share the same keys
+				return this.unmappedKeys;
+			}
+			String path = pattern.toString();
+			MetricKeys keys = this.keys.get(path);
+			if (keys == null) {
+				keys = new MetricKeys(getSuffix(path));
+				MetricKeys existing = this.keys.putIfAbsent(path, keys);
+				keys = (existing == null ? keys : existing);
+			}
+			return keys;
+		}
+
+		private String getSuffix(String path) {
 			// graphite compatible metric names
-			String value = string.replace("/", ".");
-			value = value.replace("..", ".");
-			if (value.endsWith(".")) {
-				value = value + "root";
+			StringBuilder suffix = new StringBuilder(path.length() + 8);
+			for (int i = 0; i < path.length(); i++) {
+				char ch = path.charAt(i);
+				if (ch == '/') {
+					if (suffix.length() == 0 || suffix.charAt(suffix.length() - 1) != '.') {
+						suffix.append('.');
+					}
+				}
+				else if (ch == '*') {
+					if (i + 1 < path.length() && path.charAt(i + 1) == '*') {
+						suffix.append("star-star");
+						i++;
+					}
+					else {
+						suffix.append("star");
+					}
+				}
+				else if (ch != '{' && ch != '}') {
+					suffix.append(ch);
+				}
 			}
-			if (value.startsWith("_")) {
-				value = value.substring(1);
+			if (suffix.length() == 0) {
+				suffix.append('.');
 			}
-			return value;
+			if (suffix.charAt(suffix.length() - 1) == '.') {
+				suffix.append("root");
+			}
+			return suffix.toString();
 		}
+
+	}
+
+	/**
+	 * The metric names for one request path, with the counter names for each status
+	 * computed once and then reused.
+	 */
+	private static final class MetricKeys {
+
+		private final String suffix;
+
+		private final String gaugeKey;
+
+		private volatile StatusKeys statusKeys = new StatusKeys(new int[0],
+				new String[0]);
+
+		public MetricKeys(String suffix) {
+			this.suffix = suffix;
+			this.gaugeKey = "response" + suffix;
+		}
+
+		public String getGaugeKey() {
+			return this.gaugeKey;
+		}
+
+		public String getCounterKey(int status) {
+			String key = this.statusKeys.get(status);
+			if (key == null) {
+				key = "status." + status + this.suffix;
+				synchronized (this) {
+					this.statusKeys = this.statusKeys.add(status, key);
+				}
+			}
+			return key;
+		}
+
+	}
+
+	private static final class StatusKeys {
+
+		private final int[] statuses;
+
+		private final String[] keys;
+
+		public StatusKeys(int[] statuses, String[] keys) {
+			this.statuses = statuses;
+			this.keys = keys;
+		}
+
+		public String get(int status) {
+			for (int i = 0; i < this.statuses.length; i++) {
+				if (this.statuses[i] == status) {
+					return this.keys[i];
+				}
+			}
+			return null;
+		}
+
+		public StatusKeys add(int status, String key) {
+			if (get(status) != null) {
+				return this;
+			}
+			int[] statuses = new int[this.statuses.length + 1];
+			String[] keys = new String[this.keys.length + 1];
+			System.arraycopy(this.statuses, 0, statuses, 0, this.statuses.length);
+			System.arraycopy(this.keys, 0, keys, 0, this.keys.length);
+			statuses[this.statuses.length] = status;
+			keys[this.keys.length] = key;
+			return new StatusKeys(statuses, keys);
+		}
+
 	}
 
 }
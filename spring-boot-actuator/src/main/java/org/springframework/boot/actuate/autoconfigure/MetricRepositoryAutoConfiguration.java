@@ -23,9 +23,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.actuate.metrics.CounterService;
 import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.actuate.metrics.TimerService;
 import org.springframework.boot.actuate.metrics.export.Exporter;
 import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
 import org.springframework.boot.actuate.metrics.repository.MetricRepository;
+import org.springframework.boot.actuate.metrics.timer.DefaultTimerService;
+import org.springframework.boot.actuate.metrics.timer.InMemoryTimerRepository;
+import org.springframework.boot.actuate.metrics.timer.TimerRepository;
+import org.springframework.boot.actuate.metrics.util.StripedCounter;
 import org.springframework.boot.actuate.metrics.writer.CodahaleMetricWriter;
 import org.springframework.boot.actuate.metrics.writer.CompositeMetricWriter;
 import org.springframework.boot.actuate.metrics.writer.DefaultCounterService;
@@ -50,14 +55,20 @@ import com.codahale.metrics.MetricRegistry;
 /**
  * {@link EnableAutoConfiguration Auto-configuration} for metrics services. Creates
  * user-facing {@link GaugeService} and {@link CounterService} instances, and also back
- * end repositories to catch the data pumped into them. </p>
+ * end repositories to catch the data pumped into them. A {@link TimerService} is also
+ * created, backed by an {@link InMemoryTimerRepository} (unless the user provides a
+ * {@link TimerRepository}), which keeps a fixed size histogram of durations for each
+ * timer so that percentiles can be reported. </p>
  * <p>
  * An {@link InMemoryMetricRepository} is always created unless another
- * {@link MetricRepository} is already provided by the user. In general, even if metric
- * data needs to be stored and analysed remotely, it is recommended to use an in-memory
- * repository to buffer metric updates locally. The values can be exported (e.g. on a
- * periodic basis) using an {@link Exporter}, most implementations of which have
- * optimizations for sending data to remote repositories.
+ * {@link MetricRepository} is already provided by the user. It keeps the counters from
+ * the {@link DefaultCounterService} in lock-free {@link StripedCounter}s, so that hot
+ * counters (e.g. "counter.status.200.*") do not become a point of contention between
+ * request threads. In general, even if metric data needs to be stored and analysed
+ * remotely, it is recommended to use an in-memory repository to buffer metric updates
+ * locally. The values can be exported (e.g. on a periodic basis) using an
+ * {@link Exporter}, most implementations of which have optimizations for sending data to
+ * remote repositories.
  * </p>
  * <p>
  * If Spring Messaging is on the classpath a {@link MessageChannel} called
@@ -81,6 +92,7 @@ import com.codahale.metrics.MetricRegistry;
  * 
  * @see GaugeService
  * @see CounterService
+ * @see TimerService
  * @see MetricWriter
  * @see InMemoryMetricRepository
  * @see CodahaleMetricWriter
@@ -106,6 +118,12 @@ public class MetricRepositoryAutoConfiguration {
 		return new DefaultGaugeService(this.writer);
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	public TimerService timerService(TimerRepository timerRepository) {
+		return new DefaultTimerService(timerRepository);
+	}
+
 	@Configuration
 	@ConditionalOnMissingBean(MetricRepository.class)
 	static class MetricRepositoryConfiguration {
@@ -117,6 +135,17 @@ public class MetricRepositoryAutoConfiguration {
 
 	}
 
+	@Configuration
+	@ConditionalOnMissingBean(TimerRepository.class)
+	static class TimerRepositoryConfiguration {
+
+		@Bean
+		public InMemoryTimerRepository timerRepository() {
+			return new InMemoryTimerRepository();
+		}
+
+	}
+
 	@Configuration
 	@ConditionalOnClass(MessageChannel.class)
 	static class MetricsChannelConfiguration {
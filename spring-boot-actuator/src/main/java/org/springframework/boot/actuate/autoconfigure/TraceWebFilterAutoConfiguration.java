@@ -47,6 +47,9 @@ public class TraceWebFilterAutoConfiguration {
 	@Autowired(required = false)
 	private BasicErrorController errorController;
 
+	@Autowired(required = false)
+	private ManagementServerProperties management = new ManagementServerProperties();
+
 	@Value("${management.dump_requests:false}")
 	private boolean dumpRequests;
 
@@ -54,6 +57,12 @@ public class TraceWebFilterAutoConfiguration {
 	public WebRequestTraceFilter webRequestLoggingFilter(BeanFactory beanFactory) {
 		WebRequestTraceFilter filter = new WebRequestTraceFilter(this.traceRepository);
 		filter.setDumpRequests(this.dumpRequests);
+		ManagementServerProperties.Trace trace = this.management.getTrace();
+		filter.setSampling(trace.getSampling());
+		filter.setSampleRate(trace.getRate());
+		filter.setSampleEvery(trace.getEvery());
+		filter.setSlowThreshold(trace.getSlowThreshold());
+		filter.setIncludeHeaders(trace.getHeaders());
 		if (this.errorController != null) {
 			filter.setErrorController(this.errorController);
 		}
@@ -17,15 +17,20 @@
 package org.springframework.boot.actuate.endpoint;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
+import org.springframework.boot.actuate.metrics.timer.Histogram;
+import org.springframework.boot.actuate.metrics.timer.TimerReader;
 import org.springframework.util.Assert;
 
 /**
  * Default implementation of {@link PublicMetrics} that exposes all metrics from a
- * {@link MetricReader} along with memory information.
+ * {@link MetricReader} along with memory information. If any {@link TimerReader}s are
+ * provided the count, mean, maximum and percentiles (p50, p95, p99 and p999) of each of
+ * their timers are also exposed, in milliseconds.
  * 
  * @author Dave Syer
  */
@@ -33,9 +38,18 @@ public class VanillaPublicMetrics implements PublicMetrics {
 
 	private final MetricReader reader;
 
+	private final Collection<? extends TimerReader> timers;
+
 	public VanillaPublicMetrics(MetricReader reader) {
+		this(reader, Collections.<TimerReader> emptySet());
+	}
+
+	public VanillaPublicMetrics(MetricReader reader,
+			Collection<? extends TimerReader> timers) {
 		Assert.notNull(reader, "MetricReader must not be null");
+		Assert.notNull(timers, "TimerReaders must not be null");
 		this.reader = reader;
+		this.timers = timers;
 	}
 
 	@Override
@@ -44,6 +58,11 @@ public class VanillaPublicMetrics implements PublicMetrics {
 		for (Metric<?> metric : this.reader.findAll()) {
 			result.add(metric);
 		}
+		for (TimerReader timers : this.timers) {
+			for (Histogram histogram : timers.findAll()) {
+				addTimerMetrics(result, histogram.snapshot());
+			}
+		}
 		result.add(new Metric<Long>("mem",
 				new Long(Runtime.getRuntime().totalMemory()) / 1024));
 		result.add(new Metric<Long>("mem.free", new Long(Runtime.getRuntime()
@@ -53,4 +72,23 @@ public class VanillaPublicMetrics implements PublicMetrics {
 		return result;
 	}
 
+	private void addTimerMetrics(Collection<Metric<?>> result, Histogram.Snapshot timer) {
+		String name = timer.getName();
+		result.add(new Metric<Long>(name + ".count", timer.getCount()));
+		result.add(new Metric<Double>(name + ".mean", millis(timer.getMean())));
+		result.add(new Metric<Double>(name + ".max", millis(timer.getMax())));
+		result.add(new Metric<Double>(name + ".p50", millis(timer
+				.getValueAtPercentile(50))));
+		result.add(new Metric<Double>(name + ".p95", millis(timer
+				.getValueAtPercentile(95))));
+		result.add(new Metric<Double>(name + ".p99", millis(timer
+				.getValueAtPercentile(99))));
+		result.add(new Metric<Double>(name + ".p999", millis(timer
+				.getValueAtPercentile(99.9))));
+	}
+
+	private Double millis(double micros) {
+		return micros / 1000.0;
+	}
+
 }
@@ -20,6 +20,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.boot.actuate.metrics.Metric;
@@ -28,7 +33,8 @@ import org.springframework.util.StringUtils;
 /**
  * Base class for metric exporters that have common features, principally a prefix for
  * exported metrics and filtering by timestamp (so only new values are included in the
- * export).
+ * export). Groups are exported one after the other unless an {@link Executor} is
+ * provided, in which case they are exported in parallel.
  * 
  * @author Dave Syer
  */
@@ -42,6 +48,8 @@ public abstract class AbstractMetricExporter implements Exporter {
 
 	private final String prefix;
 
+	private Executor executor;
+
 	public AbstractMetricExporter(String prefix) {
 		this.prefix = !StringUtils.hasText(prefix) ? "" : (prefix.endsWith(".") ? prefix
 				: prefix + ".");
@@ -63,6 +71,17 @@ public abstract class AbstractMetricExporter implements Exporter {
 		this.ignoreTimestamps = ignoreTimestamps;
 	}
 
+	/**
+	 * An executor to export groups in parallel. The export still waits for all the
+	 * groups to finish, so the executor should normally have a bounded pool of threads
+	 * (and queue) that is not shared with other work. Defaults to null, in which case
+	 * groups are exported one after the other by the calling thread.
+	 * @param executor the executor to set
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
 	@Override
 	public void export() {
 		if (!this.processing.compareAndSet(false, true)) {
@@ -70,18 +89,14 @@ public abstract class AbstractMetricExporter implements Exporter {
 			return;
 		}
 		try {
-			for (String group : groups()) {
-				Collection<Metric<?>> values = new ArrayList<Metric<?>>();
-				for (Metric<?> metric : next(group)) {
-					Metric<?> value = new Metric<Number>(this.prefix + metric.getName(),
-							metric.getValue(), metric.getTimestamp());
-					Date timestamp = metric.getTimestamp();
-					if (!this.ignoreTimestamps && this.earliestTimestamp.after(timestamp)) {
-						continue;
-					}
-					values.add(value);
+			beginExport();
+			if (this.executor == null) {
+				for (String group : groups()) {
+					export(group);
 				}
-				write(group, values);
+			}
+			else {
+				exportInParallel();
 			}
 		}
 		finally {
@@ -89,6 +104,62 @@ public abstract class AbstractMetricExporter implements Exporter {
 		}
 	}
 
+	private void exportInParallel() {
+		List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>();
+		for (final String group : groups()) {
+			FutureTask<Void> task = new FutureTask<Void>(new Callable<Void>() {
+				@Override
+				public Void call() {
+					export(group);
+					return null;
+				}
+			});
+			this.executor.execute(task);
+			tasks.add(task);
+		}
+		for (FutureTask<Void> task : tasks) {
+			try {
+				task.get();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while exporting metrics", ex);
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				throw new IllegalStateException("Could not export metrics", cause);
+			}
+		}
+	}
+
+	private void export(String group) {
+		Collection<Metric<?>> values = new ArrayList<Metric<?>>();
+		for (Metric<?> metric : next(group)) {
+			Date timestamp = metric.getTimestamp();
+			if (!this.ignoreTimestamps && this.earliestTimestamp.after(timestamp)) {
+				continue;
+			}
+			if (this.prefix.length() > 0) {
+				metric = new Metric<Number>(this.prefix + metric.getName(),
+						metric.getValue(), timestamp);
+			}
+			values.add(metric);
+		}
+		write(group, values);
+	}
+
+	/**
+	 * Called at the start of every export, before the groups are listed. Subclasses can
+	 * override it to prepare the source for reading, e.g. to start a new version in an
+	 * {@link org.springframework.boot.actuate.metrics.reader.IncrementalMetricReader}.
+	 * The default implementation does nothing.
+	 */
+	protected void beginExport() {
+	}
+
 	/**
 	 * Generate a group of metrics to iterate over in the form of a set of Strings (e.g.
 	 * prefixes). If the metrics to be exported partition into groups identified by a
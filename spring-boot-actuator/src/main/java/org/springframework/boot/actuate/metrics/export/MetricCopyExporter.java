@@ -19,12 +19,15 @@ package org.springframework.boot.actuate.metrics.export;
 import java.util.Collection;
 
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.IncrementalMetricReader;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
 import org.springframework.boot.actuate.metrics.writer.MetricWriter;
 
 /**
  * {@link Exporter} that "exports" by copying metric data from a source
- * {@link MetricReader} to a destination {@link MetricWriter}.
+ * {@link MetricReader} to a destination {@link MetricWriter}. If the reader is an
+ * {@link IncrementalMetricReader} only the metrics that changed since the last export are
+ * copied.
  * 
  * @author Dave Syer
  */
@@ -34,6 +37,10 @@ public class MetricCopyExporter extends AbstractMetricExporter {
 
 	private final MetricWriter writer;
 
+	private volatile long version;
+
+	private volatile long since;
+
 	public MetricCopyExporter(MetricReader reader, MetricWriter writer) {
 		this(reader, writer, "");
 	}
@@ -44,8 +51,19 @@ public class MetricCopyExporter extends AbstractMetricExporter {
 		this.writer = writer;
 	}
 
+	@Override
+	protected void beginExport() {
+		if (this.reader instanceof IncrementalMetricReader) {
+			this.since = this.version;
+			this.version = ((IncrementalMetricReader) this.reader).nextVersion();
+		}
+	}
+
 	@Override
 	protected Iterable<Metric<?>> next(String group) {
+		if (this.reader instanceof IncrementalMetricReader) {
+			return ((IncrementalMetricReader) this.reader).findChanged(this.since);
+		}
 		return this.reader.findAll();
 	}
 
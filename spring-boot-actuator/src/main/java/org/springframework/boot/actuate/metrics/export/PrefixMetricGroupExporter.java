@@ -21,13 +21,17 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.IncrementalMetricReader;
 import org.springframework.boot.actuate.metrics.reader.PrefixMetricReader;
 import org.springframework.boot.actuate.metrics.repository.MultiMetricRepository;
 import org.springframework.boot.actuate.metrics.writer.MetricWriter;
 
 /**
  * A convenient exporter for a group of metrics from a {@link PrefixMetricReader}. Exports
- * all metrics whose name starts with a prefix (or all metrics if the prefix is empty).
+ * all metrics whose name starts with a prefix (or all metrics if the prefix is empty). If
+ * the reader is an {@link IncrementalMetricReader} only the metrics that changed since
+ * the last export are exported. Groups can be exported in parallel by setting an
+ * {@link #setExecutor(java.util.concurrent.Executor) executor}.
  * 
  * @author Dave Syer
  */
@@ -39,6 +43,10 @@ public class PrefixMetricGroupExporter extends AbstractMetricExporter {
 
 	private Set<String> groups = new HashSet<String>();
 
+	private volatile long version;
+
+	private volatile long since;
+
 	/**
 	 * Create a new exporter for metrics to a writer based on an empty prefix for the
 	 * metric names.
@@ -75,8 +83,19 @@ public class PrefixMetricGroupExporter extends AbstractMetricExporter {
 		return this.groups;
 	}
 
+	@Override
+	protected void beginExport() {
+		if (this.reader instanceof IncrementalMetricReader) {
+			this.since = this.version;
+			this.version = ((IncrementalMetricReader) this.reader).nextVersion();
+		}
+	}
+
 	@Override
 	protected Iterable<Metric<?>> next(String group) {
+		if (this.reader instanceof IncrementalMetricReader) {
+			return ((IncrementalMetricReader) this.reader).findChanged(group, this.since);
+		}
 		return this.reader.findAll(group);
 	}
 
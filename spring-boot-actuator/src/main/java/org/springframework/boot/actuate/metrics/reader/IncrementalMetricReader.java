@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.reader;
+
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * Interface for readers that keep track of which metrics have changed, so that clients
+ * (e.g. exporters) can read only the metrics that changed since they last looked. Changes
+ * are recorded against a version number that increases every time a client calls
+ * {@link #nextVersion()}.
+ * 
+ * @author Dave Syer
+ */
+public interface IncrementalMetricReader {
+
+	/**
+	 * Start a new version. Every change made after this method returns is recorded
+	 * against the new version (or a later one), so a client that reads the changes since
+	 * the version returned the last time it called this method sees all the changes made
+	 * in between (and possibly a few more).
+	 * @return the new version
+	 */
+	long nextVersion();
+
+	/**
+	 * Find all metrics that have changed in or after the given version. Version 0
+	 * includes all metrics.
+	 * @param version the earliest version to include
+	 * @return all metrics that changed in or after the version
+	 */
+	Iterable<Metric<?>> findChanged(long version);
+
+	/**
+	 * Find all metrics whose name starts with the given prefix that have changed in or
+	 * after the given version.
+	 * @param prefix the prefix for metric names
+	 * @param version the earliest version to include
+	 * @return all metrics with names starting with the prefix that changed in or after
+	 * the version
+	 */
+	Iterable<Metric<?>> findChanged(String prefix, long version);
+
+}
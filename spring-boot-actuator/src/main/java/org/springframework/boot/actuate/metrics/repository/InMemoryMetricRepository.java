@@ -20,25 +20,53 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.IncrementalMetricReader;
 import org.springframework.boot.actuate.metrics.reader.PrefixMetricReader;
+import org.springframework.boot.actuate.metrics.util.DoubleGauge;
 import org.springframework.boot.actuate.metrics.util.SimpleInMemoryRepository;
 import org.springframework.boot.actuate.metrics.util.SimpleInMemoryRepository.Callback;
+import org.springframework.boot.actuate.metrics.util.StripedCounter;
 import org.springframework.boot.actuate.metrics.writer.Delta;
+import org.springframework.boot.actuate.metrics.writer.GaugeWriter;
 
 /**
  * {@link MetricRepository} and {@link MultiMetricRepository} implementation that stores
- * metrics in memory.
+ * metrics in memory. Increments are applied to a {@link StripedCounter} per metric name,
+ * so that counters can be updated concurrently without locking, and double valued gauges
+ * are kept in a {@link DoubleGauge} that is updated in place. The {@link Metric} values
+ * for counters and gauges are only created when they are read. Setting a whole number
+ * on a counter resets the counter in place, so increments made at the same time are
+ * never applied to a counter that has been discarded.
+ * <p>
+ * Changes are tracked with a version per metric (see {@link IncrementalMetricReader}), so
+ * exporters can read just the metrics that changed since their last export without
+ * creating {@link Metric} values for the others. Metrics added directly through
+ * {@link #setValues(ConcurrentNavigableMap)} have no version and are only included when
+ * reading all changes since version 0.
  * 
  * @author Dave Syer
  */
 public class InMemoryMetricRepository implements MetricRepository, MultiMetricRepository,
-		PrefixMetricReader {
+		PrefixMetricReader, GaugeWriter, IncrementalMetricReader {
 
 	private final SimpleInMemoryRepository<Metric<?>> metrics = new SimpleInMemoryRepository<Metric<?>>();
 
+	private final SimpleInMemoryRepository<StripedCounter> counters = new SimpleInMemoryRepository<StripedCounter>();
+
+	private final SimpleInMemoryRepository<DoubleGauge> gauges = new SimpleInMemoryRepository<DoubleGauge>();
+
+	private final ConcurrentMap<String, Long> metricVersions = new ConcurrentHashMap<String, Long>();
+
+	private final AtomicLong version = new AtomicLong();
+
 	private final Collection<String> groups = new HashSet<String>();
 
 	public void setValues(ConcurrentNavigableMap<String, Metric<?>> values) {
@@ -47,27 +75,152 @@ public class InMemoryMetricRepository implements MetricRepository, MultiMetricRe
 
 	@Override
 	public void increment(Delta<?> delta) {
-		final String metricName = delta.getName();
-		final int amount = delta.getValue().intValue();
-		final Date timestamp = delta.getTimestamp();
-		this.metrics.update(metricName, new Callback<Metric<?>>() {
+		String metricName = delta.getName();
+		StripedCounter counter = this.counters.findOne(metricName);
+		if (counter == null) {
+			counter = createCounter(metricName);
+		}
+		Date timestamp = delta.getTimestamp();
+		counter.add(delta.getValue().longValue(),
+				timestamp == null ? System.currentTimeMillis() : timestamp.getTime());
+		markChanged(counter);
+	}
+
+	private StripedCounter createCounter(final String metricName) {
+		return this.counters.update(metricName, new Callback<StripedCounter>() {
 			@Override
-			public Metric<?> modify(Metric<?> current) {
+			public StripedCounter modify(StripedCounter current) {
 				if (current != null) {
-					Metric<? extends Number> metric = current;
-					return new Metric<Long>(metricName, metric.increment(amount)
-							.getValue(), timestamp);
+					return current;
 				}
-				else {
-					return new Metric<Long>(metricName, new Long(amount), timestamp);
+				StripedCounter counter = new StripedCounter(metricName);
+				Metric<?> existing = remove(metricName);
+				if (existing != null) {
+					// Carry on counting from a value that was set explicitly
+					Date timestamp = existing.getTimestamp();
+					counter.set(existing.getValue().longValue(),
+							timestamp == null ? System.currentTimeMillis() : timestamp
+									.getTime());
 				}
+				return counter;
+			}
+		});
+	}
+
+	@Override
+	public void set(String metricName, double value, long timestamp) {
+		DoubleGauge gauge = this.gauges.findOne(metricName);
+		if (gauge != null) {
+			gauge.set(value, timestamp);
+			markChanged(gauge);
+			return;
+		}
+		if (resetCounter(metricName, value, timestamp)) {
+			return;
+		}
+		final DoubleGauge created = new DoubleGauge(metricName, value, timestamp);
+		replaceCounter(metricName, new Runnable() {
+			@Override
+			public void run() {
+				removeMetric(created.getName());
+				InMemoryMetricRepository.this.gauges.set(created.getName(), created);
+				markChanged(created);
 			}
 		});
 	}
 
 	@Override
-	public void set(Metric<?> value) {
-		this.metrics.set(value.getName(), value);
+	public void set(final Metric<?> value) {
+		if (value.getValue() instanceof Double && value.getTimestamp() != null) {
+			set(value.getName(), value.getValue().doubleValue(), value.getTimestamp()
+					.getTime());
+			return;
+		}
+		long timestamp = (value.getTimestamp() == null ? System.currentTimeMillis()
+				: value.getTimestamp().getTime());
+		if (resetCounter(value.getName(), value.getValue().doubleValue(), timestamp)) {
+			return;
+		}
+		replaceCounter(value.getName(), new Runnable() {
+			@Override
+			public void run() {
+				InMemoryMetricRepository.this.gauges.remove(value.getName());
+				InMemoryMetricRepository.this.metrics.set(value.getName(), value);
+				markChanged(value.getName());
+			}
+		});
+	}
+
+	/**
+	 * Set an existing counter in place (so that increments made concurrently are applied
+	 * to the same counter and not lost) if the value is a whole number.
+	 */
+	private boolean resetCounter(String metricName, double value, long timestamp) {
+		StripedCounter counter = this.counters.findOne(metricName);
+		if (counter == null || value != Math.rint(value)) {
+			return false;
+		}
+		counter.set((long) value, timestamp);
+		markChanged(counter);
+		return true;
+	}
+
+	/**
+	 * Run the given write and remove any counter, under the same lock used to create
+	 * counters so that an increment cannot create a counter half way through.
+	 */
+	private void replaceCounter(String metricName, final Runnable write) {
+		this.counters.update(metricName, new Callback<StripedCounter>() {
+			@Override
+			public StripedCounter modify(StripedCounter current) {
+				write.run();
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Record a change against the current version, and again if an exporter starts a
+	 * new version in the meantime. Otherwise a change could be recorded against a
+	 * version that an exporter has just finished reading, and then be missed by every
+	 * later export.
+	 */
+	private void markChanged(StripedCounter counter) {
+		long version;
+		do {
+			version = this.version.get();
+			counter.markChanged(version);
+		}
+		while (version != this.version.get());
+	}
+
+	private void markChanged(DoubleGauge gauge) {
+		long version;
+		do {
+			version = this.version.get();
+			gauge.markChanged(version);
+		}
+		while (version != this.version.get());
+	}
+
+	private void markChanged(String metricName) {
+		long version;
+		do {
+			version = this.version.get();
+			markChanged(metricName, version);
+		}
+		while (version != this.version.get());
+	}
+
+	private void markChanged(String metricName, Long version) {
+		Long current = this.metricVersions.get(metricName);
+		while (current == null || current < version) {
+			if (current == null ? this.metricVersions.putIfAbsent(metricName, version) == null
+					: this.metricVersions.replace(metricName, current, version)) {
+				return;
+			}
+			current = this.metricVersions.get(metricName);
+		}
 	}
 
 	@Override
@@ -85,27 +238,103 @@ public class InMemoryMetricRepository implements MetricRepository, MultiMetricRe
 
 	@Override
 	public long count() {
-		return this.metrics.count();
+		return this.metrics.count() + this.counters.count() + this.gauges.count();
 	}
 
 	@Override
-	public void reset(String metricName) {
+	public void reset(final String metricName) {
+		replaceCounter(metricName, new Runnable() {
+			@Override
+			public void run() {
+				remove(metricName);
+			}
+		});
+	}
+
+	private Metric<?> remove(String metricName) {
+		DoubleGauge gauge = this.gauges.findOne(metricName);
+		if (gauge != null) {
+			this.gauges.remove(metricName);
+			return gauge.toMetric();
+		}
+		return removeMetric(metricName);
+	}
+
+	private Metric<?> removeMetric(String metricName) {
+		Metric<?> metric = this.metrics.findOne(metricName);
 		this.metrics.remove(metricName);
+		this.metricVersions.remove(metricName);
+		return metric;
 	}
 
 	@Override
 	public Metric<?> findOne(String metricName) {
+		StripedCounter counter = this.counters.findOne(metricName);
+		if (counter != null) {
+			return counter.toMetric();
+		}
+		DoubleGauge gauge = this.gauges.findOne(metricName);
+		if (gauge != null) {
+			return gauge.toMetric();
+		}
 		return this.metrics.findOne(metricName);
 	}
 
 	@Override
 	public Iterable<Metric<?>> findAll() {
-		return this.metrics.findAll();
+		return merge(this.metrics.findAll(), this.counters.findAll(),
+				this.gauges.findAll(), 0);
 	}
 
 	@Override
 	public Iterable<Metric<?>> findAll(String metricNamePrefix) {
-		return this.metrics.findAllWithPrefix(metricNamePrefix);
+		return merge(this.metrics.findAllWithPrefix(metricNamePrefix),
+				this.counters.findAllWithPrefix(metricNamePrefix),
+				this.gauges.findAllWithPrefix(metricNamePrefix), 0);
+	}
+
+	@Override
+	public long nextVersion() {
+		return this.version.incrementAndGet();
+	}
+
+	@Override
+	public Iterable<Metric<?>> findChanged(long version) {
+		return merge(this.metrics.findAll(), this.counters.findAll(),
+				this.gauges.findAll(), version);
+	}
+
+	@Override
+	public Iterable<Metric<?>> findChanged(String prefix, long version) {
+		return merge(this.metrics.findAllWithPrefix(prefix),
+				this.counters.findAllWithPrefix(prefix),
+				this.gauges.findAllWithPrefix(prefix), version);
+	}
+
+	private Iterable<Metric<?>> merge(Iterable<Metric<?>> metrics,
+			Iterable<StripedCounter> counters, Iterable<DoubleGauge> gauges, long version) {
+		Map<String, Metric<?>> result = new TreeMap<String, Metric<?>>();
+		for (Metric<?> metric : metrics) {
+			if (version == 0 || getVersion(metric.getName()) >= version) {
+				result.put(metric.getName(), metric);
+			}
+		}
+		for (StripedCounter counter : counters) {
+			if (counter.getVersion() >= version) {
+				result.put(counter.getName(), counter.toMetric());
+			}
+		}
+		for (DoubleGauge gauge : gauges) {
+			if (gauge.getVersion() >= version) {
+				result.put(gauge.getName(), gauge.toMetric());
+			}
+		}
+		return result.values();
+	}
+
+	private long getVersion(String metricName) {
+		Long version = this.metricVersions.get(metricName);
+		return (version == null ? 0 : version);
 	}
 
 }
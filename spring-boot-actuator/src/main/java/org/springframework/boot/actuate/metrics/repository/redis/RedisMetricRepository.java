@@ -18,28 +18,62 @@ package org.springframework.boot.actuate.metrics.repository.redis;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.actuate.metrics.repository.MetricRepository;
 import org.springframework.boot.actuate.metrics.writer.Delta;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.BoundZSetOperations;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 
 /**
  * A {@link MetricRepository} implementation for a redis backend. Metric values are stored
  * as regular hash values against a key composed of the metric name prefixed with a
  * constant (default "spring.metrics.").
+ * <p>
+ * By default every write goes straight to redis. If a {@link #setFlushInterval(long)
+ * flush interval} is set the repository is buffered instead: increments are accumulated
+ * and values are held locally, and they are all sent to redis in a single pipelined batch
+ * (with one membership update per key) every interval, whenever the number of pending
+ * keys reaches the {@link #setMaxPending(int) limit}, before any read, and when the
+ * repository is destroyed. Writes are never sent to redis on the thread that makes them.
+ * Increments that follow a value for the same key are added to that value before it is
+ * sent. A redis pipeline is not atomic, so if a batch fails its increments are dropped
+ * (some of them may already have been applied) and only its values are buffered again,
+ * up to the {@link #setMaxPending(int) limit}.
  * 
  * @author Dave Syer
  */
-public class RedisMetricRepository implements MetricRepository {
+public class RedisMetricRepository implements MetricRepository, InitializingBean,
+		DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(RedisMetricRepository.class);
 
 	private static final String DEFAULT_METRICS_PREFIX = "spring.metrics.";
 
@@ -53,6 +87,22 @@ public class RedisMetricRepository implements MetricRepository {
 
 	private final ValueOperations<String, Long> longOperations;
 
+	private final RedisSerializer<String> serializer = new StringRedisSerializer();
+
+	private final ConcurrentMap<String, AtomicLong> pendingIncrements = new ConcurrentHashMap<String, AtomicLong>();
+
+	private final ConcurrentMap<String, String> pendingValues = new ConcurrentHashMap<String, String>();
+
+	private final Object flushMonitor = new Object();
+
+	private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+	private long flushInterval = 0;
+
+	private int maxPending = 10000;
+
+	private ScheduledExecutorService scheduler;
+
 	public RedisMetricRepository(RedisConnectionFactory redisConnectionFactory) {
 		Assert.notNull(redisConnectionFactory, "RedisConnectionFactory must not be null");
 		this.redisOperations = RedisUtils.stringTemplate(redisConnectionFactory);
@@ -85,8 +135,65 @@ public class RedisMetricRepository implements MetricRepository {
 		this.zSetOperations = this.redisOperations.boundZSetOps(this.key);
 	}
 
+	/**
+	 * The interval between flushes of buffered writes to redis. Defaults to 0, which
+	 * means that writes are not buffered.
+	 * @param flushInterval the flush interval in milliseconds
+	 */
+	public void setFlushInterval(long flushInterval) {
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * The maximum number of keys with buffered writes. When it is reached a flush is
+	 * started in the background without waiting for the next interval. Defaults to
+	 * 10000.
+	 * @param maxPending the maximum number of keys to buffer
+	 */
+	public void setMaxPending(int maxPending) {
+		this.maxPending = maxPending;
+	}
+
+	private boolean isBuffered() {
+		return this.flushInterval > 0;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (isBuffered() && this.scheduler == null) {
+			this.scheduler = Executors
+					.newSingleThreadScheduledExecutor(new CustomizableThreadFactory(
+							"redis-metrics-"));
+			this.scheduler.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					flushQuietly();
+				}
+			}, this.flushInterval, this.flushInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void flushQuietly() {
+		try {
+			flush();
+		}
+		catch (RuntimeException ex) {
+			logger.warn("Could not flush metrics to redis", ex);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (this.scheduler != null) {
+			this.scheduler.shutdown();
+			this.scheduler = null;
+		}
+		flush();
+	}
+
 	@Override
 	public Metric<?> findOne(String metricName) {
+		flush();
 		String redisKey = keyFor(metricName);
 		String raw = this.redisOperations.opsForValue().get(redisKey);
 		return deserialize(redisKey, raw);
@@ -94,6 +201,7 @@ public class RedisMetricRepository implements MetricRepository {
 
 	@Override
 	public Iterable<Metric<?>> findAll() {
+		flush();
 
 		// This set is sorted
 		Set<String> keys = this.zSetOperations.range(0, -1);
@@ -113,6 +221,7 @@ public class RedisMetricRepository implements MetricRepository {
 
 	@Override
 	public long count() {
+		flush();
 		return this.zSetOperations.size();
 	}
 
@@ -120,6 +229,10 @@ public class RedisMetricRepository implements MetricRepository {
 	public void increment(Delta<?> delta) {
 		String name = delta.getName();
 		String key = keyFor(name);
+		if (isBuffered()) {
+			bufferIncrement(key, delta.getValue().longValue());
+			return;
+		}
 		trackMembership(key);
 		this.longOperations.increment(key, delta.getValue().longValue());
 	}
@@ -129,6 +242,10 @@ public class RedisMetricRepository implements MetricRepository {
 		String raw = serialize(value);
 		String name = value.getName();
 		String key = keyFor(name);
+		if (isBuffered()) {
+			bufferValue(key, raw);
+			return;
+		}
 		trackMembership(key);
 		this.redisOperations.opsForValue().set(key, raw);
 	}
@@ -136,11 +253,189 @@ public class RedisMetricRepository implements MetricRepository {
 	@Override
 	public void reset(String metricName) {
 		String key = keyFor(metricName);
+		AtomicLong pending = this.pendingIncrements.get(key);
+		if (pending != null) {
+			pending.set(0);
+		}
+		this.pendingValues.remove(key);
 		if (this.zSetOperations.remove(key) == 1) {
 			this.redisOperations.delete(key);
 		}
 	}
 
+	private void bufferIncrement(String key, long delta) {
+		AtomicLong pending = this.pendingIncrements.get(key);
+		if (pending == null) {
+			checkPendingLimit();
+			AtomicLong created = new AtomicLong();
+			pending = this.pendingIncrements.putIfAbsent(key, created);
+			pending = (pending == null ? created : pending);
+		}
+		pending.addAndGet(delta);
+		if (this.pendingIncrements.get(key) != pending) {
+			// Removed by a flush that might not have seen our delta, so move whatever
+			// is left to the current counter for the key
+			long remaining = pending.getAndSet(0);
+			if (remaining != 0) {
+				bufferIncrement(key, remaining);
+			}
+		}
+	}
+
+	private void bufferValue(String key, String raw) {
+		if (!this.pendingValues.containsKey(key)) {
+			checkPendingLimit();
+		}
+		AtomicLong pending = this.pendingIncrements.get(key);
+		if (pending != null) {
+			// The value replaces any increments that have not been sent yet
+			pending.set(0);
+		}
+		this.pendingValues.put(key, raw);
+	}
+
+	private void checkPendingLimit() {
+		if (this.pendingIncrements.size() + this.pendingValues.size() >= this.maxPending) {
+			ScheduledExecutorService scheduler = this.scheduler;
+			if (scheduler != null && this.flushRequested.compareAndSet(false, true)) {
+				scheduler.execute(new Runnable() {
+					@Override
+					public void run() {
+						RedisMetricRepository.this.flushRequested.set(false);
+						flushQuietly();
+					}
+				});
+			}
+		}
+	}
+
+	/**
+	 * Send all buffered writes to redis in a single pipelined batch. Has no effect if the
+	 * repository is not buffered or there is nothing to send. If the batch fails its
+	 * values are buffered again (unless they have since been replaced by a newer value),
+	 * its increments are dropped and the exception is rethrown.
+	 */
+	public void flush() {
+		if (this.pendingIncrements.isEmpty() && this.pendingValues.isEmpty()) {
+			return;
+		}
+		synchronized (this.flushMonitor) {
+			final Map<String, String> values = drainValues();
+			final Map<String, Long> increments = drainIncrements();
+			addIncrementsToValues(values, increments);
+			final Set<String> keys = new LinkedHashSet<String>(values.keySet());
+			keys.addAll(increments.keySet());
+			if (keys.isEmpty()) {
+				return;
+			}
+			try {
+				sendPipelined(keys, values, increments);
+			}
+			catch (RuntimeException ex) {
+				requeue(values);
+				if (!increments.isEmpty()) {
+					logger.warn("Dropped " + increments.size() + " metric increments "
+							+ "that might already have been applied to redis");
+				}
+				throw ex;
+			}
+		}
+	}
+
+	private void sendPipelined(final Set<String> keys, final Map<String, String> values,
+			final Map<String, Long> increments) {
+		this.redisOperations.executePipelined(new RedisCallback<Object>() {
+			@Override
+			public Object doInRedis(RedisConnection connection)
+					throws DataAccessException {
+				byte[] index = serialize(RedisMetricRepository.this.key);
+				for (String key : keys) {
+					connection.zAdd(index, 0.0D, serialize(key));
+				}
+				for (Map.Entry<String, String> entry : values.entrySet()) {
+					connection.set(serialize(entry.getKey()),
+							serialize(entry.getValue()));
+				}
+				for (Map.Entry<String, Long> entry : increments.entrySet()) {
+					connection.incrBy(serialize(entry.getKey()), entry.getValue());
+				}
+				return null;
+			}
+		});
+	}
+
+	private void addIncrementsToValues(Map<String, String> values,
+			Map<String, Long> increments) {
+		// Redis would reject an INCRBY on a value we have set, and any increment still
+		// pending for a key was made after its value (setting a value clears them)
+		Iterator<Map.Entry<String, Long>> iterator = increments.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, Long> entry = iterator.next();
+			String value = values.get(entry.getKey());
+			if (value != null) {
+				values.put(entry.getKey(), add(value, entry.getValue()));
+				iterator.remove();
+			}
+		}
+	}
+
+	private String add(String raw, long delta) {
+		String[] vals = raw.split("@");
+		String value = String.valueOf(Double.valueOf(vals[0]) + delta);
+		return (vals.length > 1 ? value + "@" + vals[1] : value);
+	}
+
+	private void requeue(Map<String, String> values) {
+		int dropped = 0;
+		for (Map.Entry<String, String> entry : values.entrySet()) {
+			if (this.pendingValues.size() >= this.maxPending) {
+				dropped++;
+			}
+			else {
+				// A newer value wins over the one that failed
+				this.pendingValues.putIfAbsent(entry.getKey(), entry.getValue());
+			}
+		}
+		if (dropped > 0) {
+			logger.warn("Dropped " + dropped + " metric values that could not be "
+					+ "sent to redis");
+		}
+	}
+
+	private Map<String, String> drainValues() {
+		Map<String, String> values = new HashMap<String, String>();
+		for (String key : this.pendingValues.keySet()) {
+			String value = this.pendingValues.remove(key);
+			if (value != null) {
+				values.put(key, value);
+			}
+		}
+		return values;
+	}
+
+	private Map<String, Long> drainIncrements() {
+		Map<String, Long> increments = new HashMap<String, Long>();
+		for (Map.Entry<String, AtomicLong> entry : this.pendingIncrements.entrySet()) {
+			String key = entry.getKey();
+			AtomicLong pending = entry.getValue();
+			long delta = pending.getAndSet(0);
+			if (delta == 0) {
+				// Idle since the last flush, so stop tracking it (any delta added
+				// concurrently is either collected here or moved by the writer)
+				this.pendingIncrements.remove(key, pending);
+				delta = pending.getAndSet(0);
+			}
+			if (delta != 0) {
+				increments.put(key, delta);
+			}
+		}
+		return increments;
+	}
+
+	private byte[] serialize(String value) {
+		return this.serializer.serialize(value);
+	}
+
 	private Metric<?> deserialize(String redisKey, String v) {
 		if (redisKey == null || v == null || !redisKey.startsWith(this.prefix)) {
 			return null;
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.timer;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.actuate.metrics.TimerService;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Default implementation of {@link TimerService}.
+ * 
+ * @author Dave Syer
+ */
+public class DefaultTimerService implements TimerService {
+
+	private final TimerRepository repository;
+
+	private final ConcurrentMap<String, String> names = new ConcurrentReferenceHashMap<String, String>();
+
+	/**
+	 * Create a {@link DefaultTimerService} instance.
+	 * @param repository the underlying repository used to store the durations
+	 */
+	public DefaultTimerService(TimerRepository repository) {
+		this.repository = repository;
+	}
+
+	@Override
+	public void record(String metricName, long duration, TimeUnit unit) {
+		this.repository.record(wrap(metricName), duration, unit);
+	}
+
+	private String wrap(String metricName) {
+		String name = this.names.get(metricName);
+		if (name == null) {
+			name = (metricName.startsWith("timer") ? metricName : "timer." + metricName);
+			this.names.put(metricName, name);
+		}
+		return name;
+	}
+
+}
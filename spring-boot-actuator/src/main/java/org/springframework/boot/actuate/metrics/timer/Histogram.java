@@ -0,0 +1,223 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.timer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.util.Assert;
+
+/**
+ * A named histogram of long values (e.g. durations) with a fixed memory footprint. Values
+ * are counted in log-linear buckets (in the style of HdrHistogram): values below 64 are
+ * counted exactly and larger values in 32 buckets per power of two, so a percentile is
+ * accurate to within about 3%. Recording a value is lock-free and allocates nothing, and
+ * histograms can be merged, e.g. to combine the measurements from several sources.
+ * 
+ * @author Dave Syer
+ */
+public final class Histogram {
+
+	/**
+	 * The largest value that can be recorded. Larger values are recorded as this one.
+	 */
+	public static final long MAX_VALUE = (1L << 36) - 1;
+
+	private static final int SUB_BUCKET_BITS = 6;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+	private static final int BUCKETS = getIndex(MAX_VALUE) + 1;
+
+	private final String name;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	private final AtomicLong sum = new AtomicLong();
+
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Create a new empty {@link Histogram}.
+	 * @param name the name of the histogram
+	 */
+	public Histogram(String name) {
+		Assert.notNull(name, "Name must not be null");
+		this.name = name;
+	}
+
+	/**
+	 * Returns the name of the histogram.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Record a value.
+	 * @param value the value (negative values are recorded as zero)
+	 */
+	public void record(long value) {
+		value = Math.min(Math.max(value, 0), MAX_VALUE);
+		this.counts.incrementAndGet(getIndex(value));
+		this.sum.addAndGet(value);
+		updateMax(value);
+	}
+
+	/**
+	 * Add all the values recorded in another histogram to this one.
+	 * @param other the histogram to merge into this one
+	 */
+	public void add(Histogram other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			long count = other.counts.get(i);
+			if (count != 0) {
+				this.counts.addAndGet(i, count);
+			}
+		}
+		this.sum.addAndGet(other.sum.get());
+		updateMax(other.max.get());
+	}
+
+	/**
+	 * Create a snapshot of the values recorded so far, from which statistics can be
+	 * computed.
+	 * @return a new {@link Snapshot}
+	 */
+	public Snapshot snapshot() {
+		long[] counts = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = this.counts.get(i);
+		}
+		return new Snapshot(this.name, counts, this.sum.get(), this.max.get());
+	}
+
+	private void updateMax(long value) {
+		long current = this.max.get();
+		while (value > current && !this.max.compareAndSet(current, value)) {
+			current = this.max.get();
+		}
+	}
+
+	static int getIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+	}
+
+	static long getLowestValue(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / HALF_SUB_BUCKETS - 1;
+		return (long) (index - shift * HALF_SUB_BUCKETS) << shift;
+	}
+
+	static long getHighestValue(int index) {
+		return getLowestValue(index + 1) - 1;
+	}
+
+	@Override
+	public String toString() {
+		return "Histogram [name=" + this.name + "]";
+	}
+
+	/**
+	 * Immutable statistics for the values in a {@link Histogram} at a point in time.
+	 */
+	public static final class Snapshot {
+
+		private final String name;
+
+		private final long[] counts;
+
+		private final long count;
+
+		private final long sum;
+
+		private final long max;
+
+		private Snapshot(String name, long[] counts, long sum, long max) {
+			this.name = name;
+			this.counts = counts;
+			long count = 0;
+			for (long value : counts) {
+				count += value;
+			}
+			this.count = count;
+			this.sum = sum;
+			this.max = max;
+		}
+
+		/**
+		 * Returns the name of the histogram.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Returns the number of values recorded.
+		 */
+		public long getCount() {
+			return this.count;
+		}
+
+		/**
+		 * Returns the largest value recorded.
+		 */
+		public long getMax() {
+			return this.max;
+		}
+
+		/**
+		 * Returns the mean of the values recorded (or zero if there are none).
+		 */
+		public double getMean() {
+			return (this.count == 0 ? 0 : (double) this.sum / this.count);
+		}
+
+		/**
+		 * Returns an estimate of the value at the given percentile, i.e. a value such
+		 * that the given percentage of the values recorded are less than or equal to it.
+		 * @param percentile the percentile (between 0 and 100)
+		 * @return the value at the percentile (or zero if no values were recorded)
+		 */
+		public long getValueAtPercentile(double percentile) {
+			Assert.isTrue(percentile >= 0 && percentile <= 100,
+					"Percentile must be between 0 and 100");
+			if (this.count == 0) {
+				return 0;
+			}
+			long target = Math.max(1, (long) Math.ceil(this.count * percentile / 100));
+			long total = 0;
+			for (int i = 0; i < this.counts.length; i++) {
+				total += this.counts[i];
+				if (total >= target) {
+					return Math.min(getHighestValue(i), this.max);
+				}
+			}
+			return this.max;
+		}
+
+	}
+
+}
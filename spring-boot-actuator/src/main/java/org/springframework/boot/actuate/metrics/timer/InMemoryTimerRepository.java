@@ -0,0 +1,91 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.timer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.actuate.metrics.util.SimpleInMemoryRepository;
+import org.springframework.boot.actuate.metrics.util.SimpleInMemoryRepository.Callback;
+
+/**
+ * In memory implementation of {@link TimerRepository}. Recording a duration for a timer
+ * that already exists is lock-free and allocates nothing. Each timer holds a fixed size
+ * {@link Histogram}, so the number of distinct timers is capped (500 by default) and
+ * durations for new timers beyond that are dropped.
+ * 
+ * @author Dave Syer
+ */
+public class InMemoryTimerRepository implements TimerRepository {
+
+	private final SimpleInMemoryRepository<Histogram> repository = new SimpleInMemoryRepository<Histogram>();
+
+	private volatile int maxTimers = 500;
+
+	/**
+	 * @param maxTimers the maximum number of distinct timers to hold (default 500)
+	 */
+	public void setMaxTimers(int maxTimers) {
+		this.maxTimers = maxTimers;
+	}
+
+	@Override
+	public void record(final String metricName, long duration, TimeUnit unit) {
+		Histogram histogram = this.repository.findOne(metricName);
+		if (histogram == null) {
+			if (count() >= this.maxTimers) {
+				return;
+			}
+			histogram = this.repository.update(metricName, new Callback<Histogram>() {
+				@Override
+				public Histogram modify(Histogram current) {
+					if (current != null) {
+						return current;
+					}
+					if (count() >= InMemoryTimerRepository.this.maxTimers) {
+						return null;
+					}
+					return new Histogram(metricName);
+				}
+			});
+			if (histogram == null) {
+				return;
+			}
+		}
+		histogram.record(unit.toMicros(duration));
+	}
+
+	@Override
+	public void reset(String metricName) {
+		this.repository.remove(metricName);
+	}
+
+	@Override
+	public Histogram findOne(String metricName) {
+		return this.repository.findOne(metricName);
+	}
+
+	@Override
+	public Iterable<Histogram> findAll() {
+		return this.repository.findAll();
+	}
+
+	@Override
+	public long count() {
+		return this.repository.count();
+	}
+
+}
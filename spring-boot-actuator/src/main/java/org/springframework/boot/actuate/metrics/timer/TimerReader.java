@@ -0,0 +1,44 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.timer;
+
+/**
+ * A basic set of read operations for {@link Histogram} instances recorded by timers.
+ * 
+ * @author Dave Syer
+ */
+public interface TimerReader {
+
+	/**
+	 * Find a single timer histogram by name.
+	 * @param name the name of the timer
+	 * @return a histogram or {@code null}
+	 */
+	Histogram findOne(String name);
+
+	/**
+	 * Find all the timer histograms known to this reader.
+	 * @return all instances known to this reader
+	 */
+	Iterable<Histogram> findAll();
+
+	/**
+	 * @return the number of timers available
+	 */
+	long count();
+
+}
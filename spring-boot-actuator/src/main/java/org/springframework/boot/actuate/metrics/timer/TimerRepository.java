@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Convenient combination of reader and writer concerns for timers. Durations are stored
+ * in a {@link Histogram} per timer name, in microseconds.
+ * 
+ * @author Dave Syer
+ */
+public interface TimerRepository extends TimerReader {
+
+	/**
+	 * Record a duration for a timer.
+	 * @param metricName the name of the timer
+	 * @param duration the duration
+	 * @param unit the unit of the duration
+	 */
+	void record(String metricName, long duration, TimeUnit unit);
+
+	/**
+	 * Discard all the durations recorded for a timer.
+	 * @param metricName the name of the timer
+	 */
+	void reset(String metricName);
+
+}
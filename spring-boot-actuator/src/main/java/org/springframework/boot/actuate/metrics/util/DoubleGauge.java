@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.util;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.IncrementalMetricReader;
+import org.springframework.util.Assert;
+
+/**
+ * A named gauge that holds its latest value and timestamp as primitives, so that it can
+ * be updated in place without allocating anything. The {@link Metric} view is only built
+ * when {@link #toMetric()} is called.
+ * 
+ * @author Dave Syer
+ */
+public final class DoubleGauge {
+
+	private final String name;
+
+	private volatile double value;
+
+	private volatile long timestamp;
+
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * Create a new {@link DoubleGauge} instance.
+	 * @param name the name of the gauge
+	 * @param value the initial value
+	 * @param timestamp the initial timestamp in milliseconds since the epoch
+	 */
+	public DoubleGauge(String name, double value, long timestamp) {
+		Assert.notNull(name, "Name must not be null");
+		this.name = name;
+		this.value = value;
+		this.timestamp = timestamp;
+	}
+
+	/**
+	 * Returns the name of the gauge.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Set the value of the gauge. Readers might briefly see the new value with the old
+	 * timestamp, but never a value that was not set.
+	 * @param value the new value
+	 * @param timestamp the time of the update in milliseconds since the epoch
+	 */
+	public void set(double value, long timestamp) {
+		this.value = value;
+		this.timestamp = timestamp;
+	}
+
+	/**
+	 * Returns the latest value of the gauge.
+	 */
+	public double getValue() {
+		return this.value;
+	}
+
+	/**
+	 * Returns the time of the latest update in milliseconds since the epoch.
+	 */
+	public long getTimestamp() {
+		return this.timestamp;
+	}
+
+	/**
+	 * Record that the gauge changed in the given version (see
+	 * {@link IncrementalMetricReader}). Should be called after the change is made. The
+	 * version never goes backwards, and it is only written when it increases, so calling
+	 * this on every update is cheap.
+	 * @param version the version of the change
+	 */
+	public void markChanged(long version) {
+		long current = this.version.get();
+		while (current < version && !this.version.compareAndSet(current, version)) {
+			current = this.version.get();
+		}
+	}
+
+	/**
+	 * Returns the latest version in which the gauge changed.
+	 */
+	public long getVersion() {
+		return this.version.get();
+	}
+
+	/**
+	 * Create a new {@link Metric} with the current value and timestamp of this gauge.
+	 * @return a new {@link Metric} instance
+	 */
+	public Metric<Double> toMetric() {
+		return new Metric<Double>(this.name, this.value, new Date(this.timestamp));
+	}
+
+	@Override
+	public String toString() {
+		return "DoubleGauge [name=" + this.name + ", value=" + this.value + "]";
+	}
+
+}
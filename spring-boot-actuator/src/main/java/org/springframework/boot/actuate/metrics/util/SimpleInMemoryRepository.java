@@ -35,6 +35,10 @@ public class SimpleInMemoryRepository<T> {
 
 	private final ConcurrentMap<String, Object> locks = new ConcurrentReferenceHashMap<String, Object>();
 
+	/**
+	 * Callback used to modify a value under the lock for its name. Returning
+	 * {@code null} removes the value.
+	 */
 	public static interface Callback<T> {
 		T modify(T current);
 	}
@@ -47,6 +51,10 @@ public class SimpleInMemoryRepository<T> {
 		synchronized (lock) {
 			T current = this.values.get(name);
 			T value = callback.modify(current);
+			if (value == null) {
+				this.values.remove(name);
+				return null;
+			}
 			if (current != null) {
 				this.values.replace(name, current, value);
 			}
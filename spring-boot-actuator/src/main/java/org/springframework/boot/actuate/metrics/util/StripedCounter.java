@@ -0,0 +1,202 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.util;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.IncrementalMetricReader;
+import org.springframework.util.Assert;
+
+/**
+ * A named counter that can be updated from many threads without locking. Updates start
+ * on a single atomic cell and, as soon as two threads collide, spread out over a set of
+ * padded cells (one per processor, like a JDK 8 {@code LongAdder}) so that concurrent
+ * increments do not compete for the same cache line. Updating the counter allocates
+ * nothing: the {@link Metric} view is only built when {@link #toMetric()} is called.
+ * 
+ * @author Dave Syer
+ */
+public final class StripedCounter {
+
+	/**
+	 * Number of longs in each padded cell (one 64 byte cache line). The first slot
+	 * holds the value and the second the last update time.
+	 */
+	private static final int CELL_SIZE = 8;
+
+	private static final int STRIPES = getStripes();
+
+	private final String name;
+
+	private final AtomicLong base = new AtomicLong();
+
+	private volatile long baseTimestamp;
+
+	private volatile AtomicLongArray cells;
+
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * Create a new {@link StripedCounter} with an initial value of zero.
+	 * @param name the name of the counter
+	 */
+	public StripedCounter(String name) {
+		Assert.notNull(name, "Name must not be null");
+		this.name = name;
+		this.baseTimestamp = System.currentTimeMillis();
+	}
+
+	/**
+	 * Returns the name of the counter.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Add the given amount to the counter (or subtract it if it is negative).
+	 * @param amount the amount to add
+	 * @param timestamp the time of the update in milliseconds since the epoch
+	 */
+	public void add(long amount, long timestamp) {
+		AtomicLongArray cells = this.cells;
+		if (cells == null) {
+			long current = this.base.get();
+			if (this.base.compareAndSet(current, current + amount)) {
+				this.baseTimestamp = timestamp;
+				return;
+			}
+			cells = inflate();
+		}
+		int index = getStripe() * CELL_SIZE;
+		cells.addAndGet(index, amount);
+		cells.lazySet(index + 1, timestamp);
+	}
+
+	/**
+	 * Set the counter to the given value. Updates made concurrently with this call may
+	 * or may not be included in the result, so it should normally only be used to reset
+	 * or seed a counter.
+	 * @param value the new value
+	 * @param timestamp the time of the update in milliseconds since the epoch
+	 */
+	public void set(long value, long timestamp) {
+		AtomicLongArray cells = this.cells;
+		if (cells != null) {
+			for (int i = 0; i < STRIPES; i++) {
+				cells.set(i * CELL_SIZE, 0);
+			}
+		}
+		this.base.set(value);
+		this.baseTimestamp = timestamp;
+	}
+
+	/**
+	 * Returns the current value of the counter, i.e. the sum of all the cells. This is
+	 * not an atomic snapshot: concurrent updates may or may not be included.
+	 */
+	public long getValue() {
+		long sum = this.base.get();
+		AtomicLongArray cells = this.cells;
+		if (cells != null) {
+			for (int i = 0; i < STRIPES; i++) {
+				sum += cells.get(i * CELL_SIZE);
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the time of the latest update in milliseconds since the epoch (as
+	 * recorded by the thread that made it).
+	 */
+	public long getTimestamp() {
+		long timestamp = this.baseTimestamp;
+		AtomicLongArray cells = this.cells;
+		if (cells != null) {
+			for (int i = 0; i < STRIPES; i++) {
+				timestamp = Math.max(timestamp, cells.get(i * CELL_SIZE + 1));
+			}
+		}
+		return timestamp;
+	}
+
+	/**
+	 * Record that the counter changed in the given version (see
+	 * {@link IncrementalMetricReader}). Should be called after the change is made. The
+	 * version never goes backwards, and it is only written when it increases, so calling
+	 * this on every update is cheap.
+	 * @param version the version of the change
+	 */
+	public void markChanged(long version) {
+		long current = this.version.get();
+		while (current < version && !this.version.compareAndSet(current, version)) {
+			current = this.version.get();
+		}
+	}
+
+	/**
+	 * Returns the latest version in which the counter changed.
+	 */
+	public long getVersion() {
+		return this.version.get();
+	}
+
+	/**
+	 * Create a new {@link Metric} with the current value and timestamp of this counter.
+	 * @return a new {@link Metric} instance
+	 */
+	public Metric<Long> toMetric() {
+		return new Metric<Long>(this.name, getValue(), new Date(getTimestamp()));
+	}
+
+	private AtomicLongArray inflate() {
+		synchronized (this.base) {
+			if (this.cells == null) {
+				this.cells = new AtomicLongArray(STRIPES * CELL_SIZE);
+			}
+			return this.cells;
+		}
+	}
+
+	private static int getStripe() {
+		long id = Thread.currentThread().getId();
+		int hash = (int) (id ^ (id >>> 32));
+		hash ^= (hash >>> 16);
+		hash *= 0x85ebca6b;
+		hash ^= (hash >>> 13);
+		return hash & (STRIPES - 1);
+	}
+
+	private static int getStripes() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		int stripes = 1;
+		while (stripes < processors && stripes < 64) {
+			stripes <<= 1;
+		}
+		return stripes;
+	}
+
+	@Override
+	public String toString() {
+		return "StripedCounter [name=" + this.name + ", value=" + getValue() + "]";
+	}
+
+}
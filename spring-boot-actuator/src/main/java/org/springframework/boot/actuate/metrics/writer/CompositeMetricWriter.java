@@ -17,17 +17,20 @@
 package org.springframework.boot.actuate.metrics.writer;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import org.springframework.boot.actuate.metrics.Metric;
 
 /**
  * Composite implementation of {@link MetricWriter} that just sends its input to all of
- * the delegates that have been registered.
+ * the delegates that have been registered. Gauge values written as primitives are passed
+ * on as they are to delegates that are themselves {@link GaugeWriter}s, and a
+ * {@link Metric} is only created if there is another kind of delegate.
  * 
  * @author Dave Syer
  */
-public class CompositeMetricWriter implements MetricWriter {
+public class CompositeMetricWriter implements MetricWriter, GaugeWriter {
 
 	private final List<MetricWriter> writers = new ArrayList<MetricWriter>();
 
@@ -55,6 +58,22 @@ public class CompositeMetricWriter implements MetricWriter {
 		}
 	}
 
+	@Override
+	public void set(String metricName, double value, long timestamp) {
+		Metric<Double> metric = null;
+		for (MetricWriter writer : this.writers) {
+			if (writer instanceof GaugeWriter) {
+				((GaugeWriter) writer).set(metricName, value, timestamp);
+			}
+			else {
+				if (metric == null) {
+					metric = new Metric<Double>(metricName, value, new Date(timestamp));
+				}
+				writer.set(metric);
+			}
+		}
+	}
+
 	@Override
 	public void reset(String metricName) {
 		for (MetricWriter writer : this.writers) {
@@ -16,11 +16,16 @@
 
 package org.springframework.boot.actuate.metrics.writer;
 
+import java.util.concurrent.ConcurrentMap;
+
 import org.springframework.boot.actuate.metrics.GaugeService;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
- * Default implementation of {@link GaugeService}.
+ * Default implementation of {@link GaugeService}. If the writer is a {@link GaugeWriter}
+ * values are passed to it directly, so that submitting a value for a metric name that
+ * has been seen before does not allocate anything.
  * 
  * @author Dave Syer
  */
@@ -28,6 +33,8 @@ public class DefaultGaugeService implements GaugeService {
 
 	private final MetricWriter writer;
 
+	private final ConcurrentMap<String, String> names = new ConcurrentReferenceHashMap<String, String>();
+
 	/**
 	 * Create a {@link DefaultCounterService} instance.
 	 * @param writer the underlying writer used to manage metrics
@@ -38,10 +45,25 @@ public class DefaultGaugeService implements GaugeService {
 
 	@Override
 	public void submit(String metricName, double value) {
-		this.writer.set(new Metric<Double>(wrap(metricName), value));
+		if (this.writer instanceof GaugeWriter) {
+			((GaugeWriter) this.writer).set(wrap(metricName), value,
+					System.currentTimeMillis());
+		}
+		else {
+			this.writer.set(new Metric<Double>(wrap(metricName), value));
+		}
 	}
 
 	private String wrap(String metricName) {
+		String name = this.names.get(metricName);
+		if (name == null) {
+			name = getGaugeName(metricName);
+			this.names.put(metricName, name);
+		}
+		return name;
+	}
+
+	private String getGaugeName(String metricName) {
 		if (metricName.startsWith("gauge") || metricName.startsWith("histogram")
 				|| metricName.startsWith("timer")) {
 			return metricName;
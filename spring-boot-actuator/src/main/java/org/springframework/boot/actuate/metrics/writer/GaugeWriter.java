@@ -0,0 +1,39 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.writer;
+
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * Optional extension of {@link MetricWriter} for writers that can record a gauge value
+ * directly from primitives, without the caller having to create a {@link Metric} (and its
+ * timestamp) for every update.
+ * 
+ * @author Dave Syer
+ * @see DefaultGaugeService
+ */
+public interface GaugeWriter {
+
+	/**
+	 * Set the value of a gauge.
+	 * @param metricName the name of the gauge
+	 * @param value the value of the gauge
+	 * @param timestamp the time of the measurement in milliseconds since the epoch
+	 */
+	void set(String metricName, double value, long timestamp);
+
+}
@@ -21,41 +21,172 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.util.Assert;
 
 /**
- * In-memory implementation of {@link TraceRepository}.
+ * In-memory implementation of {@link TraceRepository}. Traces are kept in a fixed size
+ * ring buffer, so adding a trace is a constant time operation that never blocks, even
+ * with a large capacity and many concurrent requests.
  * 
  * @author Dave Syer
  */
 public class InMemoryTraceRepository implements TraceRepository {
 
-	private int capacity = 100;
-
-	private final List<Trace> traces = new ArrayList<Trace>();
+	private volatile TraceBuffer buffer = new TraceBuffer(100, 0);
 
 	/**
+	 * Set the number of traces that are kept. Existing traces are retained (up to the new
+	 * capacity), as are traces added while the capacity is changed.
 	 * @param capacity the capacity to set
 	 */
-	public void setCapacity(int capacity) {
-		this.capacity = capacity;
+	public synchronized void setCapacity(int capacity) {
+		TraceBuffer old = this.buffer;
+		// Leave room for the existing traces in front of the new ones
+		TraceBuffer buffer = new TraceBuffer(capacity, capacity);
+		this.buffer = buffer;
+		old.retire();
+		List<Trace> traces = old.findAll();
+		int count = Math.min(traces.size(), capacity);
+		for (int i = 0; i < count; i++) {
+			buffer.write(capacity - count + i, traces.get(traces.size() - count + i));
+		}
 	}
 
 	@Override
 	public List<Trace> findAll() {
-		synchronized (this.traces) {
-			return Collections.unmodifiableList(this.traces);
-		}
+		return Collections.unmodifiableList(this.buffer.findAll());
 	}
 
 	@Override
 	public void add(Map<String, Object> map) {
 		Trace trace = new Trace(new Date(), map);
-		synchronized (this.traces) {
-			while (this.traces.size() >= this.capacity) {
-				this.traces.remove(0);
+		while (!this.buffer.add(trace)) {
+			// The buffer was replaced by setCapacity, so try the new one
+		}
+	}
+
+	/**
+	 * Ring buffer of traces with preallocated slots. Writers claim a sequence number and
+	 * then the slot that it maps to, but only if the slot has not already been claimed
+	 * by a newer sequence, so a slow writer can never overwrite a newer trace. A slot is
+	 * published once its trace is written, and readers only accept a slot that is
+	 * published and still claimed with the sequence they expect, so a snapshot never
+	 * contains a trace twice or out of order.
+	 */
+	private static class TraceBuffer {
+
+		private static final long RETIRED = Long.MAX_VALUE / 2;
+
+		private final int capacity;
+
+		private final long initialSequence;
+
+		private final AtomicLong sequence;
+
+		private final AtomicReferenceArray<Trace> traces;
+
+		private final AtomicLongArray claimed;
+
+		private final AtomicLongArray published;
+
+		private volatile long retiredAt = RETIRED;
+
+		public TraceBuffer(int capacity, long initialSequence) {
+			Assert.isTrue(capacity > 0, "Capacity must be positive");
+			this.capacity = capacity;
+			this.initialSequence = initialSequence;
+			this.sequence = new AtomicLong(initialSequence);
+			this.traces = new AtomicReferenceArray<Trace>(capacity);
+			this.claimed = new AtomicLongArray(capacity);
+			this.published = new AtomicLongArray(capacity);
+			for (int i = 0; i < capacity; i++) {
+				this.claimed.set(i, -1);
+				this.published.set(i, -1);
+			}
+		}
+
+		/**
+		 * Add a trace to the buffer.
+		 * @param trace the trace to add
+		 * @return false if the buffer has been retired and the trace was not added
+		 */
+		public boolean add(Trace trace) {
+			long sequence = this.sequence.getAndIncrement();
+			if (sequence >= RETIRED) {
+				return false;
+			}
+			write(sequence, trace);
+			return true;
+		}
+
+		public void write(long sequence, Trace trace) {
+			int index = (int) (sequence % this.capacity);
+			long claimed = this.claimed.get(index);
+			while (claimed < sequence) {
+				if (this.claimed.compareAndSet(index, claimed, sequence)) {
+					break;
+				}
+				claimed = this.claimed.get(index);
+			}
+			while (true) {
+				// Read the current trace before checking the claim, so that a newer
+				// writer that claims the slot in between makes the update fail
+				Trace current = this.traces.get(index);
+				if (this.claimed.get(index) != sequence) {
+					return;
+				}
+				if (this.traces.compareAndSet(index, current, trace)) {
+					break;
+				}
+			}
+			long published = this.published.get(index);
+			while (published < sequence
+					&& !this.published.compareAndSet(index, published, sequence)) {
+				published = this.published.get(index);
 			}
-			this.traces.add(trace);
 		}
+
+		/**
+		 * Stop accepting traces and wait for the ones that are being written.
+		 */
+		public void retire() {
+			long end = this.sequence.getAndSet(RETIRED);
+			this.retiredAt = end;
+			long start = Math.max(this.initialSequence, end - this.capacity);
+			for (long sequence = start; sequence < end; sequence++) {
+				int index = (int) (sequence % this.capacity);
+				while (this.published.get(index) < sequence
+						&& this.claimed.get(index) <= sequence) {
+					Thread.yield();
+				}
+			}
+		}
+
+		public List<Trace> findAll() {
+			long end = this.sequence.get();
+			while (end >= RETIRED) {
+				// Retired by another thread, which is about to record where it stopped
+				Thread.yield();
+				end = this.retiredAt;
+			}
+			long start = Math.max(0, end - this.capacity);
+			List<Trace> traces = new ArrayList<Trace>((int) (end - start));
+			for (long sequence = start; sequence < end; sequence++) {
+				int index = (int) (sequence % this.capacity);
+				if (this.published.get(index) == sequence) {
+					Trace trace = this.traces.get(index);
+					if (this.claimed.get(index) == sequence) {
+						traces.add(trace);
+					}
+				}
+			}
+			return traces;
+		}
+
 	}
 
 }
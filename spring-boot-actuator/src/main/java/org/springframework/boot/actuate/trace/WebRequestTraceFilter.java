@@ -17,11 +17,17 @@
 package org.springframework.boot.actuate.trace;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -36,18 +42,30 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.boot.actuate.web.BasicErrorController;
 import org.springframework.core.Ordered;
+import org.springframework.util.Assert;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
- * Servlet {@link Filter} that logs all requests to a {@link TraceRepository}.
+ * Servlet {@link Filter} that logs requests to a {@link TraceRepository}. By default all
+ * requests are traced with all their headers, but a {@link Sampling} mode can be set to
+ * only trace some of them, and the headers that are captured can be restricted to a
+ * known set. Requests that are not sampled pass straight through the filter, and the
+ * trace for a sampled request is only built once the request has been processed.
  * 
  * @author Dave Syer
  */
 public class WebRequestTraceFilter implements Filter, Ordered {
 
+	private static final ThreadLocal<Random> random = new ThreadLocal<Random>() {
+		@Override
+		protected Random initialValue() {
+			return new Random();
+		}
+	};
+
 	private final Log logger = LogFactory.getLog(WebRequestTraceFilter.class);
 
 	private boolean dumpRequests = false;
@@ -60,6 +78,18 @@ public class WebRequestTraceFilter implements Filter, Ordered {
 
 	private BasicErrorController errorController;
 
+	private Sampling sampling = Sampling.ALL;
+
+	private double sampleRate = 1.0;
+
+	private int sampleEvery = 1;
+
+	private long slowThresholdNanos = TimeUnit.SECONDS.toNanos(1);
+
+	private Set<String> includeHeaders;
+
+	private final AtomicLong requestCount = new AtomicLong();
+
 	/**
 	 * @param traceRepository
 	 */
@@ -87,21 +117,79 @@ public class WebRequestTraceFilter implements Filter, Ordered {
 		this.dumpRequests = dumpRequests;
 	}
 
+	/**
+	 * Set the mode used to decide which requests are traced. Defaults to
+	 * {@link Sampling#ALL}.
+	 * @param sampling the sampling mode
+	 */
+	public void setSampling(Sampling sampling) {
+		Assert.notNull(sampling, "Sampling must not be null");
+		this.sampling = sampling;
+	}
+
+	/**
+	 * Set the fraction (between 0 and 1) of requests that are traced in
+	 * {@link Sampling#RATE} mode.
+	 * @param sampleRate the sample rate
+	 */
+	public void setSampleRate(double sampleRate) {
+		Assert.isTrue(sampleRate >= 0 && sampleRate <= 1,
+				"Sample rate must be between 0 and 1");
+		this.sampleRate = sampleRate;
+	}
+
+	/**
+	 * Set N so that one request in every N is traced in {@link Sampling#EVERY} mode.
+	 * @param sampleEvery the sampling interval
+	 */
+	public void setSampleEvery(int sampleEvery) {
+		Assert.isTrue(sampleEvery > 0, "Sample interval must be positive");
+		this.sampleEvery = sampleEvery;
+	}
+
+	/**
+	 * Set the duration above which a request is considered slow (and is traced) in
+	 * {@link Sampling#ERRORS_AND_SLOW} mode.
+	 * @param slowThreshold the threshold in milliseconds
+	 */
+	public void setSlowThreshold(long slowThreshold) {
+		this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThreshold);
+	}
+
+	/**
+	 * Set the names of the request and response headers to include in traces (case
+	 * insensitive). By default, or if {@code null}, all headers are included.
+	 * @param includeHeaders the header names
+	 */
+	public void setIncludeHeaders(Collection<String> includeHeaders) {
+		if (includeHeaders == null) {
+			this.includeHeaders = null;
+		}
+		else {
+			this.includeHeaders = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+			this.includeHeaders.addAll(includeHeaders);
+		}
+	}
+
 	@Override
 	public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
 			throws IOException, ServletException {
+		if (!isSampledBefore()) {
+			chain.doFilter(req, res);
+			return;
+		}
+
 		HttpServletRequest request = (HttpServletRequest) req;
 		HttpServletResponse response = (HttpServletResponse) res;
 
-		Map<String, Object> trace = getTrace(request);
 		if (this.logger.isTraceEnabled()) {
 			this.logger.trace("Processing request " + request.getMethod() + " "
 					+ request.getRequestURI());
 			if (this.dumpRequests) {
 				try {
 					@SuppressWarnings("unchecked")
-					Map<String, Object> headers = (Map<String, Object>) trace
-							.get("headers");
+					Map<String, Object> headers = (Map<String, Object>) getTrace(
+							request).get("headers");
 					this.logger.trace("Headers: "
 							+ this.objectMapper.writeValueAsString(headers));
 				}
@@ -111,20 +199,50 @@ public class WebRequestTraceFilter implements Filter, Ordered {
 			}
 		}
 
+		long start = System.nanoTime();
+		boolean completed = false;
 		try {
 			chain.doFilter(request, response);
+			completed = true;
 		}
 		finally {
-			enhanceTrace(trace, response);
-			this.traceRepository.add(trace);
+			if (isSampledAfter(request, response, completed, System.nanoTime() - start)) {
+				Map<String, Object> trace = getTrace(request);
+				enhanceTrace(trace, response);
+				this.traceRepository.add(trace);
+			}
+		}
+	}
+
+	private boolean isSampledBefore() {
+		switch (this.sampling) {
+		case RATE:
+			return this.sampleRate >= 1.0
+					|| random.get().nextDouble() < this.sampleRate;
+		case EVERY:
+			return this.requestCount.getAndIncrement() % this.sampleEvery == 0;
+		default:
+			return true;
+		}
+	}
+
+	private boolean isSampledAfter(HttpServletRequest request,
+			HttpServletResponse response, boolean completed, long elapsedNanos) {
+		if (this.sampling != Sampling.ERRORS_AND_SLOW) {
+			return true;
 		}
+		return !completed || response.getStatus() >= 400
+				|| request.getAttribute("javax.servlet.error.exception") != null
+				|| elapsedNanos > this.slowThresholdNanos;
 	}
 
 	protected void enhanceTrace(Map<String, Object> trace, HttpServletResponse response) {
 		Map<String, String> headers = new LinkedHashMap<String, String>();
 		for (String header : response.getHeaderNames()) {
-			String value = response.getHeader(header);
-			headers.put(header, value);
+			if (isIncluded(header)) {
+				String value = response.getHeader(header);
+				headers.put(header, value);
+			}
 		}
 		headers.put("status", "" + response.getStatus());
 		@SuppressWarnings("unchecked")
@@ -139,6 +257,9 @@ public class WebRequestTraceFilter implements Filter, Ordered {
 
 		while (names.hasMoreElements()) {
 			String name = names.nextElement();
+			if (!isIncluded(name)) {
+				continue;
+			}
 			List<String> values = Collections.list(request.getHeaders(name));
 			Object value = values;
 			if (values.size() == 1) {
@@ -167,6 +288,10 @@ public class WebRequestTraceFilter implements Filter, Ordered {
 		return trace;
 	}
 
+	private boolean isIncluded(String header) {
+		return this.includeHeaders == null || this.includeHeaders.contains(header);
+	}
+
 	@Override
 	public void init(FilterConfig filterConfig) throws ServletException {
 	}
@@ -179,4 +304,31 @@ public class WebRequestTraceFilter implements Filter, Ordered {
 		this.errorController = errorController;
 	}
 
+	/**
+	 * Modes for deciding which requests are traced.
+	 */
+	public static enum Sampling {
+
+		/**
+		 * Trace every request.
+		 */
+		ALL,
+
+		/**
+		 * Trace a random fraction of the requests, given by the sample rate.
+		 */
+		RATE,
+
+		/**
+		 * Trace one request in every N, where N is the sample interval.
+		 */
+		EVERY,
+
+		/**
+		 * Only trace requests that fail or that are slower than the threshold.
+		 */
+		ERRORS_AND_SLOW
+
+	}
+
 }
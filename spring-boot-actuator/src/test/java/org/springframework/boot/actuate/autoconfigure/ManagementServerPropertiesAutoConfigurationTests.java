@@ -17,6 +17,9 @@
 package org.springframework.boot.actuate.autoconfigure;
 
 import org.junit.Test;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.boot.actuate.trace.WebRequestTraceFilter.Sampling;
+import org.springframework.boot.test.EnvironmentTestUtils;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -50,6 +53,28 @@ public class ManagementServerPropertiesAutoConfigurationTests {
 		context.close();
 	}
 
+	@Test
+	public void traceProperties() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(context, "management.trace.sampling:RATE",
+				"management.trace.rate:0.5");
+		context.register(ManagementServerPropertiesAutoConfiguration.class);
+		context.refresh();
+		ManagementServerProperties properties = context
+				.getBean(ManagementServerProperties.class);
+		assertThat(properties.getTrace().getSampling(), equalTo(Sampling.RATE));
+		assertThat(properties.getTrace().getRate(), equalTo(0.5));
+		context.close();
+	}
+
+	@Test(expected = BeanCreationException.class)
+	public void unknownManagementPropertyIsRejected() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(context, "management.trace.smapling:RATE");
+		context.register(ManagementServerPropertiesAutoConfiguration.class);
+		context.refresh();
+	}
+
 	@Configuration
 	public static class Config {
 
@@ -29,6 +29,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
@@ -36,6 +37,7 @@ import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Matchers.anyDouble;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -57,6 +59,8 @@ public class MetricFilterAutoConfigurationTests {
 		willAnswer(new Answer<Object>() {
 			@Override
 			public Object answer(InvocationOnMock invocation) throws Throwable {
+				request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+						"/test/path");
 				response.setStatus(200);
 				return null;
 			}
@@ -68,6 +72,90 @@ public class MetricFilterAutoConfigurationTests {
 		context.close();
 	}
 
+	@Test
+	public void recordsBestMatchingPattern() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				Config.class, MetricFilterAutoConfiguration.class);
+		Filter filter = context.getBean(Filter.class);
+		for (String path : new String[] { "/orders/1", "/orders/2" }) {
+			final MockHttpServletRequest request = new MockHttpServletRequest("GET",
+					path);
+			final MockHttpServletResponse response = new MockHttpServletResponse();
+			FilterChain chain = mock(FilterChain.class);
+			willAnswer(new Answer<Object>() {
+				@Override
+				public Object answer(InvocationOnMock invocation) throws Throwable {
+					request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+							"/orders/{id}");
+					response.setStatus(200);
+					return null;
+				}
+			}).given(chain).doFilter(request, response);
+			filter.doFilter(request, response, chain);
+		}
+		verify(context.getBean(CounterService.class), times(2)).increment(
+				"status.200.orders.id");
+		verify(context.getBean(GaugeService.class), times(2)).submit(
+				eq("response.orders.id"), anyDouble());
+		context.close();
+	}
+
+	@Test
+	public void recordsUnmappedNotFound() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				Config.class, MetricFilterAutoConfiguration.class);
+		Filter filter = context.getBean(Filter.class);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET",
+				"/no/such/path");
+		final MockHttpServletResponse response = new MockHttpServletResponse();
+		response.setStatus(404);
+		filter.doFilter(request, response, mock(FilterChain.class));
+		verify(context.getBean(CounterService.class)).increment("status.404.unmapped");
+		context.close();
+	}
+
+	@Test
+	public void recordsUnmappedRequests() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				Config.class, MetricFilterAutoConfiguration.class);
+		Filter filter = context.getBean(Filter.class);
+		for (String path : new String[] { "/some/path", "/other/path" }) {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			response.setStatus(200);
+			filter.doFilter(request, response, mock(FilterChain.class));
+		}
+		verify(context.getBean(CounterService.class), times(2)).increment(
+				"status.200.unmapped");
+		verify(context.getBean(GaugeService.class), times(2)).submit(
+				eq("response.unmapped"), anyDouble());
+		context.close();
+	}
+
+	@Test
+	public void recordsWildcardPatterns() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				Config.class, MetricFilterAutoConfiguration.class);
+		Filter filter = context.getBean(Filter.class);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET",
+				"/static/css/site.css");
+		final MockHttpServletResponse response = new MockHttpServletResponse();
+		FilterChain chain = mock(FilterChain.class);
+		willAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+						"/static/**");
+				response.setStatus(200);
+				return null;
+			}
+		}).given(chain).doFilter(request, response);
+		filter.doFilter(request, response, chain);
+		verify(context.getBean(CounterService.class)).increment(
+				"status.200.static.star-star");
+		context.close();
+	}
+
 	@Test
 	public void skipsFilterIfMissingServices() throws Exception {
 		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
@@ -22,6 +22,7 @@ import org.junit.Test;
 import org.springframework.boot.actuate.metrics.CounterService;
 import org.springframework.boot.actuate.metrics.GaugeService;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.TimerService;
 import org.springframework.boot.actuate.metrics.reader.MetricReader;
 import org.springframework.boot.actuate.metrics.writer.DefaultCounterService;
 import org.springframework.boot.actuate.metrics.writer.DefaultGaugeService;
@@ -72,6 +73,7 @@ public class MetricRepositoryAutoConfigurationTests {
 		DefaultGaugeService gaugeService = context.getBean(DefaultGaugeService.class);
 		assertNotNull(gaugeService);
 		assertNotNull(context.getBean(DefaultCounterService.class));
+		assertNotNull(context.getBean(TimerService.class));
 		gaugeService.submit("foo", 2.7);
 		assertEquals(2.7, context.getBean(MetricReader.class).findOne("gauge.foo")
 				.getValue());
@@ -16,11 +16,21 @@
 
 package org.springframework.boot.actuate.autoconfigure;
 
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Test;
+import org.springframework.boot.actuate.trace.Trace;
+import org.springframework.boot.actuate.trace.TraceRepository;
 import org.springframework.boot.actuate.trace.WebRequestTraceFilter;
 import org.springframework.boot.autoconfigure.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.EnvironmentTestUtils;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 /**
@@ -40,4 +50,32 @@ public class TraceWebFilterAutoConfigurationTest {
 		context.close();
 	}
 
+	@Test
+	public void configureSampling() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(context,
+				"management.trace.sampling:EVERY", "management.trace.every:2",
+				"management.trace.headers:Accept");
+		context.register(PropertyPlaceholderAutoConfiguration.class,
+				ManagementServerPropertiesAutoConfiguration.class,
+				TraceRepositoryAutoConfiguration.class,
+				TraceWebFilterAutoConfiguration.class);
+		context.refresh();
+		WebRequestTraceFilter filter = context.getBean(WebRequestTraceFilter.class);
+		for (int i = 0; i < 4; i++) {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+			request.addHeader("Accept", "application/json");
+			request.addHeader("Cookie", "foo=bar");
+			filter.doFilter(request, new MockHttpServletResponse(),
+					new MockFilterChain());
+		}
+		List<Trace> traces = context.getBean(TraceRepository.class).findAll();
+		assertEquals(2, traces.size());
+		@SuppressWarnings("unchecked")
+		Map<String, Object> headers = (Map<String, Object>) traces.get(0).getInfo()
+				.get("headers");
+		assertEquals("{Accept=application/json}", headers.get("request").toString());
+		context.close();
+	}
+
 }
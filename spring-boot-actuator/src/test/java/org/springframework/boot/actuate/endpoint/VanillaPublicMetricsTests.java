@@ -16,14 +16,18 @@
 
 package org.springframework.boot.actuate.endpoint;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
+import org.springframework.boot.actuate.metrics.timer.InMemoryTimerRepository;
 
+import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -48,4 +52,29 @@ public class VanillaPublicMetricsTests {
 		assertTrue(results.containsKey("mem.free"));
 		assertThat(results.get("a").getValue().doubleValue(), equalTo(0.5));
 	}
+
+	@Test
+	public void testTimerMetrics() throws Exception {
+		InMemoryTimerRepository timers = new InMemoryTimerRepository();
+		for (int i = 1; i <= 100; i++) {
+			timers.record("timer.foo", i, TimeUnit.MILLISECONDS);
+		}
+		VanillaPublicMetrics publicMetrics = new VanillaPublicMetrics(
+				new InMemoryMetricRepository(), Collections.singleton(timers));
+		Map<String, Metric<?>> results = new HashMap<String, Metric<?>>();
+		for (Metric<?> metric : publicMetrics.metrics()) {
+			results.put(metric.getName(), metric);
+		}
+		assertThat(results.get("timer.foo.count").getValue().longValue(), equalTo(100L));
+		assertThat(results.get("timer.foo.max").getValue().doubleValue(), equalTo(100.0));
+		assertThat(results.get("timer.foo.p50").getValue().doubleValue(),
+				closeTo(50.0, 1.5));
+		assertThat(results.get("timer.foo.p99").getValue().doubleValue(),
+				closeTo(99.0, 3.0));
+		assertTrue(results.containsKey("timer.foo.p95"));
+		assertTrue(results.containsKey("timer.foo.p999"));
+		assertThat(results.get("timer.foo.mean").getValue().doubleValue(),
+				closeTo(50.5, 0.5));
+	}
+
 }
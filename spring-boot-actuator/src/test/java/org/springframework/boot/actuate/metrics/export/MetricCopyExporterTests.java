@@ -20,7 +20,10 @@ import java.util.Date;
 
 import org.junit.Test;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.reader.CompositeMetricReader;
+import org.springframework.boot.actuate.metrics.reader.MetricReader;
 import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
+import org.springframework.boot.actuate.metrics.writer.Delta;
 
 import static org.junit.Assert.assertEquals;
 
@@ -58,4 +61,29 @@ public class MetricCopyExporterTests {
 		assertEquals(1, this.writer.count());
 	}
 
+	@Test
+	public void onlyChangedMetricsCopied() {
+		this.reader.set(new Metric<Number>("foo", 2.3));
+		this.reader.increment(new Delta<Long>("bar", 1L));
+		this.exporter.export();
+		assertEquals(2, this.writer.count());
+		this.writer.reset("foo");
+		this.writer.reset("bar");
+		this.reader.increment(new Delta<Long>("bar", 1L));
+		this.exporter.export();
+		assertEquals(1, this.writer.count());
+		assertEquals(2L, this.writer.findOne("bar").getValue());
+	}
+
+	@Test
+	public void allMetricsCopiedFromPlainReader() {
+		MetricReader plain = new CompositeMetricReader(this.reader);
+		MetricCopyExporter exporter = new MetricCopyExporter(plain, this.writer);
+		this.reader.set(new Metric<Number>("foo", 2.3));
+		exporter.export();
+		this.writer.reset("foo");
+		exporter.export();
+		assertEquals(1, this.writer.count());
+	}
+
 }
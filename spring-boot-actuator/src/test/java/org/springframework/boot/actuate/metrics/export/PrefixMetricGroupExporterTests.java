@@ -16,7 +16,11 @@
 
 package org.springframework.boot.actuate.metrics.export;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
 import org.springframework.boot.actuate.metrics.Iterables;
@@ -67,4 +71,36 @@ public class PrefixMetricGroupExporterTests {
 		assertEquals(1, Iterables.collection(this.writer.groups()).size());
 	}
 
+	@Test
+	public void onlyChangedMetricsExported() {
+		this.reader.set(new Metric<Number>("foo.bar", 2.3));
+		this.reader.set(new Metric<Number>("foo.spam", 1.3));
+		this.exporter.setGroups(Collections.singleton("foo"));
+		this.exporter.export();
+		this.writer.reset("foo.bar");
+		this.writer.reset("foo.spam");
+		this.reader.set(new Metric<Number>("foo.spam", 1.4));
+		this.exporter.export();
+		assertEquals(1, this.writer.count());
+		assertEquals(1.4, this.writer.findOne("foo.spam").getValue());
+	}
+
+	@Test
+	public void groupsExportedInParallel() {
+		this.reader.set(new Metric<Number>("foo.bar", 2.3));
+		this.reader.set(new Metric<Number>("bar.spam", 1.3));
+		this.reader.set(new Metric<Number>("spam.foo", 1.3));
+		this.exporter.setGroups(new HashSet<String>(Arrays.asList("foo", "bar", "spam")));
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			this.exporter.setExecutor(executor);
+			this.exporter.export();
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertEquals(3, Iterables.collection(this.writer.groups()).size());
+		assertEquals(3, this.writer.count());
+	}
+
 }
@@ -16,13 +16,18 @@
 
 package org.springframework.boot.actuate.metrics.repository;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Iterables;
 import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.actuate.metrics.writer.Delta;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * Tests for {@link InMemoryMetricRepository}.
@@ -43,4 +48,103 @@ public class InMemoryMetricRepositoryTests {
 		assertEquals(2.5, this.repository.findOne("foo").getValue().doubleValue(), 0.01);
 	}
 
+	@Test
+	public void setPrimitive() {
+		this.repository.set("foo", 2.5, 1000L);
+		this.repository.set("foo", 3.5, 2000L);
+		Metric<?> metric = this.repository.findOne("foo");
+		assertEquals(3.5, metric.getValue().doubleValue(), 0.01);
+		assertEquals(2000L, metric.getTimestamp().getTime());
+		assertEquals(1, this.repository.count());
+	}
+
+	@Test
+	public void setLongAfterDouble() {
+		this.repository.set(new Metric<Double>("foo", 2.5, new Date()));
+		this.repository.set(new Metric<Long>("foo", 3L, new Date()));
+		assertEquals(3L, this.repository.findOne("foo").getValue());
+		assertEquals(1, this.repository.count());
+	}
+
+	@Test
+	public void incrementAfterSet() {
+		this.repository.set(new Metric<Long>("foo", 3L, new Date()));
+		this.repository.increment(new Delta<Integer>("foo", 2, new Date()));
+		assertEquals(5L, this.repository.findOne("foo").getValue().longValue());
+		assertEquals(1, this.repository.count());
+	}
+
+	@Test
+	public void incrementAfterSetWithoutTimestamp() {
+		this.repository.set(new Metric<Long>("foo", 3L, null));
+		this.repository.increment(new Delta<Integer>("foo", 2, new Date()));
+		assertEquals(5L, this.repository.findOne("foo").getValue().longValue());
+	}
+
+	@Test
+	public void setWholeNumberAfterIncrementKeepsCounter() {
+		this.repository.increment(new Delta<Integer>("foo", 2, new Date()));
+		this.repository.set(new Metric<Long>("foo", 10L, new Date()));
+		this.repository.increment(new Delta<Integer>("foo", 1, new Date()));
+		assertEquals(11L, this.repository.findOne("foo").getValue().longValue());
+		assertEquals(1, this.repository.count());
+	}
+
+	@Test
+	public void setAfterIncrement() {
+		this.repository.increment(new Delta<Integer>("foo", 2, new Date()));
+		this.repository.set(new Metric<Double>("foo", 2.5, new Date()));
+		assertEquals(2.5, this.repository.findOne("foo").getValue().doubleValue(), 0.01);
+		assertEquals(1, this.repository.count());
+	}
+
+	@Test
+	public void findAllIncludesCounters() {
+		this.repository.increment(new Delta<Integer>("foo", 1, new Date()));
+		this.repository.set(new Metric<Double>("bar", 2.5, new Date()));
+		List<String> names = new ArrayList<String>();
+		for (Metric<?> metric : this.repository.findAll()) {
+			names.add(metric.getName());
+		}
+		assertEquals(Arrays.asList("bar", "foo"), names);
+	}
+
+	@Test
+	public void reset() {
+		this.repository.increment(new Delta<Integer>("foo", 1, new Date()));
+		this.repository.reset("foo");
+		assertNull(this.repository.findOne("foo"));
+	}
+
+	@Test
+	public void findChanged() {
+		this.repository.increment(new Delta<Integer>("foo", 1, new Date()));
+		this.repository.set(new Metric<Double>("bar", 2.5, new Date()));
+		this.repository.set(new Metric<Long>("spam", 3L, new Date()));
+		assertEquals(3, Iterables.collection(this.repository.findChanged(0)).size());
+		long version = this.repository.nextVersion();
+		assertEquals(0, Iterables.collection(this.repository.findChanged(version))
+				.size());
+		this.repository.increment(new Delta<Integer>("foo", 1, new Date()));
+		this.repository.set(new Metric<Long>("spam", 4L, new Date()));
+		List<String> names = new ArrayList<String>();
+		for (Metric<?> metric : this.repository.findChanged(version)) {
+			names.add(metric.getName());
+		}
+		assertEquals(Arrays.asList("foo", "spam"), names);
+	}
+
+	@Test
+	public void findChangedWithPrefix() {
+		this.repository.increment(new Delta<Integer>("foo.bar", 1, new Date()));
+		this.repository.set(new Metric<Double>("foo.spam", 2.5, new Date()));
+		long version = this.repository.nextVersion();
+		this.repository.set(new Metric<Double>("foo.spam", 3.5, new Date()));
+		this.repository.increment(new Delta<Integer>("bar.foo", 1, new Date()));
+		Metric<?> metric = this.repository.findChanged("foo", version).iterator().next();
+		assertEquals("foo.spam", metric.getName());
+		assertEquals(1, Iterables.collection(this.repository.findChanged("foo", version))
+				.size());
+	}
+
 }
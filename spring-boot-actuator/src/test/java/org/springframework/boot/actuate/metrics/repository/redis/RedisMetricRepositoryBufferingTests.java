@@ -0,0 +1,208 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.repository.redis;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.writer.Delta;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for the buffered mode of {@link RedisMetricRepository}.
+ * 
+ * @author Dave Syer
+ */
+public class RedisMetricRepositoryBufferingTests {
+
+	private final RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+
+	private final RedisConnection connection = mock(RedisConnection.class);
+
+	private RedisMetricRepository repository;
+
+	@Before
+	public void init() {
+		given(this.connectionFactory.getConnection()).willReturn(this.connection);
+		given(this.connection.closePipeline()).willReturn(
+				Collections.<Object> emptyList());
+		this.repository = new RedisMetricRepository(this.connectionFactory);
+		this.repository.setFlushInterval(60000);
+		this.repository.afterPropertiesSet();
+	}
+
+	@After
+	public void close() {
+		this.repository.destroy();
+	}
+
+	@Test
+	public void incrementsAreSummedAndSentInOnePipeline() {
+		this.repository.increment(new Delta<Long>("foo", 3L));
+		this.repository.increment(new Delta<Long>("foo", 2L));
+		this.repository.increment(new Delta<Long>("bar", 1L));
+		verify(this.connectionFactory, never()).getConnection();
+		this.repository.flush();
+		verify(this.connection, times(1)).openPipeline();
+		verify(this.connection, times(2)).zAdd(eq(bytes("keys.spring.metrics.")),
+				eq(0.0D), any(byte[].class));
+		verify(this.connection).incrBy(bytes("spring.metrics.foo"), 5L);
+		verify(this.connection).incrBy(bytes("spring.metrics.bar"), 1L);
+		verify(this.connection, times(1)).closePipeline();
+	}
+
+	@Test
+	public void nothingToFlush() {
+		this.repository.flush();
+		verify(this.connectionFactory, never()).getConnection();
+	}
+
+	@Test
+	public void idleCountersAreNotSentAgain() {
+		this.repository.increment(new Delta<Long>("foo", 3L));
+		this.repository.flush();
+		this.repository.flush();
+		this.repository.increment(new Delta<Long>("foo", 4L));
+		this.repository.flush();
+		verify(this.connection, times(2)).openPipeline();
+		verify(this.connection).incrBy(bytes("spring.metrics.foo"), 3L);
+		verify(this.connection).incrBy(bytes("spring.metrics.foo"), 4L);
+	}
+
+	@Test
+	public void setReplacesPendingIncrement() {
+		this.repository.increment(new Delta<Long>("foo", 3L));
+		this.repository.set(new Metric<Number>("foo", 12.3));
+		this.repository.increment(new Delta<Long>("foo", 1L));
+		this.repository.flush();
+		InOrder ordered = inOrder(this.connection);
+		ordered.verify(this.connection).zAdd(any(byte[].class), anyDouble(),
+				eq(bytes("spring.metrics.foo")));
+		ArgumentCaptor<byte[]> value = ArgumentCaptor.forClass(byte[].class);
+		ordered.verify(this.connection).set(eq(bytes("spring.metrics.foo")),
+				value.capture());
+		assertThat(new String(value.getValue()), startsWith("13.3@"));
+		verify(this.connection, never()).incrBy(any(byte[].class), anyLong());
+	}
+
+	@Test
+	public void flushedWhenLimitReached() {
+		this.repository.setMaxPending(2);
+		this.repository.increment(new Delta<Long>("foo", 1L));
+		this.repository.increment(new Delta<Long>("bar", 1L));
+		verify(this.connection, never()).openPipeline();
+		this.repository.increment(new Delta<Long>("spam", 1L));
+		verify(this.connection, timeout(5000).times(1)).closePipeline();
+		verify(this.connection).incrBy(bytes("spring.metrics.foo"), 1L);
+		verify(this.connection).incrBy(bytes("spring.metrics.bar"), 1L);
+	}
+
+	@Test
+	public void failedFlushSendsValuesAgainButNotIncrements() {
+		given(this.connection.incrBy(bytes("spring.metrics.foo"), 3L)).willThrow(
+				new RedisConnectionFailureException("Planned"));
+		this.repository.increment(new Delta<Long>("foo", 3L));
+		this.repository.set(new Metric<Number>("bar", 12.3));
+		try {
+			this.repository.flush();
+			fail("Expected RedisConnectionFailureException");
+		}
+		catch (RedisConnectionFailureException ex) {
+			// expected
+		}
+		this.repository.increment(new Delta<Long>("foo", 1L));
+		this.repository.flush();
+		verify(this.connection, times(1)).incrBy(bytes("spring.metrics.foo"), 3L);
+		verify(this.connection).incrBy(bytes("spring.metrics.foo"), 1L);
+		verify(this.connection, times(2)).set(eq(bytes("spring.metrics.bar")),
+				any(byte[].class));
+	}
+
+	@Test
+	public void failedFlushDoesNotOverwriteNewerValue() {
+		given(this.connection.incrBy(bytes("spring.metrics.spam"), 1L)).willThrow(
+				new RedisConnectionFailureException("Planned"));
+		this.repository.set(new Metric<Number>("foo", 12.3));
+		this.repository.increment(new Delta<Long>("spam", 1L));
+		try {
+			this.repository.flush();
+			fail("Expected RedisConnectionFailureException");
+		}
+		catch (RedisConnectionFailureException ex) {
+			// expected
+		}
+		this.repository.set(new Metric<Number>("foo", 45.6));
+		this.repository.flush();
+		ArgumentCaptor<byte[]> value = ArgumentCaptor.forClass(byte[].class);
+		verify(this.connection, times(2)).set(eq(bytes("spring.metrics.foo")),
+				value.capture());
+		assertThat(new String(value.getAllValues().get(1)), startsWith("45.6@"));
+	}
+
+	@Test
+	public void failedValuesAreOnlyBufferedAgainUpToTheLimit() {
+		this.repository.setMaxPending(1);
+		given(this.connection.closePipeline()).willThrow(
+				new RedisConnectionFailureException("Planned")).willReturn(
+				Collections.<Object> emptyList());
+		this.repository.set(new Metric<Number>("foo", 1.0));
+		this.repository.set(new Metric<Number>("bar", 2.0));
+		try {
+			this.repository.flush();
+			fail("Expected RedisConnectionFailureException");
+		}
+		catch (RedisConnectionFailureException ex) {
+			// expected
+		}
+		this.repository.flush();
+		verify(this.connection, times(3)).set(any(byte[].class), any(byte[].class));
+	}
+
+	@Test
+	public void flushedOnDestroy() {
+		this.repository.increment(new Delta<Long>("foo", 1L));
+		this.repository.destroy();
+		verify(this.connection).incrBy(bytes("spring.metrics.foo"), 1L);
+	}
+
+	private byte[] bytes(String value) {
+		return value.getBytes();
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.timer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.timer.Histogram.Snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link Histogram}.
+ * 
+ * @author Dave Syer
+ */
+public class HistogramTests {
+
+	private final Histogram histogram = new Histogram("foo");
+
+	@Test
+	public void empty() {
+		Snapshot snapshot = this.histogram.snapshot();
+		assertEquals(0, snapshot.getCount());
+		assertEquals(0, snapshot.getValueAtPercentile(50));
+		assertEquals(0.0, snapshot.getMean(), 0.01);
+	}
+
+	@Test
+	public void smallValuesExact() {
+		for (int i = 1; i <= 10; i++) {
+			this.histogram.record(i);
+		}
+		Snapshot snapshot = this.histogram.snapshot();
+		assertEquals(10, snapshot.getCount());
+		assertEquals(5, snapshot.getValueAtPercentile(50));
+		assertEquals(10, snapshot.getValueAtPercentile(100));
+		assertEquals(10, snapshot.getMax());
+		assertEquals(5.5, snapshot.getMean(), 0.01);
+	}
+
+	@Test
+	public void largeValuesWithinPrecision() {
+		for (int i = 1; i <= 1000; i++) {
+			this.histogram.record(i * 1000L);
+		}
+		Snapshot snapshot = this.histogram.snapshot();
+		assertWithin(500000, snapshot.getValueAtPercentile(50));
+		assertWithin(990000, snapshot.getValueAtPercentile(99));
+		assertWithin(999000, snapshot.getValueAtPercentile(99.9));
+		assertEquals(1000000, snapshot.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void valuesOutOfRange() {
+		this.histogram.record(-1);
+		this.histogram.record(Long.MAX_VALUE);
+		Snapshot snapshot = this.histogram.snapshot();
+		assertEquals(0, snapshot.getValueAtPercentile(50));
+		assertEquals(Histogram.MAX_VALUE, snapshot.getMax());
+	}
+
+	@Test
+	public void bucketsAreContiguous() {
+		for (long value = 0; value < 100000; value++) {
+			int index = Histogram.getIndex(value);
+			assertTrue(Histogram.getLowestValue(index) <= value);
+			assertTrue(Histogram.getHighestValue(index) >= value);
+		}
+		assertEquals(Histogram.MAX_VALUE,
+				Histogram.getHighestValue(Histogram.getIndex(Histogram.MAX_VALUE)));
+	}
+
+	@Test
+	public void merge() {
+		Histogram other = new Histogram("bar");
+		this.histogram.record(10);
+		other.record(20);
+		other.record(30);
+		this.histogram.add(other);
+		Snapshot snapshot = this.histogram.snapshot();
+		assertEquals(3, snapshot.getCount());
+		assertEquals(30, snapshot.getMax());
+		assertEquals(20.0, snapshot.getMean(), 0.01);
+	}
+
+	@Test
+	public void recordConcurrent() throws Exception {
+		Collection<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+		for (int i = 0; i < 100; i++) {
+			tasks.add(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					for (int j = 1; j <= 100; j++) {
+						HistogramTests.this.histogram.record(j);
+					}
+					return true;
+				}
+			});
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(10);
+		List<Future<Boolean>> all = executor.invokeAll(tasks);
+		for (Future<Boolean> future : all) {
+			assertTrue(future.get(1, TimeUnit.SECONDS));
+		}
+		executor.shutdown();
+		Snapshot snapshot = this.histogram.snapshot();
+		assertEquals(10000, snapshot.getCount());
+		assertEquals(100, snapshot.getMax());
+	}
+
+	private void assertWithin(long expected, long actual) {
+		assertTrue("Expected " + expected + " but was " + actual,
+				Math.abs(expected - actual) <= expected * 0.04);
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.timer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link InMemoryTimerRepository} and {@link DefaultTimerService}.
+ * 
+ * @author Dave Syer
+ */
+public class InMemoryTimerRepositoryTests {
+
+	private final InMemoryTimerRepository repository = new InMemoryTimerRepository();
+
+	@Test
+	public void recordInMicroseconds() {
+		this.repository.record("foo", 2, TimeUnit.MILLISECONDS);
+		this.repository.record("foo", 4000, TimeUnit.NANOSECONDS);
+		Histogram.Snapshot snapshot = this.repository.findOne("foo").snapshot();
+		assertEquals(2, snapshot.getCount());
+		assertEquals(2000, snapshot.getMax());
+		assertEquals(1, this.repository.count());
+	}
+
+	@Test
+	public void reset() {
+		this.repository.record("foo", 2, TimeUnit.MILLISECONDS);
+		this.repository.reset("foo");
+		assertNull(this.repository.findOne("foo"));
+	}
+
+	@Test
+	public void newTimersAreDroppedOverTheLimit() {
+		this.repository.setMaxTimers(2);
+		this.repository.record("foo", 2, TimeUnit.MILLISECONDS);
+		this.repository.record("bar", 2, TimeUnit.MILLISECONDS);
+		this.repository.record("spam", 2, TimeUnit.MILLISECONDS);
+		this.repository.record("foo", 2, TimeUnit.MILLISECONDS);
+		assertEquals(2, this.repository.count());
+		assertNull(this.repository.findOne("spam"));
+		assertEquals(2, this.repository.findOne("foo").snapshot().getCount());
+	}
+
+	@Test
+	public void servicePrependsTimer() {
+		new DefaultTimerService(this.repository).record("foo", 2, TimeUnit.SECONDS);
+		assertEquals(1, this.repository.findOne("timer.foo").snapshot().getCount());
+	}
+
+}
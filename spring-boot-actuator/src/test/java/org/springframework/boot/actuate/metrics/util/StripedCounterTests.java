@@ -0,0 +1,91 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link StripedCounter}.
+ * 
+ * @author Dave Syer
+ */
+public class StripedCounterTests {
+
+	private final StripedCounter counter = new StripedCounter("foo");
+
+	@Test
+	public void addAndGet() {
+		this.counter.add(2, 1000L);
+		this.counter.add(-1, 2000L);
+		assertEquals(1L, this.counter.getValue());
+		assertEquals(2000L, this.counter.getTimestamp());
+	}
+
+	@Test
+	public void setOverridesValue() {
+		this.counter.add(5, 1000L);
+		this.counter.set(3, 2000L);
+		assertEquals(3L, this.counter.getValue());
+	}
+
+	@Test
+	public void toMetric() {
+		this.counter.add(3, 1000L);
+		Metric<Long> metric = this.counter.toMetric();
+		assertEquals("foo", metric.getName());
+		assertEquals(new Long(3), metric.getValue());
+		assertEquals(1000L, metric.getTimestamp().getTime());
+	}
+
+	@Test
+	public void addConcurrent() throws Exception {
+		Collection<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+		for (int i = 0; i < 100; i++) {
+			tasks.add(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					for (int j = 0; j < 1000; j++) {
+						StripedCounterTests.this.counter.add(1,
+								System.currentTimeMillis());
+					}
+					return true;
+				}
+			});
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(10);
+		List<Future<Boolean>> all = executor.invokeAll(tasks);
+		for (Future<Boolean> future : all) {
+			assertTrue(future.get(1, TimeUnit.SECONDS));
+		}
+		executor.shutdown();
+		assertEquals(100000L, this.counter.getValue());
+	}
+
+}
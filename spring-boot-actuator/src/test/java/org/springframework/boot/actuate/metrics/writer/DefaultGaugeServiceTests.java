@@ -19,6 +19,7 @@ package org.springframework.boot.actuate.metrics.writer;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.repository.InMemoryMetricRepository;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
@@ -43,4 +44,11 @@ public class DefaultGaugeServiceTests {
 		assertEquals(2.3, captor.getValue().getValue());
 	}
 
+	@Test
+	public void setPrimitiveOnGaugeWriter() {
+		InMemoryMetricRepository repository = new InMemoryMetricRepository();
+		new DefaultGaugeService(repository).submit("foo", 2.3);
+		assertEquals(2.3, repository.findOne("gauge.foo").getValue());
+	}
+
 }
@@ -16,12 +16,20 @@
 
 package org.springframework.boot.actuate.trace;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for {@link InMemoryTraceRepository}.
@@ -43,4 +51,78 @@ public class InMemoryTraceRepositoryTests {
 		assertEquals("bar", traces.get(1).getInfo().get("bar"));
 	}
 
+	@Test
+	public void capacityIncreased() {
+		this.repository.setCapacity(1);
+		this.repository.add(Collections.<String, Object> singletonMap("foo", "bar"));
+		this.repository.setCapacity(2);
+		this.repository.add(Collections.<String, Object> singletonMap("bar", "foo"));
+		List<Trace> traces = this.repository.findAll();
+		assertEquals(2, traces.size());
+		assertEquals("bar", traces.get(0).getInfo().get("foo"));
+	}
+
+	@Test
+	public void snapshotNotAffectedByLaterTraces() {
+		this.repository.add(Collections.<String, Object> singletonMap("foo", "bar"));
+		List<Trace> traces = this.repository.findAll();
+		this.repository.add(Collections.<String, Object> singletonMap("bar", "foo"));
+		assertEquals(1, traces.size());
+	}
+
+	@Test
+	public void addConcurrent() throws Exception {
+		this.repository.setCapacity(10000);
+		Collection<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+		for (int i = 0; i < 100; i++) {
+			tasks.add(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					for (int j = 0; j < 100; j++) {
+						InMemoryTraceRepositoryTests.this.repository.add(Collections
+								.<String, Object> singletonMap("foo", "bar"));
+					}
+					return true;
+				}
+			});
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(10);
+		for (Future<Boolean> future : executor.invokeAll(tasks)) {
+			assertTrue(future.get(1, TimeUnit.SECONDS));
+		}
+		executor.shutdown();
+		assertEquals(10000, this.repository.findAll().size());
+	}
+
+	@Test
+	public void capacityChangedDuringConcurrentAdds() throws Exception {
+		this.repository.setCapacity(10000);
+		Collection<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+		for (int i = 0; i < 10; i++) {
+			tasks.add(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					for (int j = 0; j < 500; j++) {
+						InMemoryTraceRepositoryTests.this.repository.add(Collections
+								.<String, Object> singletonMap("foo", "bar"));
+					}
+					return true;
+				}
+			});
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(10);
+		List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+		for (Callable<Boolean> task : tasks) {
+			futures.add(executor.submit(task));
+		}
+		for (int i = 0; i < 5; i++) {
+			this.repository.setCapacity(10000 + i);
+		}
+		for (Future<Boolean> future : futures) {
+			assertTrue(future.get(5, TimeUnit.SECONDS));
+		}
+		executor.shutdown();
+		assertEquals(5000, this.repository.findAll().size());
+	}
+
 }
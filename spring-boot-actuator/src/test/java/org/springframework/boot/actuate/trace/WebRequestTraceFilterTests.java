@@ -16,9 +16,18 @@
 
 package org.springframework.boot.actuate.trace;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.Map;
 
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+
 import org.junit.Test;
+import org.springframework.boot.actuate.trace.WebRequestTraceFilter.Sampling;
 import org.springframework.boot.actuate.web.BasicErrorController;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -32,8 +41,10 @@ import static org.junit.Assert.assertEquals;
  */
 public class WebRequestTraceFilterTests {
 
+	private final InMemoryTraceRepository repository = new InMemoryTraceRepository();
+
 	private final WebRequestTraceFilter filter = new WebRequestTraceFilter(
-			new InMemoryTraceRepository());
+			this.repository);
 
 	@Test
 	public void filterDumpsRequest() {
@@ -90,4 +101,64 @@ public class WebRequestTraceFilterTests {
 		System.err.println(map);
 		assertEquals("Foo", map.get("message").toString());
 	}
+
+	@Test
+	public void filterIncludesHeaders() {
+		this.filter.setIncludeHeaders(Collections.singleton("accept"));
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		request.addHeader("Accept", "application/json");
+		request.addHeader("Authorization", "secret");
+		Map<String, Object> trace = this.filter.getTrace(request);
+		@SuppressWarnings("unchecked")
+		Map<String, Object> map = (Map<String, Object>) trace.get("headers");
+		assertEquals("{Accept=application/json}", map.get("request").toString());
+	}
+
+	@Test
+	public void samplingEvery() throws Exception {
+		this.filter.setSampling(Sampling.EVERY);
+		this.filter.setSampleEvery(3);
+		for (int i = 0; i < 6; i++) {
+			doFilter(200);
+		}
+		assertEquals(2, this.repository.findAll().size());
+	}
+
+	@Test
+	public void samplingRateZero() throws Exception {
+		this.filter.setSampling(Sampling.RATE);
+		this.filter.setSampleRate(0);
+		doFilter(200);
+		assertEquals(0, this.repository.findAll().size());
+	}
+
+	@Test
+	public void samplingErrorsAndSlow() throws Exception {
+		this.filter.setSampling(Sampling.ERRORS_AND_SLOW);
+		doFilter(200);
+		doFilter(500);
+		assertEquals(1, this.repository.findAll().size());
+		this.filter.setSlowThreshold(0);
+		doFilter(200);
+		assertEquals(2, this.repository.findAll().size());
+	}
+
+	private void doFilter(final int status) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, new FilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response)
+					throws IOException, ServletException {
+				((HttpServletResponse) response).setStatus(status);
+				try {
+					Thread.sleep(1);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+	}
+
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure;
+
+/**
+ * Filter that can be registered in {@code spring.factories} to limit the
+ * auto-configuration classes considered. This filter is applied before the bytecode of
+ * the auto-configuration classes is even read.
+ * <p>
+ * An {@link AutoConfigurationImportFilter} may implement
+ * {@link org.springframework.beans.factory.BeanFactoryAware BeanFactoryAware} or
+ * {@link org.springframework.beans.factory.BeanClassLoaderAware BeanClassLoaderAware},
+ * the callbacks are invoked before {@link #match} is called.
+ * 
+ * @author Dave Syer
+ */
+public interface AutoConfigurationImportFilter {
+
+	/**
+	 * Apply the filter to the given auto-configuration class candidates.
+	 * @param autoConfigurationClasses the auto-configuration classes being considered
+	 * @param autoConfigurationMetadata access to the meta-data generated at build time
+	 * @return a boolean array indicating which of the auto-configuration classes should
+	 * be imported (same length and order as {@code autoConfigurationClasses})
+	 */
+	boolean[] match(String[] autoConfigurationClasses,
+			AutoConfigurationMetadata autoConfigurationMetadata);
+
+}
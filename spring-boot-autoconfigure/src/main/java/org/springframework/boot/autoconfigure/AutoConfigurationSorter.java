@@ -27,90 +27,139 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
-import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.util.Assert;
 
 /**
  * Sort {@link EnableAutoConfiguration auto-configuration} classes into priority order by
  * reading {@link Ordered} and {@link AutoConfigureAfter} annotations (without loading
- * classes).
+ * classes). The annotations are taken from the {@link AutoConfigurationMetadata} written
+ * at build time when it is available, and only read from the bytecode otherwise.
  * 
  * @author Phillip Webb
+ * @author Dave Syer
  */
 class AutoConfigurationSorter {
 
+	// Weak keys so that class loaders can be collected, but strong values so that the
+	// cache survives for as long as the class loader does
+	private static final Map<ClassLoader, Map<Object, List<String>>> cache = Collections
+			.synchronizedMap(new WeakHashMap<ClassLoader, Map<Object, List<String>>>());
+
+	private final ClassLoader classLoader;
+
 	private final CachingMetadataReaderFactory metadataReaderFactory;
 
+	private final AutoConfigurationMetadata autoConfigurationMetadata;
+
 	public AutoConfigurationSorter(ResourceLoader resourceLoader) {
+		this(resourceLoader, AutoConfigurationMetadataLoader
+				.loadMetadata(new Properties()));
+	}
+
+	public AutoConfigurationSorter(ResourceLoader resourceLoader,
+			AutoConfigurationMetadata autoConfigurationMetadata) {
 		Assert.notNull(resourceLoader, "ResourceLoader must not be null");
+		Assert.notNull(autoConfigurationMetadata,
+				"AutoConfigurationMetadata must not be null");
+		this.classLoader = resourceLoader.getClassLoader();
 		this.metadataReaderFactory = new CachingMetadataReaderFactory(resourceLoader);
+		this.autoConfigurationMetadata = autoConfigurationMetadata;
 	}
 
+	/**
+	 * Sort the given auto-configuration classes into priority order. The result is
+	 * cached per class loader for the same class names and meta-data, so starting many
+	 * contexts with the same auto-configuration only sorts once.
+	 * @param classNames the auto-configuration class names
+	 * @return the class names in priority order
+	 * @throws IOException if a class cannot be read
+	 */
 	public List<String> getInPriorityOrder(Collection<String> classNames)
 			throws IOException {
+		Map<Object, List<String>> cached = getCache();
+		List<Object> key = Arrays.asList(this.autoConfigurationMetadata,
+				new ArrayList<String>(classNames));
+		List<String> orderedClassNames = (cached == null ? null : cached.get(key));
+		if (orderedClassNames == null) {
+			orderedClassNames = Collections
+					.unmodifiableList(doGetInPriorityOrder(classNames));
+			if (cached != null) {
+				cached.put(key, orderedClassNames);
+			}
+		}
+		return new ArrayList<String>(orderedClassNames);
+	}
+
+	private Map<Object, List<String>> getCache() {
+		if (this.classLoader == null) {
+			return null;
+		}
+		synchronized (cache) {
+			Map<Object, List<String>> cached = cache.get(this.classLoader);
+			if (cached == null) {
+				cached = new ConcurrentHashMap<Object, List<String>>();
+				cache.put(this.classLoader, cached);
+			}
+			return cached;
+		}
+	}
+
+	private List<String> doGetInPriorityOrder(Collection<String> classNames)
+			throws IOException {
 
 		final AutoConfigurationClasses classes = new AutoConfigurationClasses(
-				this.metadataReaderFactory, classNames);
+				this.metadataReaderFactory, this.autoConfigurationMetadata, classNames);
 
 		List<String> orderedClassNames = new ArrayList<String>(classNames);
 
-		// Initially sort alphabetically
-		Collections.sort(orderedClassNames);
-
-		// Then sort by order
+		// Sort by order, then alphabetically
 		Collections.sort(orderedClassNames, new Comparator<String>() {
 			@Override
 			public int compare(String o1, String o2) {
 				int i1 = classes.get(o1).getOrder();
 				int i2 = classes.get(o2).getOrder();
-				return (i1 < i2) ? -1 : (i1 > i2) ? 1 : 0;
+				int result = (i1 < i2) ? -1 : (i1 > i2) ? 1 : 0;
+				return (result != 0 ? result : o1.compareTo(o2));
 			}
 		});
 
 		// Then respect @AutoConfigureBefore @AutoConfigureAfter
-		orderedClassNames = sortByAnnotation(classes, orderedClassNames);
-
-		return orderedClassNames;
-
+		return sortByAnnotation(classes, orderedClassNames);
 	}
 
 	private List<String> sortByAnnotation(AutoConfigurationClasses classes,
 			List<String> classNames) {
-		List<String> tosort = new ArrayList<String>(classNames);
 		Set<String> sorted = new LinkedHashSet<String>();
-		Set<String> processing = new LinkedHashSet<String>();
-		while (!tosort.isEmpty()) {
-			doSortByAfterAnnotation(classes, tosort, sorted, processing, null);
+		Set<String> processing = new HashSet<String>();
+		for (String className : classNames) {
+			if (!sorted.contains(className)) {
+				doSortByAfterAnnotation(classes, sorted, processing, className);
+			}
 		}
 		return new ArrayList<String>(sorted);
 	}
 
 	private void doSortByAfterAnnotation(AutoConfigurationClasses classes,
-			List<String> tosort, Set<String> sorted, Set<String> processing,
-			String current) {
-
-		if (current == null) {
-			current = tosort.remove(0);
-		}
-
+			Set<String> sorted, Set<String> processing, String current) {
 		processing.add(current);
-
 		for (String after : classes.getClassesRequestedAfter(current)) {
 			Assert.state(!processing.contains(after),
 					"AutoConfigure cycle detected between " + current + " and " + after);
-			if (!sorted.contains(after) && tosort.contains(after)) {
-				doSortByAfterAnnotation(classes, tosort, sorted, processing, after);
+			if (!sorted.contains(after)) {
+				doSortByAfterAnnotation(classes, sorted, processing, after);
 			}
 		}
-
 		processing.remove(current);
 		sorted.add(current);
 	}
@@ -119,12 +168,32 @@ class AutoConfigurationSorter {
 
 		private final Map<String, AutoConfigurationClass> classes = new HashMap<String, AutoConfigurationClass>();
 
+		private final Map<String, Set<String>> requestedAfter = new HashMap<String, Set<String>>();
+
 		public AutoConfigurationClasses(MetadataReaderFactory metadataReaderFactory,
+				AutoConfigurationMetadata autoConfigurationMetadata,
 				Collection<String> classNames) throws IOException {
 			for (String className : classNames) {
-				MetadataReader metadataReader = metadataReaderFactory
-						.getMetadataReader(className);
-				this.classes.put(className, new AutoConfigurationClass(metadataReader));
+				this.classes.put(className, new AutoConfigurationClass(className,
+						metadataReaderFactory, autoConfigurationMetadata));
+				this.requestedAfter.put(className, new LinkedHashSet<String>());
+			}
+			// Build the edges once, only keeping those between the classes being sorted
+			for (Map.Entry<String, AutoConfigurationClass> entry : this.classes
+					.entrySet()) {
+				for (String after : entry.getValue().getAfter()) {
+					if (this.classes.containsKey(after)) {
+						this.requestedAfter.get(entry.getKey()).add(after);
+					}
+				}
+			}
+			for (Map.Entry<String, AutoConfigurationClass> entry : this.classes
+					.entrySet()) {
+				for (String before : entry.getValue().getBefore()) {
+					if (this.classes.containsKey(before)) {
+						this.requestedAfter.get(before).add(entry.getKey());
+					}
+				}
 			}
 		}
 
@@ -133,28 +202,35 @@ class AutoConfigurationSorter {
 		}
 
 		public Set<String> getClassesRequestedAfter(String className) {
-			Set<String> rtn = new LinkedHashSet<String>();
-			rtn.addAll(get(className).getAfter());
-			for (Map.Entry<String, AutoConfigurationClass> entry : this.classes
-					.entrySet()) {
-				if (entry.getValue().getBefore().contains(className)) {
-					rtn.add(entry.getKey());
-				}
-			}
-			return rtn;
+			return this.requestedAfter.get(className);
 		}
 	}
 
 	private static class AutoConfigurationClass {
 
-		private final AnnotationMetadata metadata;
+		private final String className;
+
+		private final AutoConfigurationMetadata autoConfigurationMetadata;
+
+		private final AnnotationMetadata annotationMetadata;
 
-		public AutoConfigurationClass(MetadataReader metadataReader) {
-			this.metadata = metadataReader.getAnnotationMetadata();
+		public AutoConfigurationClass(String className,
+				MetadataReaderFactory metadataReaderFactory,
+				AutoConfigurationMetadata autoConfigurationMetadata) throws IOException {
+			this.className = className;
+			this.autoConfigurationMetadata = autoConfigurationMetadata;
+			this.annotationMetadata = (autoConfigurationMetadata.wasProcessed(className) ? null
+					: metadataReaderFactory.getMetadataReader(className)
+							.getAnnotationMetadata());
 		}
 
 		public int getOrder() {
-			Map<String, Object> orderedAnnotation = this.metadata
+			if (this.annotationMetadata == null) {
+				Integer order = this.autoConfigurationMetadata.getInteger(
+						this.className, "Order");
+				return (order == null ? Ordered.LOWEST_PRECEDENCE : order);
+			}
+			Map<String, Object> orderedAnnotation = this.annotationMetadata
 					.getAnnotationAttributes(Order.class.getName());
 			return (orderedAnnotation == null ? Ordered.LOWEST_PRECEDENCE
 					: (Integer) orderedAnnotation.get("value"));
@@ -169,7 +245,12 @@ class AutoConfigurationSorter {
 		}
 
 		private Set<String> getAnnotationValue(Class<?> annotation) {
-			Map<String, Object> attributes = this.metadata.getAnnotationAttributes(
+			if (this.annotationMetadata == null) {
+				Set<String> value = this.autoConfigurationMetadata.getSet(
+						this.className, annotation.getSimpleName());
+				return (value == null ? Collections.<String> emptySet() : value);
+			}
+			Map<String, Object> attributes = this.annotationMetadata.getAnnotationAttributes(
 					annotation.getName(), true);
 			if (attributes == null) {
 				return Collections.emptySet();
@@ -22,7 +22,11 @@ import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
 
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.Aware;
 import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.DeferredImportSelector;
 import org.springframework.core.Ordered;
@@ -31,20 +35,28 @@ import org.springframework.core.annotation.Order;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.util.ClassUtils;
 
 /**
  * {@link DeferredImportSelector} to handle {@link EnableAutoConfiguration
- * auto-configuration}.
+ * auto-configuration}. Candidates are first passed through the
+ * {@link AutoConfigurationImportFilter AutoConfigurationImportFilters} registered in
+ * {@code spring.factories} using the {@link AutoConfigurationMetadata} written at build
+ * time, so that auto-configuration classes that cannot match are discarded before their
+ * bytecode is read.
  * 
  * @author Phillip Webb
+ * @author Dave Syer
  * @see EnableAutoConfiguration
  */
 @Order(Ordered.LOWEST_PRECEDENCE)
 class EnableAutoConfigurationImportSelector implements DeferredImportSelector,
-		BeanClassLoaderAware, ResourceLoaderAware {
+		BeanClassLoaderAware, ResourceLoaderAware, BeanFactoryAware {
 
 	private ClassLoader beanClassLoader;
 
+	private BeanFactory beanFactory;
+
 	private ResourceLoader resourceLoader;
 
 	@Override
@@ -62,9 +74,14 @@ class EnableAutoConfigurationImportSelector implements DeferredImportSelector,
 			// Remove those specifically disabled
 			factories.removeAll(Arrays.asList(attributes.getStringArray("exclude")));
 
+			// Discard those that cannot match using the build time meta-data
+			AutoConfigurationMetadata autoConfigurationMetadata = AutoConfigurationMetadataLoader
+					.loadMetadata(this.beanClassLoader);
+			factories = filter(factories, autoConfigurationMetadata);
+
 			// Sort
-			factories = new AutoConfigurationSorter(this.resourceLoader)
-					.getInPriorityOrder(factories);
+			factories = new AutoConfigurationSorter(this.resourceLoader,
+					autoConfigurationMetadata).getInPriorityOrder(factories);
 
 			return factories.toArray(new String[factories.size()]);
 		}
@@ -73,6 +90,69 @@ class EnableAutoConfigurationImportSelector implements DeferredImportSelector,
 		}
 	}
 
+	private List<String> filter(List<String> factories,
+			AutoConfigurationMetadata autoConfigurationMetadata) {
+		String[] candidates = factories.toArray(new String[factories.size()]);
+		boolean[] skip = new boolean[candidates.length];
+		boolean skipped = false;
+		for (AutoConfigurationImportFilter filter : getAutoConfigurationImportFilters()) {
+			boolean[] match = filter.match(candidates, autoConfigurationMetadata);
+			for (int i = 0; i < match.length; i++) {
+				if (!match[i]) {
+					skip[i] = true;
+					skipped = true;
+				}
+			}
+		}
+		if (!skipped) {
+			return factories;
+		}
+		List<String> result = new ArrayList<String>(candidates.length);
+		for (int i = 0; i < candidates.length; i++) {
+			if (!skip[i]) {
+				result.add(candidates[i]);
+			}
+		}
+		return result;
+	}
+
+	private List<AutoConfigurationImportFilter> getAutoConfigurationImportFilters() {
+		List<AutoConfigurationImportFilter> filters = new ArrayList<AutoConfigurationImportFilter>();
+		for (String name : SpringFactoriesLoader.loadFactoryNames(
+				AutoConfigurationImportFilter.class, this.beanClassLoader)) {
+			try {
+				// Filters are usually package private so don't use SpringFactoriesLoader
+				// to create them
+				AutoConfigurationImportFilter filter = BeanUtils.instantiateClass(
+						ClassUtils.forName(name, this.beanClassLoader),
+						AutoConfigurationImportFilter.class);
+				invokeAwareMethods(filter);
+				filters.add(filter);
+			}
+			catch (ClassNotFoundException ex) {
+				throw new IllegalStateException(
+						"Unable to load AutoConfigurationImportFilter " + name, ex);
+			}
+		}
+		return filters;
+	}
+
+	private void invokeAwareMethods(Object instance) {
+		if (instance instanceof Aware) {
+			if (instance instanceof BeanClassLoaderAware) {
+				((BeanClassLoaderAware) instance).setBeanClassLoader(this.beanClassLoader);
+			}
+			if (instance instanceof BeanFactoryAware) {
+				((BeanFactoryAware) instance).setBeanFactory(this.beanFactory);
+			}
+		}
+	}
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+	}
+
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
 		this.beanClassLoader = classLoader;
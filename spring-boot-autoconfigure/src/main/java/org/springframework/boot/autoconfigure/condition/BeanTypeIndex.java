@@ -0,0 +1,266 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.condition;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Index of the names of the beans in a single bean factory (not its parents) that match
+ * a type or carry an annotation. Each lookup against a {@link ListableBeanFactory} scans
+ * all of its bean definitions, and {@link OnBeanCondition} asks the same questions for
+ * many auto-configuration classes, so the answers are kept until the number of bean
+ * definitions or singletons in the bean factory changes (which also covers a factory
+ * bean being instantiated and so exposing its object type), or one of the beans in an
+ * answer is removed or overridden.
+ * 
+ * @author Dave Syer
+ * @see OnBeanCondition
+ */
+final class BeanTypeIndex {
+
+	private static final Map<ConfigurableListableBeanFactory, BeanTypeIndex> indexes = new WeakHashMap<ConfigurableListableBeanFactory, BeanTypeIndex>();
+
+	private final Map<Class<?>, Set<String>> namesForType = new HashMap<Class<?>, Set<String>>();
+
+	private final Map<Class<?>, String[]> namesForAnnotation = new HashMap<Class<?>, String[]>();
+
+	private final Map<String, Object> registrations = new HashMap<String, Object>();
+
+	private int beanDefinitionCount = -1;
+
+	private int singletonCount = -1;
+
+	private BeanTypeIndex() {
+	}
+
+	/**
+	 * Return the names of the beans in the bean factory that match the given type,
+	 * including the beans created by factory beans whose object type can be deduced from
+	 * their generics. Beans are not initialized to find out their type.
+	 * @param beanFactory the bean factory to search
+	 * @param type the type to match
+	 * @return the matching bean names (never modified once returned)
+	 */
+	public static Set<String> getNamesForType(ListableBeanFactory beanFactory,
+			Class<?> type) {
+		if (!(beanFactory instanceof ConfigurableListableBeanFactory)) {
+			return findNamesForType(beanFactory, type);
+		}
+		ConfigurableListableBeanFactory configurable = (ConfigurableListableBeanFactory) beanFactory;
+		BeanTypeIndex index = get(configurable);
+		synchronized (index) {
+			index.clearIfNecessary(configurable);
+			Set<String> names = index.namesForType.get(type);
+			if (names != null && !index.isCurrent(configurable, names)) {
+				index.clear();
+				names = null;
+			}
+			if (names == null) {
+				names = findNamesForType(configurable, type);
+				index.namesForType.put(type, names);
+				index.addRegistrations(configurable, names);
+			}
+			return names;
+		}
+	}
+
+	/**
+	 * Return the names of the beans in the bean factory that carry the given annotation.
+	 * @param beanFactory the bean factory to search
+	 * @param annotationType the annotation type
+	 * @return the matching bean names (must not be modified)
+	 */
+	public static String[] getNamesForAnnotation(
+			ConfigurableListableBeanFactory beanFactory,
+			Class<? extends Annotation> annotationType) {
+		BeanTypeIndex index = get(beanFactory);
+		synchronized (index) {
+			index.clearIfNecessary(beanFactory);
+			String[] names = index.namesForAnnotation.get(annotationType);
+			if (names != null && !index.isCurrent(beanFactory, Arrays.asList(names))) {
+				index.clear();
+				names = null;
+			}
+			if (names == null) {
+				names = beanFactory.getBeanNamesForAnnotation(annotationType);
+				index.namesForAnnotation.put(annotationType, names);
+				index.addRegistrations(beanFactory, Arrays.asList(names));
+			}
+			return names;
+		}
+	}
+
+	private static BeanTypeIndex get(ConfigurableListableBeanFactory beanFactory) {
+		synchronized (indexes) {
+			BeanTypeIndex index = indexes.get(beanFactory);
+			if (index == null) {
+				index = new BeanTypeIndex();
+				indexes.put(beanFactory, index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Clear the index if a bean definition or singleton has been added or removed. Both
+	 * counts are cheap to read, unlike the bean names.
+	 */
+	private void clearIfNecessary(ConfigurableListableBeanFactory beanFactory) {
+		int beanDefinitionCount = beanFactory.getBeanDefinitionCount();
+		int singletonCount = beanFactory.getSingletonCount();
+		if (beanDefinitionCount != this.beanDefinitionCount
+				|| singletonCount != this.singletonCount) {
+			clear();
+			this.beanDefinitionCount = beanDefinitionCount;
+			this.singletonCount = singletonCount;
+		}
+	}
+
+	private void clear() {
+		this.namesForType.clear();
+		this.namesForAnnotation.clear();
+		this.registrations.clear();
+	}
+
+	/**
+	 * Check that the beans in an answer are still registered as they were when it was
+	 * found, so that an answer is not used after one of its beans is overridden under
+	 * the same name (which does not change any count). Only the beans in the answer are
+	 * checked: a bean that did not match and is overridden with one that does is not
+	 * noticed, since finding it would mean checking every bean again.
+	 */
+	private boolean isCurrent(ConfigurableListableBeanFactory beanFactory,
+			Collection<String> names) {
+		for (String name : names) {
+			if (!ObjectUtils.nullSafeEquals(this.registrations.get(name),
+					getRegistration(beanFactory, name))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void addRegistrations(ConfigurableListableBeanFactory beanFactory,
+			Collection<String> names) {
+		for (String name : names) {
+			this.registrations.put(name, getRegistration(beanFactory, name));
+		}
+	}
+
+	/**
+	 * Return the bean definition for the name, or the identity hash code of the
+	 * singleton if it has no definition. The singleton itself is not kept because it
+	 * might hold on to the bean factory.
+	 */
+	private static Object getRegistration(ConfigurableListableBeanFactory beanFactory,
+			String name) {
+		if (beanFactory.containsBeanDefinition(name)) {
+			return beanFactory.getBeanDefinition(name);
+		}
+		Object singleton = beanFactory.getSingleton(name);
+		return (singleton == null ? null : System.identityHashCode(singleton));
+	}
+
+	private static Set<String> findNamesForType(ListableBeanFactory beanFactory,
+			Class<?> type) {
+		Set<String> result = new LinkedHashSet<String>();
+		// eagerInit set to false to prevent early instantiation
+		result.addAll(Arrays.asList(beanFactory.getBeanNamesForType(type, true, false)));
+		if (beanFactory instanceof ConfigurableListableBeanFactory) {
+			collectBeanNamesForTypeFromFactoryBeans(result,
+					(ConfigurableListableBeanFactory) beanFactory, type);
+		}
+		return Collections.unmodifiableSet(result);
+	}
+
+	/**
+	 * Attempt to collect bean names for type by considering FactoryBean generics. Some
+	 * factory beans will not be able to determine their object type at this stage, so
+	 * those are not eligible for matching this condition.
+	 */
+	private static void collectBeanNamesForTypeFromFactoryBeans(Set<String> result,
+			ConfigurableListableBeanFactory beanFactory, Class<?> type) {
+		String[] names = beanFactory.getBeanNamesForType(FactoryBean.class, true, false);
+		for (String name : names) {
+			name = BeanFactoryUtils.transformedBeanName(name);
+			BeanDefinition beanDefinition = beanFactory.getBeanDefinition(name);
+			Class<?> generic = getFactoryBeanGeneric(beanFactory, beanDefinition);
+			if (generic != null && ClassUtils.isAssignable(type, generic)) {
+				result.add(name);
+			}
+		}
+	}
+
+	private static Class<?> getFactoryBeanGeneric(
+			ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+		try {
+			if (StringUtils.hasLength(definition.getFactoryBeanName())
+					&& StringUtils.hasLength(definition.getFactoryMethodName())) {
+				return getConfigurationClassFactoryBeanGeneric(beanFactory, definition);
+			}
+			if (StringUtils.hasLength(definition.getBeanClassName())) {
+				return getDirectFactoryBeanGeneric(beanFactory, definition);
+			}
+		}
+		catch (Exception ex) {
+		}
+		return null;
+	}
+
+	private static Class<?> getConfigurationClassFactoryBeanGeneric(
+			ConfigurableListableBeanFactory beanFactory, BeanDefinition definition)
+			throws Exception {
+		BeanDefinition factoryDefinition = beanFactory.getBeanDefinition(definition
+				.getFactoryBeanName());
+		Class<?> factoryClass = ClassUtils.forName(factoryDefinition.getBeanClassName(),
+				beanFactory.getBeanClassLoader());
+		Method method = ReflectionUtils.findMethod(factoryClass,
+				definition.getFactoryMethodName());
+		return ResolvableType.forMethodReturnType(method).as(FactoryBean.class)
+				.resolveGeneric();
+	}
+
+	private static Class<?> getDirectFactoryBeanGeneric(
+			ConfigurableListableBeanFactory beanFactory, BeanDefinition definition)
+			throws ClassNotFoundException, LinkageError {
+		Class<?> factoryBeanClass = ClassUtils.forName(definition.getBeanClassName(),
+				beanFactory.getBeanClassLoader());
+		return ResolvableType.forClass(factoryBeanClass).as(FactoryBean.class)
+				.resolveGeneric();
+	}
+
+}
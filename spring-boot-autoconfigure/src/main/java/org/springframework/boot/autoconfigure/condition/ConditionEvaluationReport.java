@@ -16,11 +16,11 @@
 
 package org.springframework.boot.autoconfigure.condition;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -119,17 +119,23 @@ public class ConditionEvaluationReport {
 	 */
 	public static class ConditionAndOutcomes implements Iterable<ConditionAndOutcome> {
 
-		private final Set<ConditionAndOutcome> outcomes = new LinkedHashSet<ConditionAndOutcome>();
+		private final List<ConditionAndOutcome> outcomes = new ArrayList<ConditionAndOutcome>();
 
 		public void add(Condition condition, ConditionOutcome outcome) {
-			this.outcomes.add(new ConditionAndOutcome(condition, outcome));
+			ConditionAndOutcome conditionAndOutcome = new ConditionAndOutcome(condition,
+					outcome);
+			// There are only a few outcomes per source, and messages are only compared
+			// (and so rendered) for the same condition class and match
+			if (!this.outcomes.contains(conditionAndOutcome)) {
+				this.outcomes.add(conditionAndOutcome);
+			}
 		}
 
 		/**
 		 * Return {@code true} if all outcomes match.
 		 */
 		public boolean isFullMatch() {
-			for (ConditionAndOutcome conditionAndOutcomes : this) {
+			for (ConditionAndOutcome conditionAndOutcomes : this.outcomes) {
 				if (!conditionAndOutcomes.getOutcome().isMatch()) {
 					return false;
 				}
@@ -139,7 +145,7 @@ public class ConditionEvaluationReport {
 
 		@Override
 		public Iterator<ConditionAndOutcome> iterator() {
-			return Collections.unmodifiableSet(this.outcomes).iterator();
+			return Collections.unmodifiableList(this.outcomes).iterator();
 		}
 
 	}
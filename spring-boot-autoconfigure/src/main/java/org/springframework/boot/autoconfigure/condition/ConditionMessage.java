@@ -0,0 +1,130 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.condition;
+
+import java.util.Collection;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * A message associated with a {@link ConditionOutcome}. The message is held as the parts
+ * that make it up (text and the objects it refers to) and is only rendered when
+ * {@link #toString()} is called, which is typically only when the auto-configuration
+ * report is logged or inspected.
+ * 
+ * @author Dave Syer
+ */
+public final class ConditionMessage {
+
+	private static final ConditionMessage EMPTY = new ConditionMessage(new Object[0]);
+
+	private final Object[] parts;
+
+	private volatile String message;
+
+	private ConditionMessage(Object[] parts) {
+		this.parts = parts;
+	}
+
+	/**
+	 * Return an empty {@link ConditionMessage}.
+	 * @return an empty message
+	 */
+	public static ConditionMessage empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Create a new {@link ConditionMessage} from the given parts. Each part is rendered
+	 * with {@link String#valueOf(Object)} when the message is needed.
+	 * @param parts the parts of the message
+	 * @return a new message
+	 */
+	public static ConditionMessage of(Object... parts) {
+		return new ConditionMessage(parts);
+	}
+
+	/**
+	 * Return a part that renders the given items as a comma delimited list.
+	 * @param items the items
+	 * @return a message part
+	 */
+	public static Object commaDelimited(final Collection<?> items) {
+		return new Object() {
+			@Override
+			public String toString() {
+				return StringUtils.collectionToCommaDelimitedString(items);
+			}
+		};
+	}
+
+	/**
+	 * Return a new {@link ConditionMessage} made from this message followed by a space
+	 * and the given parts (or just the given parts if this message is empty).
+	 * @param parts the parts to append
+	 * @return a new message
+	 */
+	public ConditionMessage append(Object... parts) {
+		if (isEmpty()) {
+			return of(parts);
+		}
+		Object[] combined = new Object[parts.length + 2];
+		combined[0] = this;
+		combined[1] = " ";
+		System.arraycopy(parts, 0, combined, 2, parts.length);
+		return new ConditionMessage(combined);
+	}
+
+	/**
+	 * Return {@code true} if the message is empty.
+	 * @return if the message is empty
+	 */
+	public boolean isEmpty() {
+		return this.parts.length == 0;
+	}
+
+	@Override
+	public String toString() {
+		String message = this.message;
+		if (message == null) {
+			StringBuilder builder = new StringBuilder();
+			for (Object part : this.parts) {
+				builder.append(part);
+			}
+			message = builder.toString();
+			this.message = message;
+		}
+		return message;
+	}
+
+	@Override
+	public int hashCode() {
+		return toString().hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		return toString().equals(obj.toString());
+	}
+
+}
@@ -27,9 +27,19 @@ public class ConditionOutcome {
 
 	private final boolean match;
 
-	private final String message;
+	private final ConditionMessage message;
 
 	public ConditionOutcome(boolean match, String message) {
+		this(match, message == null ? null : ConditionMessage.of(message));
+	}
+
+	/**
+	 * Create a new {@link ConditionOutcome} instance. The message is only rendered if
+	 * {@link #getMessage()} is called.
+	 * @param match if the condition is a match
+	 * @param message the condition message
+	 */
+	public ConditionOutcome(boolean match, ConditionMessage message) {
 		this.match = match;
 		this.message = message;
 	}
@@ -38,7 +48,7 @@ public class ConditionOutcome {
 	 * Create a new {@link ConditionOutcome} instance for a 'match'.
 	 */
 	public static ConditionOutcome match() {
-		return match(null);
+		return match((String) null);
 	}
 
 	/**
@@ -49,6 +59,14 @@ public class ConditionOutcome {
 		return new ConditionOutcome(true, message);
 	}
 
+	/**
+	 * Create a new {@link ConditionOutcome} instance for 'match'.
+	 * @param message the condition message
+	 */
+	public static ConditionOutcome match(ConditionMessage message) {
+		return new ConditionOutcome(true, message);
+	}
+
 	/**
 	 * Create a new {@link ConditionOutcome} instance for 'no match'.
 	 * @param message the message
@@ -57,6 +75,14 @@ public class ConditionOutcome {
 		return new ConditionOutcome(false, message);
 	}
 
+	/**
+	 * Create a new {@link ConditionOutcome} instance for 'no match'.
+	 * @param message the condition message
+	 */
+	public static ConditionOutcome noMatch(ConditionMessage message) {
+		return new ConditionOutcome(false, message);
+	}
+
 	/**
 	 * Return {@code true} if the outcome was a match.
 	 */
@@ -68,6 +94,13 @@ public class ConditionOutcome {
 	 * Return an outcome message or {@code null}.
 	 */
 	public String getMessage() {
+		return (this.message == null ? null : this.message.toString());
+	}
+
+	/**
+	 * Return the unrendered outcome message or {@code null}.
+	 */
+	public ConditionMessage getConditionMessage() {
 		return this.message;
 	}
 
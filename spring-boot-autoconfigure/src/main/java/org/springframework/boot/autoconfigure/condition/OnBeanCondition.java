@@ -27,17 +27,13 @@ import java.util.List;
 import java.util.Set;
 
 import org.springframework.beans.factory.BeanFactory;
-import org.springframework.beans.factory.BeanFactoryUtils;
-import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.HierarchicalBeanFactory;
 import org.springframework.beans.factory.ListableBeanFactory;
-import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Condition;
 import org.springframework.context.annotation.ConditionContext;
 import org.springframework.context.annotation.ConfigurationCondition;
-import org.springframework.core.ResolvableType;
 import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.core.type.MethodMetadata;
 import org.springframework.util.Assert;
@@ -67,18 +63,18 @@ class OnBeanCondition extends SpringBootCondition implements ConfigurationCondit
 	public ConditionOutcome getMatchOutcome(ConditionContext context,
 			AnnotatedTypeMetadata metadata) {
 
-		StringBuffer matchMessage = new StringBuffer();
+		ConditionMessage matchMessage = ConditionMessage.empty();
 
 		if (metadata.isAnnotated(ConditionalOnBean.class.getName())) {
 			BeanSearchSpec spec = new BeanSearchSpec(context, metadata,
 					ConditionalOnBean.class);
 			List<String> matching = getMatchingBeans(context, spec);
 			if (matching.isEmpty()) {
-				return ConditionOutcome.noMatch("@ConditionalOnBean " + spec
-						+ " found no beans");
+				return ConditionOutcome.noMatch(ConditionMessage.of(
+						"@ConditionalOnBean ", spec, " found no beans"));
 			}
-			matchMessage.append("@ConditionalOnBean " + spec + " found the following "
-					+ matching);
+			matchMessage = matchMessage.append("@ConditionalOnBean ", spec,
+					" found the following ", matching);
 		}
 
 		if (metadata.isAnnotated(ConditionalOnMissingBean.class.getName())) {
@@ -86,14 +82,15 @@ class OnBeanCondition extends SpringBootCondition implements ConfigurationCondit
 					ConditionalOnMissingBean.class);
 			List<String> matching = getMatchingBeans(context, spec);
 			if (!matching.isEmpty()) {
-				return ConditionOutcome.noMatch("@ConditionalOnMissingBean " + spec
-						+ " found the following " + matching);
+				return ConditionOutcome.noMatch(ConditionMessage.of(
+						"@ConditionalOnMissingBean ", spec, " found the following ",
+						matching));
 			}
-			matchMessage.append(matchMessage.length() == 0 ? "" : " ");
-			matchMessage.append("@ConditionalOnMissingBean " + spec + " found no beans");
+			matchMessage = matchMessage.append("@ConditionalOnMissingBean ", spec,
+					" found no beans");
 		}
 
-		return ConditionOutcome.match(matchMessage.toString());
+		return ConditionOutcome.match(matchMessage);
 	}
 
 	private List<String> getMatchingBeans(ConditionContext context, BeanSearchSpec beans) {
@@ -152,12 +149,7 @@ class OnBeanCondition extends SpringBootCondition implements ConfigurationCondit
 
 	private void collectBeanNamesForType(Set<String> result,
 			ListableBeanFactory beanFactory, Class<?> type, boolean considerHierarchy) {
-		// eagerInit set to false to prevent early instantiation
-		result.addAll(Arrays.asList(beanFactory.getBeanNamesForType(type, true, false)));
-		if (beanFactory instanceof ConfigurableListableBeanFactory) {
-			collectBeanNamesForTypeFromFactoryBeans(result,
-					(ConfigurableListableBeanFactory) beanFactory, type);
-		}
+		result.addAll(BeanTypeIndex.getNamesForType(beanFactory, type));
 		if (considerHierarchy && beanFactory instanceof HierarchicalBeanFactory) {
 			BeanFactory parent = ((HierarchicalBeanFactory) beanFactory)
 					.getParentBeanFactory();
@@ -168,62 +160,6 @@ class OnBeanCondition extends SpringBootCondition implements ConfigurationCondit
 		}
 	}
 
-	/**
-	 * Attempt to collect bean names for type by considering FactoryBean generics. Some
-	 * factory beans will not be able to determine their object type at this stage, so
-	 * those are not eligible for matching this condition.
-	 */
-	private void collectBeanNamesForTypeFromFactoryBeans(Set<String> result,
-			ConfigurableListableBeanFactory beanFactory, Class<?> type) {
-		String[] names = beanFactory.getBeanNamesForType(FactoryBean.class, true, false);
-		for (String name : names) {
-			name = BeanFactoryUtils.transformedBeanName(name);
-			BeanDefinition beanDefinition = beanFactory.getBeanDefinition(name);
-			Class<?> generic = getFactoryBeanGeneric(beanFactory, beanDefinition);
-			if (generic != null && ClassUtils.isAssignable(type, generic)) {
-				result.add(name);
-			}
-		}
-	}
-
-	private Class<?> getFactoryBeanGeneric(ConfigurableListableBeanFactory beanFactory,
-			BeanDefinition definition) {
-		try {
-			if (StringUtils.hasLength(definition.getFactoryBeanName())
-					&& StringUtils.hasLength(definition.getFactoryMethodName())) {
-				return getConfigurationClassFactoryBeanGeneric(beanFactory, definition);
-			}
-			if (StringUtils.hasLength(definition.getBeanClassName())) {
-				return getDirectFactoryBeanGeneric(beanFactory, definition);
-			}
-		}
-		catch (Exception ex) {
-		}
-		return null;
-	}
-
-	private Class<?> getConfigurationClassFactoryBeanGeneric(
-			ConfigurableListableBeanFactory beanFactory, BeanDefinition definition)
-			throws Exception {
-		BeanDefinition factoryDefinition = beanFactory.getBeanDefinition(definition
-				.getFactoryBeanName());
-		Class<?> factoryClass = ClassUtils.forName(factoryDefinition.getBeanClassName(),
-				beanFactory.getBeanClassLoader());
-		Method method = ReflectionUtils.findMethod(factoryClass,
-				definition.getFactoryMethodName());
-		return ResolvableType.forMethodReturnType(method).as(FactoryBean.class)
-				.resolveGeneric();
-	}
-
-	private Class<?> getDirectFactoryBeanGeneric(
-			ConfigurableListableBeanFactory beanFactory, BeanDefinition definition)
-			throws ClassNotFoundException, LinkageError {
-		Class<?> factoryBeanClass = ClassUtils.forName(definition.getBeanClassName(),
-				beanFactory.getBeanClassLoader());
-		return ResolvableType.forClass(factoryBeanClass).as(FactoryBean.class)
-				.resolveGeneric();
-	}
-
 	private String[] getBeanNamesForAnnotation(
 			ConfigurableListableBeanFactory beanFactory, String type,
 			ClassLoader classLoader, boolean considerHierarchy) throws LinkageError {
@@ -232,7 +168,7 @@ class OnBeanCondition extends SpringBootCondition implements ConfigurationCondit
 			@SuppressWarnings("unchecked")
 			Class<? extends Annotation> typeClass = (Class<? extends Annotation>) ClassUtils
 					.forName(type, classLoader);
-			result = beanFactory.getBeanNamesForAnnotation(typeClass);
+			result = BeanTypeIndex.getNamesForAnnotation(beanFactory, typeClass);
 			if (considerHierarchy) {
 				if (beanFactory.getParentBeanFactory() instanceof ConfigurableListableBeanFactory) {
 					String[] parentResult = getBeanNamesForAnnotation(
@@ -16,64 +16,137 @@
 
 package org.springframework.boot.autoconfigure.condition;
 
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-
+import java.util.Set;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationImportFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
 import org.springframework.context.annotation.Condition;
 import org.springframework.context.annotation.ConditionContext;
 import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.MultiValueMap;
-import org.springframework.util.StringUtils;
 
 /**
- * {@link Condition} that checks for the presence or absence of specific classes.
+ * {@link Condition} that checks for the presence or absence of specific classes. Also
+ * used as an {@link AutoConfigurationImportFilter} to discard auto-configuration classes
+ * whose {@link ConditionalOnClass} classes are missing, using the meta-data written at
+ * build time.
  * 
  * @author Phillip Webb
+ * @author Dave Syer
  * @see ConditionalOnClass
  * @see ConditionalOnMissingClass
  */
-class OnClassCondition extends SpringBootCondition {
+class OnClassCondition extends SpringBootCondition implements
+		AutoConfigurationImportFilter, BeanFactoryAware, BeanClassLoaderAware {
+
+	private BeanFactory beanFactory;
+
+	private ClassLoader beanClassLoader;
+
+	@Override
+	public boolean[] match(String[] autoConfigurationClasses,
+			AutoConfigurationMetadata autoConfigurationMetadata) {
+		ConditionEvaluationReport report = getConditionEvaluationReport();
+		boolean[] match = new boolean[autoConfigurationClasses.length];
+		for (int i = 0; i < autoConfigurationClasses.length; i++) {
+			String autoConfigurationClass = autoConfigurationClasses[i];
+			Set<String> candidates = autoConfigurationMetadata.getSet(
+					autoConfigurationClass, "ConditionalOnClass");
+			List<String> missing = getMissingClasses(candidates);
+			match[i] = missing.isEmpty();
+			if (!match[i] && report != null) {
+				report.recordConditionEvaluation(autoConfigurationClass, this,
+						ConditionOutcome.noMatch(ConditionMessage.of(
+								"required @ConditionalOnClass classes not found: ",
+								ConditionMessage.commaDelimited(missing))));
+			}
+		}
+		return match;
+	}
+
+	private ConditionEvaluationReport getConditionEvaluationReport() {
+		if (this.beanFactory instanceof ConfigurableListableBeanFactory) {
+			return ConditionEvaluationReport
+					.get((ConfigurableListableBeanFactory) this.beanFactory);
+		}
+		return null;
+	}
+
+	private List<String> getMissingClasses(Set<String> classNames) {
+		List<String> missing = new LinkedList<String>();
+		if (classNames != null) {
+			ClassLoader classLoader = (this.beanClassLoader == null ? ClassUtils
+					.getDefaultClassLoader() : this.beanClassLoader);
+			for (String className : classNames) {
+				// Look for the class file rather than loading the class
+				String resourceName = ClassUtils.convertClassNameToResourcePath(className)
+						+ ClassUtils.CLASS_FILE_SUFFIX;
+				if (classLoader.getResource(resourceName) == null) {
+					missing.add(className);
+				}
+			}
+		}
+		return missing;
+	}
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+		this.beanFactory = beanFactory;
+	}
+
+	@Override
+	public void setBeanClassLoader(ClassLoader classLoader) {
+		this.beanClassLoader = classLoader;
+	}
 
 	@Override
 	public ConditionOutcome getMatchOutcome(ConditionContext context,
 			AnnotatedTypeMetadata metadata) {
 
-		StringBuffer matchMessage = new StringBuffer();
+		ConditionMessage matchMessage = ConditionMessage.empty();
 
 		MultiValueMap<String, Object> onClasses = getAttributes(metadata,
 				ConditionalOnClass.class);
 		if (onClasses != null) {
-			List<String> missing = getMatchingClasses(onClasses, MatchType.MISSING,
+			List<String> candidates = getCandidates(onClasses);
+			List<String> missing = getMatchingClasses(candidates, MatchType.MISSING,
 					context);
 			if (!missing.isEmpty()) {
-				return ConditionOutcome
-						.noMatch("required @ConditionalOnClass classes not found: "
-								+ StringUtils.collectionToCommaDelimitedString(missing));
+				return ConditionOutcome.noMatch(ConditionMessage.of(
+						"required @ConditionalOnClass classes not found: ",
+						ConditionMessage.commaDelimited(missing)));
 			}
-			matchMessage.append("@ConditionalOnClass classes found: "
-					+ StringUtils.collectionToCommaDelimitedString(getMatchingClasses(
-							onClasses, MatchType.PRESENT, context)));
+			// Nothing is missing so all the candidates are present
+			matchMessage = matchMessage.append("@ConditionalOnClass classes found: ",
+					ConditionMessage.commaDelimited(candidates));
 		}
 
 		MultiValueMap<String, Object> onMissingClasses = getAttributes(metadata,
 				ConditionalOnMissingClass.class);
 		if (onMissingClasses != null) {
-			List<String> present = getMatchingClasses(onMissingClasses,
-					MatchType.PRESENT, context);
+			List<String> candidates = getCandidates(onMissingClasses);
+			List<String> present = getMatchingClasses(candidates, MatchType.PRESENT,
+					context);
 			if (!present.isEmpty()) {
-				return ConditionOutcome
-						.noMatch("required @ConditionalOnMissing classes found: "
-								+ StringUtils.collectionToCommaDelimitedString(present));
+				return ConditionOutcome.noMatch(ConditionMessage.of(
+						"required @ConditionalOnMissing classes found: ",
+						ConditionMessage.commaDelimited(present)));
 			}
-			matchMessage.append(matchMessage.length() == 0 ? "" : " ");
-			matchMessage.append("@ConditionalOnMissing classes not found: "
-					+ StringUtils.collectionToCommaDelimitedString(getMatchingClasses(
-							onMissingClasses, MatchType.MISSING, context)));
+			matchMessage = matchMessage.append(
+					"@ConditionalOnMissing classes not found: ",
+					ConditionMessage.commaDelimited(candidates));
 		}
 
-		return ConditionOutcome.match(matchMessage.toString());
+		return ConditionOutcome.match(matchMessage);
 	}
 
 	private MultiValueMap<String, Object> getAttributes(AnnotatedTypeMetadata metadata,
@@ -81,15 +154,19 @@ class OnClassCondition extends SpringBootCondition {
 		return metadata.getAllAnnotationAttributes(annotationType.getName(), true);
 	}
 
-	private List<String> getMatchingClasses(MultiValueMap<String, Object> attributes,
+	private List<String> getCandidates(MultiValueMap<String, Object> attributes) {
+		List<String> candidates = new ArrayList<String>();
+		addAll(candidates, attributes.get("value"));
+		addAll(candidates, attributes.get("name"));
+		return candidates;
+	}
+
+	private List<String> getMatchingClasses(List<String> candidates,
 			MatchType matchType, ConditionContext context) {
-		List<String> matches = new LinkedList<String>();
-		addAll(matches, attributes.get("value"));
-		addAll(matches, attributes.get("name"));
-		Iterator<String> iterator = matches.iterator();
-		while (iterator.hasNext()) {
-			if (!matchType.matches(iterator.next(), context)) {
-				iterator.remove();
+		List<String> matches = new ArrayList<String>(candidates.size());
+		for (String candidate : candidates) {
+			if (matchType.matches(candidate, context)) {
+				matches.add(candidate);
 			}
 		}
 		return matches;
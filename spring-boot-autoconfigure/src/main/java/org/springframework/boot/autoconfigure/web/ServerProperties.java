@@ -27,10 +27,13 @@ import org.apache.catalina.valves.AccessLogValve;
 import org.apache.catalina.valves.RemoteIpValve;
 import org.apache.coyote.AbstractProtocol;
 import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.context.embedded.Compression;
 import org.springframework.boot.context.embedded.ConfigurableEmbeddedServletContainer;
+import org.springframework.boot.context.embedded.ConnectorSettings;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizer;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizerBeanPostProcessor;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory;
+import org.springframework.boot.context.embedded.StaticResourceSettings;
 import org.springframework.boot.context.embedded.tomcat.TomcatConnectorCustomizer;
 import org.springframework.boot.context.embedded.tomcat.TomcatContextCustomizer;
 import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
@@ -61,10 +64,28 @@ public class ServerProperties implements EmbeddedServletContainerCustomizer {
 
 	private final Tomcat tomcat = new Tomcat();
 
+	private final Compression compression = new Compression();
+
+	private final ConnectorSettings connector = new ConnectorSettings();
+
+	private final StaticResourceSettings staticResources = new StaticResourceSettings();
+
 	public Tomcat getTomcat() {
 		return this.tomcat;
 	}
 
+	public Compression getCompression() {
+		return this.compression;
+	}
+
+	public ConnectorSettings getConnector() {
+		return this.connector;
+	}
+
+	public StaticResourceSettings getStaticResources() {
+		return this.staticResources;
+	}
+
 	public String getContextPath() {
 		return this.contextPath;
 	}
@@ -123,6 +144,13 @@ public class ServerProperties implements EmbeddedServletContainerCustomizer {
 		if (getSessionTimeout() != null) {
 			container.setSessionTimeout(getSessionTimeout());
 		}
+		if (getCompression().isEnabled()) {
+			container.setCompression(getCompression());
+		}
+		container.setConnectorSettings(getConnector());
+		if (getStaticResources().isEnabled()) {
+			container.setStaticResourceSettings(getStaticResources());
+		}
 		if (container instanceof TomcatEmbeddedServletContainerFactory) {
 			getTomcat()
 					.customizeTomcat((TomcatEmbeddedServletContainerFactory) container);
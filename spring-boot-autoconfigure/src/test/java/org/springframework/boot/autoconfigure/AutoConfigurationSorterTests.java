@@ -16,9 +16,13 @@
 
 package org.springframework.boot.autoconfigure;
 
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
 
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
@@ -30,13 +34,18 @@ import org.junit.rules.ExpectedException;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
 
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 /**
  * Tests for {@link AutoConfigurationSorter}.
  * 
  * @author Phillip Webb
+ * @author Dave Syer
  */
 public class AutoConfigurationSorterTests {
 
@@ -115,6 +124,101 @@ public class AutoConfigurationSorterTests {
 		this.sorter.getInPriorityOrder(Arrays.asList(A, B, C, D));
 	}
 
+	@Test
+	public void byAutoConfigureAfterWithMetadata() throws Exception {
+		// The meta-data reverses the annotations on the classes
+		Properties properties = new Properties();
+		properties.setProperty(A, "");
+		properties.setProperty(B, "");
+		properties.setProperty(B + ".AutoConfigureAfter", A);
+		properties.setProperty(C, "");
+		properties.setProperty(C + ".AutoConfigureAfter", B);
+		this.sorter = new AutoConfigurationSorter(new DefaultResourceLoader(),
+				AutoConfigurationMetadataLoader.loadMetadata(properties));
+		List<String> actual = this.sorter.getInPriorityOrder(Arrays.asList(A, B, C));
+		assertThat(actual, nameMatcher(A, B, C));
+	}
+
+	@Test
+	public void byOrderWithMetadata() throws Exception {
+		Properties properties = new Properties();
+		properties.setProperty(LOWEST, "");
+		properties.setProperty(LOWEST + ".Order", "-1");
+		properties.setProperty(HIGHEST, "");
+		this.sorter = new AutoConfigurationSorter(new DefaultResourceLoader(),
+				AutoConfigurationMetadataLoader.loadMetadata(properties));
+		List<String> actual = this.sorter.getInPriorityOrder(Arrays.asList(HIGHEST,
+				LOWEST));
+		assertThat(actual, nameMatcher(LOWEST, HIGHEST));
+	}
+
+	@Test
+	public void byAutoConfigureAfterWithPartialMetadata() throws Exception {
+		// Classes without meta-data are still read from the bytecode
+		Properties properties = new Properties();
+		properties.setProperty(C, "");
+		properties.setProperty(C + ".AutoConfigureAfter", X);
+		this.sorter = new AutoConfigurationSorter(new DefaultResourceLoader(),
+				AutoConfigurationMetadataLoader.loadMetadata(properties));
+		List<String> actual = this.sorter.getInPriorityOrder(Arrays.asList(C, X, Y));
+		assertThat(actual, nameMatcher(Y, X, C));
+	}
+
+	@Test
+	public void sortOrderIsCachedPerClassLoader() throws Exception {
+		AutoConfigurationMetadata metadata = AutoConfigurationMetadataLoader
+				.loadMetadata(new Properties());
+		CountingResourceLoader resourceLoader = new CountingResourceLoader();
+		List<String> actual = new AutoConfigurationSorter(resourceLoader, metadata)
+				.getInPriorityOrder(Arrays.asList(A, B, C));
+		assertThat(actual, nameMatcher(C, B, A));
+		int count = resourceLoader.count;
+		assertThat(count, greaterThan(0));
+		System.gc();
+		actual = new AutoConfigurationSorter(resourceLoader, metadata)
+				.getInPriorityOrder(Arrays.asList(A, B, C));
+		assertThat(actual, nameMatcher(C, B, A));
+		assertThat(resourceLoader.count, equalTo(count));
+		// A different set of classes is sorted again
+		actual = new AutoConfigurationSorter(resourceLoader, metadata)
+				.getInPriorityOrder(Arrays.asList(A, B));
+		assertThat(actual, nameMatcher(B, A));
+		assertThat(resourceLoader.count, greaterThan(count));
+	}
+
+	@Test
+	public void metadataIsCachedPerClassLoader() throws Exception {
+		ClassLoader classLoader = new URLClassLoader(new URL[0], getClass()
+				.getClassLoader());
+		AutoConfigurationMetadata metadata = AutoConfigurationMetadataLoader
+				.loadMetadata(classLoader);
+		System.gc();
+		assertThat(AutoConfigurationMetadataLoader.loadMetadata(classLoader),
+				sameInstance(metadata));
+	}
+
+	@Test
+	public void manyClassesWithLongChain() throws Exception {
+		// Each class must come after the next, so the input order is reversed
+		Properties properties = new Properties();
+		List<String> classNames = new ArrayList<String>();
+		for (int i = 0; i < 1000; i++) {
+			String className = String.format("com.example.AutoConfiguration%04d", i);
+			properties.setProperty(className, "");
+			if (i < 999) {
+				properties.setProperty(className + ".AutoConfigureAfter",
+						String.format("com.example.AutoConfiguration%04d", i + 1));
+			}
+			classNames.add(className);
+		}
+		this.sorter = new AutoConfigurationSorter(new DefaultResourceLoader(),
+				AutoConfigurationMetadataLoader.loadMetadata(properties));
+		List<String> actual = this.sorter.getInPriorityOrder(classNames);
+		List<String> expected = new ArrayList<String>(classNames);
+		Collections.reverse(expected);
+		assertThat(actual, equalTo(expected));
+	}
+
 	private Matcher<? super List<String>> nameMatcher(String... names) {
 
 		final List<String> list = Arrays.asList(names);
@@ -148,6 +252,18 @@ public class AutoConfigurationSorterTests {
 
 	}
 
+	private static class CountingResourceLoader extends DefaultResourceLoader {
+
+		private int count;
+
+		@Override
+		public Resource getResource(String location) {
+			this.count++;
+			return super.getResource(location);
+		}
+
+	}
+
 	@Order(Ordered.LOWEST_PRECEDENCE)
 	public static class OrderLowest {
 	}
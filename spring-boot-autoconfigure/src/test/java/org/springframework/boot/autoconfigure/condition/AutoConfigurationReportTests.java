@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hamcrest.Matcher;
 import org.junit.Before;
@@ -200,6 +201,34 @@ public class AutoConfigurationReportTests {
 		assertThat(getNumberOfOutcomes(outcomes), equalTo(2));
 	}
 
+	@Test
+	public void messagesAreOnlyRenderedWhenRecordingPossibleDuplicates() {
+		final AtomicInteger renders = new AtomicInteger();
+		Object part = new Object() {
+			@Override
+			public String toString() {
+				renders.incrementAndGet();
+				return "part";
+			}
+		};
+		this.report.recordConditionEvaluation("a", this.condition1,
+				ConditionOutcome.match(ConditionMessage.of("Message ", part)));
+		this.report.recordConditionEvaluation("a", this.condition1,
+				ConditionOutcome.noMatch(ConditionMessage.of("Message ", part)));
+		ConditionAndOutcomes outcomes = this.report.getConditionAndOutcomesBySource()
+				.get("a");
+		assertThat(outcomes.isFullMatch(), equalTo(false));
+		assertThat(renders.get(), equalTo(0));
+		assertThat(getNumberOfOutcomes(outcomes), equalTo(2));
+		this.report.recordConditionEvaluation("a", this.condition1,
+				ConditionOutcome.match(ConditionMessage.of("Message ", part)));
+		assertThat(renders.get(), equalTo(2));
+		assertThat(getNumberOfOutcomes(outcomes), equalTo(2));
+		assertThat(outcomes.iterator().next().getOutcome().getMessage(),
+				equalTo("Message part"));
+		assertThat(renders.get(), equalTo(2));
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void duplicateOutcomes() {
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.condition;
+
+import java.util.Set;
+
+import org.junit.Test;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.stereotype.Component;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link BeanTypeIndex}.
+ * 
+ * @author Dave Syer
+ */
+public class BeanTypeIndexTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	@Test
+	public void namesForTypeAreCached() {
+		this.beanFactory.registerBeanDefinition("foo", new RootBeanDefinition(Foo.class));
+		Set<String> names = BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class);
+		assertThat(names, contains("foo"));
+		assertThat(BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class),
+				sameInstance(names));
+	}
+
+	@Test
+	public void namesForTypeAreRefreshedWhenBeanDefinitionIsRegistered() {
+		assertThat(BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class),
+				emptyIterable());
+		this.beanFactory.registerBeanDefinition("foo", new RootBeanDefinition(Foo.class));
+		assertThat(BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class),
+				contains("foo"));
+	}
+
+	@Test
+	public void namesForTypeAreRefreshedWhenSingletonIsRegistered() {
+		assertThat(BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class),
+				emptyIterable());
+		this.beanFactory.registerSingleton("foo", new Foo());
+		assertThat(BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class),
+				contains("foo"));
+	}
+
+	@Test
+	public void namesForTypeAreRefreshedWhenBeanDefinitionIsOverridden() {
+		this.beanFactory.registerBeanDefinition("foo", new RootBeanDefinition(Foo.class));
+		assertThat(BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class),
+				contains("foo"));
+		this.beanFactory.registerBeanDefinition("foo", new RootBeanDefinition(Bar.class));
+		assertThat(BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class),
+				emptyIterable());
+	}
+
+	@Test
+	public void namesForTypeAreRefreshedWhenBeanDefinitionIsReplaced() {
+		this.beanFactory.registerBeanDefinition("foo", new RootBeanDefinition(Foo.class));
+		assertThat(BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class),
+				contains("foo"));
+		this.beanFactory.removeBeanDefinition("foo");
+		this.beanFactory.registerBeanDefinition("bar", new RootBeanDefinition(Foo.class));
+		assertThat(BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class),
+				contains("bar"));
+	}
+
+	@Test
+	public void namesForTypeAreRefreshedWhenFactoryBeanIsInstantiated() {
+		this.beanFactory.registerBeanDefinition("foo", new RootBeanDefinition(
+				FooFactoryBean.class));
+		assertThat(BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class),
+				emptyIterable());
+		this.beanFactory.getBean("&foo");
+		assertThat(BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class),
+				contains("foo"));
+	}
+
+	@Test
+	public void namesForTypeAreKeptAfterGarbageCollection() {
+		this.beanFactory.registerBeanDefinition("foo", new RootBeanDefinition(Foo.class));
+		Set<String> names = BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class);
+		System.gc();
+		assertThat(BeanTypeIndex.getNamesForType(this.beanFactory, Foo.class),
+				sameInstance(names));
+	}
+
+	@Test
+	public void namesForAnnotation() {
+		ConfigurableListableBeanFactory beanFactory = this.beanFactory;
+		assertThat(BeanTypeIndex.getNamesForAnnotation(beanFactory, Component.class).length,
+				equalTo(0));
+		this.beanFactory.registerBeanDefinition("foo", new RootBeanDefinition(Foo.class));
+		String[] names = BeanTypeIndex.getNamesForAnnotation(beanFactory,
+				Component.class);
+		assertThat(names, equalTo(new String[] { "foo" }));
+		assertThat(BeanTypeIndex.getNamesForAnnotation(beanFactory, Component.class),
+				sameInstance(names));
+	}
+
+	@Component
+	static class Foo {
+
+	}
+
+	static class Bar {
+
+	}
+
+	static class FooFactoryBean implements FactoryBean<Object> {
+
+		@Override
+		public Object getObject() throws Exception {
+			return new Foo();
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return Foo.class;
+		}
+
+		@Override
+		public boolean isSingleton() {
+			return true;
+		}
+
+	}
+
+}
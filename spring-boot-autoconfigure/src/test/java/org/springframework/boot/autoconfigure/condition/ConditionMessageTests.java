@@ -0,0 +1,73 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.condition;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ConditionMessage}.
+ * 
+ * @author Dave Syer
+ */
+public class ConditionMessageTests {
+
+	@Test
+	public void rendersParts() {
+		ConditionMessage message = ConditionMessage.of("found: ", Arrays.asList("a", "b"),
+				" and ", ConditionMessage.commaDelimited(Arrays.asList("c", "d")));
+		assertThat(message.toString(), equalTo("found: [a, b] and c,d"));
+		assertThat(message.toString(), sameInstance(message.toString()));
+	}
+
+	@Test
+	public void appendToEmpty() {
+		ConditionMessage message = ConditionMessage.empty().append("one");
+		assertThat(message.toString(), equalTo("one"));
+		assertThat(ConditionMessage.empty().isEmpty(), equalTo(true));
+		assertThat(message.isEmpty(), equalTo(false));
+	}
+
+	@Test
+	public void appendAddsSpace() {
+		ConditionMessage message = ConditionMessage.of("one").append("two", 3);
+		assertThat(message.toString(), equalTo("one two3"));
+	}
+
+	@Test
+	public void equalityIsBasedOnRenderedMessage() {
+		assertThat(ConditionMessage.of("a", "b"), equalTo(ConditionMessage.of("ab")));
+		assertThat(ConditionMessage.of("a", "b").hashCode(),
+				equalTo(ConditionMessage.of("ab").hashCode()));
+		assertThat(ConditionMessage.of("a"), not(equalTo(ConditionMessage.of("b"))));
+	}
+
+	@Test
+	public void outcomeRendersMessage() {
+		ConditionOutcome outcome = ConditionOutcome.noMatch(ConditionMessage.of("a", 1));
+		assertThat(outcome.getMessage(), equalTo("a1"));
+		assertThat(outcome, equalTo(ConditionOutcome.noMatch("a1")));
+		assertThat(ConditionOutcome.match().getMessage(), equalTo(null));
+	}
+
+}
@@ -16,16 +16,24 @@
 
 package org.springframework.boot.autoconfigure.condition;
 
+import java.util.Collections;
+
 import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.ImportResource;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 
 /**
  * Tests for {@link ConditionalOnClass}.
@@ -68,6 +76,32 @@ public class ConditionalOnClassTests {
 		assertEquals("bar", this.context.getBean("bar"));
 	}
 
+	@Test
+	public void testAutoConfigurationImportFilter() {
+		String present = "com.example.PresentAutoConfiguration";
+		String missing = "com.example.MissingAutoConfiguration";
+		String unknown = "com.example.UnknownAutoConfiguration";
+		AutoConfigurationMetadata metadata = mock(AutoConfigurationMetadata.class);
+		given(metadata.getSet(present, "ConditionalOnClass")).willReturn(
+				Collections.singleton(ConditionalOnClassTests.class.getName()));
+		given(metadata.getSet(missing, "ConditionalOnClass")).willReturn(
+				Collections.singleton("com.example.DoesNotExist"));
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		OnClassCondition condition = new OnClassCondition();
+		condition.setBeanFactory(beanFactory);
+		condition.setBeanClassLoader(getClass().getClassLoader());
+		boolean[] match = condition.match(new String[] { present, missing, unknown },
+				metadata);
+		assertTrue(match[0]);
+		assertFalse(match[1]);
+		assertTrue(match[2]);
+		ConditionEvaluationReport report = ConditionEvaluationReport.get(beanFactory);
+		assertEquals(1, report.getConditionAndOutcomesBySource().size());
+		assertThat(report.getConditionAndOutcomesBySource().get(missing).iterator()
+				.next().getOutcome().getMessage(),
+				containsString("com.example.DoesNotExist"));
+	}
+
 	@Configuration
 	@ConditionalOnClass(ConditionalOnClassTests.class)
 	protected static class BasicConfiguration {
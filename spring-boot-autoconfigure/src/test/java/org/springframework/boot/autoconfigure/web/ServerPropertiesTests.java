@@ -25,9 +25,14 @@ import org.junit.Test;
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.boot.bind.RelaxedDataBinder;
 import org.springframework.boot.context.embedded.ConfigurableEmbeddedServletContainer;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.core.convert.support.DefaultConversionService;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -97,4 +102,49 @@ public class ServerPropertiesTests {
 		assertEquals("US-ASCII", this.properties.getTomcat().getUriEncoding());
 	}
 
+	@Test
+	public void testCustomizeCompression() throws Exception {
+		Map<String, String> map = new HashMap<String, String>();
+		map.put("server.compression.enabled", "true");
+		map.put("server.compression.min-response-size", "1024");
+		map.put("server.compression.mime-types", "text/plain,application/json");
+		RelaxedDataBinder binder = new RelaxedDataBinder(this.properties, "server");
+		binder.setConversionService(new DefaultConversionService());
+		binder.bind(new MutablePropertyValues(map));
+		TomcatEmbeddedServletContainerFactory factory = new TomcatEmbeddedServletContainerFactory();
+		this.properties.customize(factory);
+		assertTrue(factory.getCompression().isEnabled());
+		assertEquals(1024, factory.getCompression().getMinResponseSize());
+		assertArrayEquals(new String[] { "text/plain", "application/json" }, factory
+				.getCompression().getMimeTypes());
+	}
+
+	@Test
+	public void testCustomizeConnectorSettings() throws Exception {
+		Map<String, String> map = new HashMap<String, String>();
+		map.put("server.connector.max-threads", "50");
+		map.put("server.connector.accept-backlog", "20");
+		new RelaxedDataBinder(this.properties, "server").bind(new MutablePropertyValues(
+				map));
+		TomcatEmbeddedServletContainerFactory factory = new TomcatEmbeddedServletContainerFactory();
+		this.properties.customize(factory);
+		assertEquals(Integer.valueOf(50), factory.getConnectorSettings().getMaxThreads());
+		assertEquals(Integer.valueOf(20), factory.getConnectorSettings()
+				.getAcceptBacklog());
+		assertNull(factory.getConnectorSettings().getMinThreads());
+	}
+
+	@Test
+	public void testCustomizeStaticResources() throws Exception {
+		Map<String, String> map = new HashMap<String, String>();
+		map.put("server.static-resources.enabled", "true");
+		map.put("server.static-resources.max-cached-files", "100");
+		new RelaxedDataBinder(this.properties, "server").bind(new MutablePropertyValues(
+				map));
+		TomcatEmbeddedServletContainerFactory factory = new TomcatEmbeddedServletContainerFactory();
+		this.properties.customize(factory);
+		assertTrue(factory.getStaticResourceSettings().isEnabled());
+		assertEquals(100, factory.getStaticResourceSettings().getMaxCachedFiles());
+	}
+
 }
@@ -75,7 +75,7 @@ public class UnsecureManagementSampleActuatorApplicationTests {
 		assertEquals(HttpStatus.OK, entity.getStatusCode());
 		@SuppressWarnings("unchecked")
 		Map<String, Object> body = entity.getBody();
-		assertTrue("Wrong body: " + body, body.containsKey("counter.status.401.root"));
+		assertTrue("Wrong body: " + body, body.containsKey("counter.status.401.unmapped"));
 	}
 
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigureprocessor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes the auto-configuration metadata of each
+ * {@code @Configuration} class it compiles to
+ * {@code META-INF/spring-autoconfigure-metadata.properties}. The metadata (the classes
+ * required by {@code @ConditionalOnClass}, the {@code @Order} and the
+ * {@code @AutoConfigureBefore} and {@code @AutoConfigureAfter} constraints) can then be
+ * used at runtime to discard and sort auto-configuration candidates without loading
+ * them or reading their bytecode.
+ *
+ * @author Dave Syer
+ */
+public class AutoConfigureAnnotationProcessor extends AbstractProcessor {
+
+	protected static final String PROPERTIES_PATH = "META-INF/spring-autoconfigure-metadata.properties";
+
+	private final Map<String, String> annotations;
+
+	private final Properties properties = new Properties();
+
+	public AutoConfigureAnnotationProcessor() {
+		Map<String, String> annotations = new LinkedHashMap<String, String>();
+		addAnnotations(annotations);
+		this.annotations = Collections.unmodifiableMap(annotations);
+	}
+
+	/**
+	 * Returns the name of the annotation that marks the classes to process.
+	 * @return the configuration annotation name
+	 */
+	protected String getConfigurationAnnotation() {
+		return "org.springframework.context.annotation.Configuration";
+	}
+
+	/**
+	 * Add the annotations to record, keyed by the name used in the properties.
+	 * @param annotations the annotations to add to
+	 */
+	protected void addAnnotations(Map<String, String> annotations) {
+		annotations.put("ConditionalOnClass",
+				"org.springframework.boot.autoconfigure.condition.ConditionalOnClass");
+		annotations.put("AutoConfigureBefore",
+				"org.springframework.boot.autoconfigure.AutoConfigureBefore");
+		annotations.put("AutoConfigureAfter",
+				"org.springframework.boot.autoconfigure.AutoConfigureAfter");
+		annotations.put("Order", "org.springframework.core.annotation.Order");
+	}
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(getConfigurationAnnotation());
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations,
+			RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() == ElementKind.CLASS) {
+					processElement((TypeElement) element);
+				}
+			}
+		}
+		if (roundEnv.processingOver() && !this.properties.isEmpty()) {
+			try {
+				writeProperties();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to write metadata", ex);
+			}
+		}
+		return false;
+	}
+
+	private void processElement(TypeElement element) {
+		String className = this.processingEnv.getElementUtils().getBinaryName(element)
+				.toString();
+		this.properties.put(className, "");
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			String key = getKey(annotation);
+			if (key != null) {
+				List<Object> values = getValues(annotation);
+				if (!values.isEmpty()) {
+					this.properties.put(className + "." + key, toCommaDelimitedString(values));
+				}
+			}
+		}
+	}
+
+	private String getKey(AnnotationMirror annotation) {
+		String name = ((TypeElement) annotation.getAnnotationType().asElement())
+				.getQualifiedName().toString();
+		for (Map.Entry<String, String> entry : this.annotations.entrySet()) {
+			if (entry.getValue().equals(name)) {
+				return entry.getKey();
+			}
+		}
+		return null;
+	}
+
+	private List<Object> getValues(AnnotationMirror annotation) {
+		List<Object> result = new ArrayList<Object>();
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation
+				.getElementValues().entrySet()) {
+			String attributeName = entry.getKey().getSimpleName().toString();
+			if ("name".equals(attributeName) || "value".equals(attributeName)) {
+				addValue(result, entry.getValue().getValue());
+			}
+		}
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void addValue(List<Object> result, Object value) {
+		if (value instanceof List) {
+			for (AnnotationValue item : (List<AnnotationValue>) value) {
+				addValue(result, item.getValue());
+			}
+		}
+		else if (value instanceof DeclaredType) {
+			TypeElement type = (TypeElement) ((DeclaredType) value).asElement();
+			result.add(this.processingEnv.getElementUtils().getBinaryName(type));
+		}
+		else {
+			result.add(value);
+		}
+	}
+
+	private String toCommaDelimitedString(List<Object> values) {
+		StringBuilder result = new StringBuilder();
+		for (Object value : values) {
+			result.append(result.length() == 0 ? "" : ",");
+			result.append(value);
+		}
+		return result.toString();
+	}
+
+	private void writeProperties() throws IOException {
+		FileObject file = this.processingEnv.getFiler().createResource(
+				StandardLocation.CLASS_OUTPUT, "", PROPERTIES_PATH);
+		OutputStream outputStream = file.openOutputStream();
+		try {
+			this.properties.store(outputStream, null);
+		}
+		finally {
+			outputStream.close();
+		}
+	}
+
+}
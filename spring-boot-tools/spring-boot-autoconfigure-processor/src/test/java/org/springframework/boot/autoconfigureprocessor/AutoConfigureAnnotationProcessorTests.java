@@ -0,0 +1,132 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigureprocessor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link AutoConfigureAnnotationProcessor}.
+ *
+ * @author Dave Syer
+ */
+public class AutoConfigureAnnotationProcessorTests {
+
+	private static final String SOURCE_DIRECTORY = "src/test/java/"
+			+ AutoConfigureAnnotationProcessorTests.class.getPackage().getName()
+					.replace('.', '/');
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Properties properties;
+
+	@Before
+	public void compile() throws Exception {
+		File outputLocation = this.temporaryFolder.newFolder();
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(null,
+				null, null);
+		fileManager.setLocation(StandardLocation.CLASS_OUTPUT,
+				Collections.singleton(outputLocation));
+		Iterable<? extends JavaFileObject> sources = fileManager
+				.getJavaFileObjects(new File(SOURCE_DIRECTORY,
+						"TestClassConfiguration.java"), new File(SOURCE_DIRECTORY,
+						"TestPlainConfiguration.java"));
+		CompilationTask task = compiler.getTask(null, fileManager, null,
+				Arrays.asList("-proc:only", "-classpath",
+						System.getProperty("java.class.path")), null, sources);
+		task.setProcessors(Collections
+				.singleton(new TestAutoConfigureAnnotationProcessor()));
+		assertTrue(task.call());
+		fileManager.close();
+		this.properties = new Properties();
+		InputStream inputStream = new FileInputStream(new File(outputLocation,
+				AutoConfigureAnnotationProcessor.PROPERTIES_PATH));
+		try {
+			this.properties.load(inputStream);
+		}
+		finally {
+			inputStream.close();
+		}
+	}
+
+	@Test
+	public void conditionalOnClass() throws Exception {
+		assertThat(get("TestClassConfiguration.ConditionalOnClass"),
+				equalTo("java.io.InputStream,java.io.OutputStream"));
+	}
+
+	@Test
+	public void autoConfigureBeforeUsesBinaryName() throws Exception {
+		assertThat(get("TestClassConfiguration.AutoConfigureBefore"),
+				equalTo(getClassName("TestClassConfiguration$Nested")));
+	}
+
+	@Test
+	public void autoConfigureAfter() throws Exception {
+		assertThat(get("TestClassConfiguration.AutoConfigureAfter"),
+				equalTo(getClassName("TestPlainConfiguration")));
+	}
+
+	@Test
+	public void order() throws Exception {
+		assertThat(get("TestClassConfiguration.Order"),
+				equalTo(String.valueOf(Integer.MIN_VALUE + 10)));
+	}
+
+	@Test
+	public void configurationWithoutAnnotations() throws Exception {
+		assertThat(get("TestPlainConfiguration"), equalTo(""));
+		assertThat(get("TestPlainConfiguration.ConditionalOnClass"), nullValue());
+	}
+
+	@Test
+	public void nestedConfiguration() throws Exception {
+		assertThat(get("TestClassConfiguration$Nested"), equalTo(""));
+	}
+
+	private String get(String key) {
+		return this.properties.getProperty(getClassName(key));
+	}
+
+	private String getClassName(String name) {
+		return getClass().getPackage().getName() + "." + name;
+	}
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigureprocessor;
+
+import java.util.Map;
+
+/**
+ * Version of {@link AutoConfigureAnnotationProcessor} used for testing.
+ *
+ * @author Dave Syer
+ */
+public class TestAutoConfigureAnnotationProcessor extends AutoConfigureAnnotationProcessor {
+
+	private static final String PACKAGE = TestAutoConfigureAnnotationProcessor.class
+			.getPackage().getName();
+
+	@Override
+	protected String getConfigurationAnnotation() {
+		return PACKAGE + ".TestConfiguration";
+	}
+
+	@Override
+	protected void addAnnotations(Map<String, String> annotations) {
+		annotations.put("ConditionalOnClass", PACKAGE + ".TestConditionalOnClass");
+		annotations.put("AutoConfigureBefore", PACKAGE + ".TestAutoConfigureBefore");
+		annotations.put("AutoConfigureAfter", PACKAGE + ".TestAutoConfigureAfter");
+		annotations.put("Order", PACKAGE + ".TestOrder");
+	}
+
+}
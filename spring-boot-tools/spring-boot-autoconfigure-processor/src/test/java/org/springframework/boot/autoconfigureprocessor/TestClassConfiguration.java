@@ -0,0 +1,36 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigureprocessor;
+
+/**
+ * Test configuration with auto-configuration annotations.
+ *
+ * @author Dave Syer
+ */
+@TestConfiguration
+@TestConditionalOnClass(value = java.io.InputStream.class, name = "java.io.OutputStream")
+@TestAutoConfigureBefore(TestClassConfiguration.Nested.class)
+@TestAutoConfigureAfter(TestPlainConfiguration.class)
+@TestOrder(Integer.MIN_VALUE + 10)
+public class TestClassConfiguration {
+
+	@TestConfiguration
+	public static class Nested {
+
+	}
+
+}
@@ -26,6 +26,7 @@ import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
 import java.net.URL;
 import java.util.Arrays;
 import java.util.Enumeration;
@@ -38,6 +39,7 @@ import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
 import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Writes JAR content, ensuring valid directory entries are always create and duplicate
@@ -50,12 +52,16 @@ public class JarWriter {
 
 	private static final String NESTED_LOADER_JAR = "META-INF/loader/spring-boot-loader.jar";
 
+	private static final String NESTED_JAR_INDEX = "META-INF/spring-boot.idx";
+
 	private static final int BUFFER_SIZE = 4096;
 
 	private final JarOutputStream jarOutput;
 
 	private final Set<String> writtenEntries = new HashSet<String>();
 
+	private final NestedLibraryIndex index = new NestedLibraryIndex();
+
 	/**
 	 * Create a new {@link JarWriter} instance.
 	 * @param file the file to write
@@ -127,8 +133,24 @@ public class JarWriter {
 	 */
 	public void writeNestedLibrary(String destination, File file) throws IOException {
 		JarEntry entry = new JarEntry(destination + file.getName());
+		if (this.writtenEntries.contains(entry.getName())) {
+			return;
+		}
 		new CrcAndSize(file).setupStoredEntry(entry);
 		writeEntry(entry, new InputStreamEntryWriter(new FileInputStream(file), true));
+		this.index.add(entry, file);
+	}
+
+	/**
+	 * Write an index of the nested libraries that have been written so far, so that the
+	 * loader does not have to read their contents until they are needed. Has no effect
+	 * if no nested libraries have been written.
+	 * @throws IOException if the write fails
+	 */
+	public void writeNestedLibraryIndex() throws IOException {
+		if (!this.index.isEmpty()) {
+			writeEntry(NESTED_JAR_INDEX, new ByteArrayInputStream(this.index.toBytes()));
+		}
 	}
 
 	/**
@@ -276,6 +298,44 @@ public class JarWriter {
 		}
 	}
 
+	/**
+	 * Index of nested libraries in the format expected by the loader's
+	 * {@code NestedJarIndex}: a version header, a blank line, then for each library a
+	 * tab separated line with its name, CRC and size followed by the names of its
+	 * entries, one per line, and a blank line.
+	 */
+	private static class NestedLibraryIndex {
+
+		private static final String VERSION_HEADER = "Spring-Boot-Index-Version: 1.0";
+
+		private final StringBuilder content = new StringBuilder();
+
+		public void add(JarEntry entry, File file) throws IOException {
+			this.content.append(entry.getName()).append('\t').append(entry.getCrc())
+					.append('\t').append(entry.getSize()).append('\n');
+			ZipFile zipFile = new ZipFile(file);
+			try {
+				Enumeration<? extends ZipEntry> entries = zipFile.entries();
+				while (entries.hasMoreElements()) {
+					this.content.append(entries.nextElement().getName()).append('\n');
+				}
+			}
+			finally {
+				zipFile.close();
+			}
+			this.content.append('\n');
+		}
+
+		public boolean isEmpty() {
+			return this.content.length() == 0;
+		}
+
+		public byte[] toBytes() throws UnsupportedEncodingException {
+			return (VERSION_HEADER + "\n\n" + this.content).getBytes("UTF-8");
+		}
+
+	}
+
 	/**
 	 * Data holder for CRC and Size
 	 */
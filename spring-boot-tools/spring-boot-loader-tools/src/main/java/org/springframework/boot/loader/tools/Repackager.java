@@ -157,6 +157,7 @@ public class Repackager {
 			});
 
 			if (!(this.layout instanceof Layouts.None)) {
+				writer.writeNestedLibraryIndex();
 				writer.writeLoaderClasses();
 			}
 		}
@@ -32,7 +32,9 @@ import org.springframework.boot.loader.tools.sample.ClassWithMainMethod;
 import org.springframework.boot.loader.tools.sample.ClassWithoutMainMethod;
 import org.springframework.util.FileCopyUtils;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Matchers.anyString;
@@ -274,6 +276,36 @@ public class RepackagerTests {
 		assertThat(hasEntry(file, "lib/" + libNonJarFile.getName()), equalTo(false));
 	}
 
+	@Test
+	public void nestedLibraryIndex() throws Exception {
+		TestJarFile libJar = new TestJarFile(this.temporaryFolder);
+		libJar.addClass("a/b/C.class", ClassWithoutMainMethod.class);
+		final File libJarFile = libJar.getFile();
+		this.testJarFile.addClass("a/b/C.class", ClassWithMainMethod.class);
+		File file = this.testJarFile.getFile();
+		Repackager repackager = new Repackager(file);
+		repackager.repackage(new Libraries() {
+			@Override
+			public void doWithLibraries(LibraryCallback callback) throws IOException {
+				callback.library(libJarFile, LibraryScope.COMPILE);
+			}
+		});
+		JarFile jarFile = new JarFile(file);
+		try {
+			ZipEntry libEntry = jarFile.getEntry("lib/" + libJarFile.getName());
+			String index = new String(FileCopyUtils.copyToByteArray(jarFile
+					.getInputStream(jarFile.getEntry("META-INF/spring-boot.idx"))),
+					"UTF-8");
+			assertThat(index, startsWith("Spring-Boot-Index-Version: 1.0\n\n"));
+			assertThat(index, containsString("lib/" + libJarFile.getName() + "\t"
+					+ libEntry.getCrc() + "\t" + libEntry.getSize() + "\n"));
+			assertThat(index, containsString("\na/b/C.class\n"));
+		}
+		finally {
+			jarFile.close();
+		}
+	}
+
 	@Test
 	public void customLayout() throws Exception {
 		TestJarFile libJar = new TestJarFile(this.temporaryFolder);
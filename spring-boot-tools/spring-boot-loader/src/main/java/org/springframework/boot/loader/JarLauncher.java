@@ -23,7 +23,8 @@ import org.springframework.boot.loader.util.AsciiBytes;
 
 /**
  * {@link Launcher} for JAR based archives. This launcher assumes that dependency jars are
- * included inside a {@code /lib} directory.
+ * included inside a {@code /lib} directory. Set the {@code loader.mapped} System property
+ * to {@code true} to read the archive through memory mapped buffers.
  * 
  * @author Phillip Webb
  */
@@ -20,11 +20,20 @@ import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.security.AccessController;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.Attributes;
+import java.util.jar.Attributes.Name;
+import java.util.jar.Manifest;
 
+import org.springframework.boot.loader.jar.JarEntryData;
 import org.springframework.boot.loader.jar.JarFile;
 
 /**
@@ -35,8 +44,16 @@ import org.springframework.boot.loader.jar.JarFile;
  */
 public class LaunchedURLClassLoader extends URLClassLoader {
 
+	private static final int MAX_ROOT_CLASS_LOADER_MISSES = 4096;
+
 	private final ClassLoader rootClassLoader;
 
+	private final ConcurrentMap<String, Boolean> rootClassLoaderMisses = new ConcurrentHashMap<String, Boolean>();
+
+	private final Object jarFilesMonitor = new Object();
+
+	private volatile JarFile[] jarFiles;
+
 	/**
 	 * Create a new {@link LaunchedURLClassLoader} instance.
 	 * @param urls the URLs from which to load classes and resources
@@ -139,9 +156,10 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 
 	private Class<?> doLoadClass(String name) throws ClassNotFoundException {
 
-		// 1) Try the root class loader
+		// 1) Try the root class loader (unless it is known not to have the class)
 		try {
-			if (this.rootClassLoader != null) {
+			if (this.rootClassLoader != null
+					&& !this.rootClassLoaderMisses.containsKey(name)) {
 				return this.rootClassLoader.loadClass(name);
 			}
 		}
@@ -151,14 +169,33 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 		// 2) Try to find locally
 		try {
 			findPackage(name);
-			Class<?> cls = findClass(name);
-			return cls;
+			Class<?> cls = defineClassFromJarFiles(name);
+			return (cls != null ? cls : findClass(name));
 		}
 		catch (Exception ex) {
 		}
 
 		// 3) Use standard loading
-		return super.loadClass(name, false);
+		try {
+			return super.loadClass(name, false);
+		}
+		catch (ClassNotFoundException ex) {
+			addRootClassLoaderMiss(name);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Remember that the root class loader does not have a class that could not be found
+	 * at all, since the same names tend to be probed repeatedly (e.g. by
+	 * {@code ClassUtils.isPresent}). Classes that are found locally are not remembered,
+	 * as {@link #findLoadedClass(String)} answers for them, and only a limited number of
+	 * names are kept.
+	 */
+	private void addRootClassLoaderMiss(String name) {
+		if (this.rootClassLoaderMisses.size() < MAX_ROOT_CLASS_LOADER_MISSES) {
+			this.rootClassLoaderMisses.put(name, Boolean.TRUE);
+		}
 	}
 
 	private void findPackage(final String name) throws ClassNotFoundException {
@@ -188,18 +225,17 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 				@Override
 				public Object run() throws ClassNotFoundException {
 					String path = name.replace('.', '/').concat(".class");
-					for (URL url : getURLs()) {
+					URL[] urls = getURLs();
+					JarFile[] jarFiles = getJarFiles(urls);
+					for (int i = 0; i < urls.length; i++) {
+						JarFile jarFile = jarFiles[i];
 						try {
-							if (url.getContent() instanceof JarFile) {
-								JarFile jarFile = (JarFile) url.getContent();
-								// Check the jar entry data before needlessly creating the
-								// manifest
-								if (jarFile.getJarEntryData(path) != null
-										&& jarFile.getManifest() != null) {
-									definePackage(packageName, jarFile.getManifest(), url);
-									return null;
-								}
-
+							// Check the jar entry data before needlessly creating the
+							// manifest
+							if (jarFile != null && jarFile.getJarEntryData(path) != null
+									&& jarFile.getManifest() != null) {
+								definePackage(packageName, jarFile.getManifest(), urls[i]);
+								return null;
 							}
 						}
 						catch (IOException ex) {
@@ -210,8 +246,144 @@ public class LaunchedURLClassLoader extends URLClassLoader {
 				}
 			}, AccessController.getContext());
 		}
-		catch (java.security.PrivilegedActionException ex) {
+		catch (PrivilegedActionException ex) {
 			// Ignore
 		}
 	}
+
+	/**
+	 * Define a class directly from the bytes of its entry in the first of our jar files
+	 * that contains it, rather than reading it through a jar URL connection. Returns
+	 * {@code null} (so that {@link #findClass(String)} is used instead) if the search
+	 * reaches a URL that is not a {@link JarFile} or the class is in a signed jar.
+	 * @param name the class name
+	 * @return the defined class or {@code null}
+	 */
+	private Class<?> defineClassFromJarFiles(final String name) throws Exception {
+		try {
+			return AccessController.doPrivileged(
+					new PrivilegedExceptionAction<Class<?>>() {
+						@Override
+						public Class<?> run() throws IOException {
+							String path = name.replace('.', '/').concat(".class");
+							URL[] urls = getURLs();
+							JarFile[] jarFiles = getJarFiles(urls);
+							for (int i = 0; i < urls.length; i++) {
+								JarFile jarFile = jarFiles[i];
+								if (jarFile == null) {
+									return null;
+								}
+								JarEntryData entry = jarFile.getJarEntryData(path);
+								if (entry != null) {
+									if (jarFile.isSigned()) {
+										return null;
+									}
+									definePackageForClass(name, jarFile.getManifest(),
+											urls[i]);
+									byte[] bytes = entry.getBytes();
+									return defineClass(name, bytes, 0, bytes.length,
+											new CodeSource(urls[i], (CodeSigner[]) null));
+								}
+							}
+							return null;
+						}
+					}, AccessController.getContext());
+		}
+		catch (PrivilegedActionException ex) {
+			throw ex.getException();
+		}
+	}
+
+	/**
+	 * Define the package of a class about to be defined from the given URL, or check
+	 * that the URL is allowed to add to it if it is already defined. The same as
+	 * {@link URLClassLoader} does for the classes it defines.
+	 * @param name the class name
+	 * @param manifest the manifest of the jar or {@code null}
+	 * @param url the URL of the jar
+	 */
+	private void definePackageForClass(String name, Manifest manifest, URL url) {
+		int lastDot = name.lastIndexOf('.');
+		if (lastDot == -1) {
+			return;
+		}
+		String packageName = name.substring(0, lastDot);
+		Package pkg = getPackage(packageName);
+		if (pkg == null) {
+			try {
+				if (manifest != null) {
+					definePackage(packageName, manifest, url);
+				}
+				else {
+					definePackage(packageName, null, null, null, null, null, null, null);
+				}
+				return;
+			}
+			catch (IllegalArgumentException ex) {
+				// Defined concurrently, so check it
+				pkg = getPackage(packageName);
+				if (pkg == null) {
+					throw new AssertionError("Package " + packageName + " not found");
+				}
+			}
+		}
+		if (pkg.isSealed()) {
+			if (!pkg.isSealed(url)) {
+				throw new SecurityException("sealing violation: package "
+						+ packageName + " is sealed");
+			}
+		}
+		else if (manifest != null && isSealed(packageName, manifest)) {
+			throw new SecurityException("sealing violation: can't seal package "
+					+ packageName + ": already loaded");
+		}
+	}
+
+	private boolean isSealed(String packageName, Manifest manifest) {
+		String sealed = null;
+		Attributes attributes = manifest.getAttributes(packageName.replace('.', '/')
+				.concat("/"));
+		if (attributes != null) {
+			sealed = attributes.getValue(Name.SEALED);
+		}
+		if (sealed == null) {
+			sealed = manifest.getMainAttributes().getValue(Name.SEALED);
+		}
+		return "true".equalsIgnoreCase(sealed);
+	}
+
+	/**
+	 * Returns the {@link JarFile} behind each of the given URLs (or {@code null} if the
+	 * content of the URL is not a {@link JarFile}). The content is only looked up once
+	 * per URL so that defining a package does not need to open a connection to every
+	 * URL.
+	 * @param urls the URLs of this class loader
+	 * @return the jar files in the same order as the URLs
+	 */
+	private JarFile[] getJarFiles(URL[] urls) {
+		JarFile[] jarFiles = this.jarFiles;
+		if (jarFiles != null && jarFiles.length == urls.length) {
+			return jarFiles;
+		}
+		synchronized (this.jarFilesMonitor) {
+			jarFiles = this.jarFiles;
+			if (jarFiles == null || jarFiles.length != urls.length) {
+				jarFiles = new JarFile[urls.length];
+				for (int i = 0; i < urls.length; i++) {
+					try {
+						Object content = urls[i].getContent();
+						if (content instanceof JarFile) {
+							jarFiles[i] = (JarFile) content;
+						}
+					}
+					catch (IOException ex) {
+						// Ignore
+					}
+				}
+				this.jarFiles = jarFiles;
+			}
+			return jarFiles;
+		}
+	}
+
 }
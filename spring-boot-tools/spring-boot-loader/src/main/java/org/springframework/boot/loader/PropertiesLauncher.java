@@ -42,6 +42,7 @@ import org.springframework.boot.loader.archive.Archive.EntryFilter;
 import org.springframework.boot.loader.archive.ExplodedArchive;
 import org.springframework.boot.loader.archive.FilteredArchive;
 import org.springframework.boot.loader.archive.JarFileArchive;
+import org.springframework.boot.loader.jar.JarFile;
 import org.springframework.boot.loader.util.AsciiBytes;
 import org.springframework.boot.loader.util.SystemPropertyUtils;
 
@@ -123,6 +124,12 @@ public class PropertiesLauncher extends Launcher {
 	 */
 	public static final String SET_SYSTEM_PROPERTIES = "loader.system";
 
+	/**
+	 * Properties key for boolean flag (default false) which if set will cause jar files
+	 * to be read through memory mapped buffers instead of a pool of file handles.
+	 */
+	public static final String MAPPED = JarFile.MAPPED_PROPERTY;
+
 	private static final List<String> DEFAULT_PATHS = Arrays.asList("lib/");
 
 	private static final Pattern WORD_SEPARATOR = Pattern.compile("\\W+");
@@ -143,6 +150,7 @@ public class PropertiesLauncher extends Launcher {
 			this.home = getHomeDirectory();
 			initializeProperties(this.home);
 			initializePaths();
+			initializeDataAccess();
 		}
 		catch (Exception ex) {
 			throw new IllegalStateException(ex);
@@ -307,6 +315,17 @@ public class PropertiesLauncher extends Launcher {
 		this.logger.info("Nested archive paths: " + this.paths);
 	}
 
+	private void initializeDataAccess() {
+		String mapped = SystemPropertyUtils.getProperty(MAPPED);
+		if (mapped == null) {
+			mapped = this.properties.getProperty(MAPPED);
+		}
+		if (mapped != null) {
+			JarFile.setUseMappedData(Boolean.valueOf(SystemPropertyUtils
+					.resolvePlaceholders(mapped)));
+		}
+	}
+
 	private List<String> parsePathsProperty(String commaSeparatedPaths) {
 		List<String> paths = new ArrayList<String>();
 		for (String path : commaSeparatedPaths.split(",")) {
@@ -41,7 +41,7 @@ public class JarFileArchive extends Archive {
 
 	private final JarFile jarFile;
 
-	private final List<Entry> entries;
+	private List<Entry> entries;
 
 	public JarFileArchive(File file) throws IOException {
 		this(new JarFile(file));
@@ -49,11 +49,6 @@ public class JarFileArchive extends Archive {
 
 	public JarFileArchive(JarFile jarFile) {
 		this.jarFile = jarFile;
-		ArrayList<Entry> jarFileEntries = new ArrayList<Entry>();
-		for (JarEntryData data : jarFile) {
-			jarFileEntries.add(new JarFileEntry(data));
-		}
-		this.entries = Collections.unmodifiableList(jarFileEntries);
 	}
 
 	@Override
@@ -78,8 +73,16 @@ public class JarFileArchive extends Archive {
 	}
 
 	@Override
-	public Collection<Entry> getEntries() {
-		return Collections.unmodifiableCollection(this.entries);
+	public synchronized Collection<Entry> getEntries() {
+		if (this.entries == null) {
+			// Only created when needed so that the jar file can defer reading its entries
+			ArrayList<Entry> jarFileEntries = new ArrayList<Entry>();
+			for (JarEntryData data : this.jarFile) {
+				jarFileEntries.add(new JarFileEntry(data));
+			}
+			this.entries = Collections.unmodifiableList(jarFileEntries);
+		}
+		return this.entries;
 	}
 
 	protected Archive getNestedArchive(Entry entry) throws IOException {
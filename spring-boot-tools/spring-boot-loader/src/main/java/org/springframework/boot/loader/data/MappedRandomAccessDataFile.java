@@ -0,0 +1,231 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * {@link RandomAccessDataFile} that maps the whole file into memory once (using
+ * {@link FileChannel#map}) instead of reading it through a pool of
+ * {@link RandomAccessFile}s. Files larger than 2GB are mapped in several chunks.
+ * Subsections are views of the same mapped buffers, so reads never block, need no system
+ * calls once the pages are loaded and copy data straight from the mapped memory.
+ * <p>
+ * The mapped memory is released when the object is garbage collected (there is no
+ * portable way to unmap it earlier), which on some operating systems means that the file
+ * cannot be deleted until then.
+ * 
+ * @author Dave Syer
+ */
+public class MappedRandomAccessDataFile extends RandomAccessDataFile {
+
+	private static final int MAX_CHUNK_SIZE = Integer.MAX_VALUE;
+
+	private final MappedData data;
+
+	/**
+	 * Create a new {@link MappedRandomAccessDataFile} backed by the specified file.
+	 * @param file the underlying file
+	 * @throws IllegalArgumentException if the file is null or does not exist
+	 * @throws IOException if the file cannot be mapped
+	 */
+	public MappedRandomAccessDataFile(File file) throws IOException {
+		this(file, MAX_CHUNK_SIZE);
+	}
+
+	/**
+	 * Create a new {@link MappedRandomAccessDataFile} mapped in chunks of the specified
+	 * size.
+	 * @param file the underlying file
+	 * @param chunkSize the maximum size of each mapped chunk
+	 * @throws IOException if the file cannot be mapped
+	 */
+	MappedRandomAccessDataFile(File file, int chunkSize) throws IOException {
+		super(file, 1);
+		this.data = new MappedData(map(file, chunkSize), chunkSize, 0, file.length());
+	}
+
+	private static ByteBuffer[] map(File file, int chunkSize) throws IOException {
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			long size = channel.size();
+			ByteBuffer[] chunks = new ByteBuffer[(int) ((size + chunkSize - 1) / chunkSize)];
+			for (int i = 0; i < chunks.length; i++) {
+				long position = (long) i * chunkSize;
+				chunks[i] = channel.map(MapMode.READ_ONLY, position,
+						Math.min(chunkSize, size - position));
+			}
+			return chunks;
+		}
+		finally {
+			// The mapping stays valid after the channel is closed
+			randomAccessFile.close();
+		}
+	}
+
+	@Override
+	public InputStream getInputStream(ResourceAccess access) throws IOException {
+		return this.data.getInputStream(access);
+	}
+
+	@Override
+	public RandomAccessData getSubsection(long offset, long length) {
+		return this.data.getSubsection(offset, length);
+	}
+
+	/**
+	 * {@link RandomAccessData} for a section of the mapped chunks.
+	 */
+	private static class MappedData implements RandomAccessData {
+
+		private final ByteBuffer[] chunks;
+
+		private final int chunkSize;
+
+		private final long offset;
+
+		private final long length;
+
+		public MappedData(ByteBuffer[] chunks, int chunkSize, long offset, long length) {
+			this.chunks = chunks;
+			this.chunkSize = chunkSize;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public InputStream getInputStream(ResourceAccess access) {
+			return new MappedInputStream(this);
+		}
+
+		@Override
+		public RandomAccessData getSubsection(long offset, long length) {
+			if (offset < 0 || length < 0 || offset + length > this.length) {
+				throw new IndexOutOfBoundsException();
+			}
+			return new MappedData(this.chunks, this.chunkSize, this.offset + offset,
+					length);
+		}
+
+		@Override
+		public long getSize() {
+			return this.length;
+		}
+
+	}
+
+	/**
+	 * {@link InputStream} over {@link MappedData}. Each stream reads through its own
+	 * duplicate of the shared buffers so no locking is needed.
+	 */
+	private static class MappedInputStream extends InputStream {
+
+		private final MappedData data;
+
+		private long position;
+
+		private int chunkIndex = -1;
+
+		private ByteBuffer chunk;
+
+		public MappedInputStream(MappedData data) {
+			this.data = data;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (this.position >= this.data.length) {
+				return -1;
+			}
+			ByteBuffer chunk = seek();
+			this.position++;
+			return chunk.get() & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b) throws IOException {
+			return read(b, 0, b == null ? 0 : b.length);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (b == null) {
+				throw new NullPointerException("Bytes must not be null");
+			}
+			if (len == 0) {
+				return 0;
+			}
+			int cappedLen = cap(len);
+			if (cappedLen <= 0) {
+				return -1;
+			}
+			int remaining = cappedLen;
+			while (remaining > 0) {
+				ByteBuffer chunk = seek();
+				int count = Math.min(remaining, chunk.remaining());
+				chunk.get(b, off, count);
+				off += count;
+				remaining -= count;
+				this.position += count;
+			}
+			return cappedLen;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			if (n <= 0) {
+				return 0;
+			}
+			long skipped = Math.min(this.data.length - this.position, n);
+			this.position += skipped;
+			return skipped;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return cap(Integer.MAX_VALUE);
+		}
+
+		private int cap(long n) {
+			return (int) Math.min(this.data.length - this.position, n);
+		}
+
+		/**
+		 * Position a buffer at the current stream position and return it.
+		 * @return a buffer with at least one remaining byte
+		 */
+		private ByteBuffer seek() {
+			long absolute = this.data.offset + this.position;
+			int index = (int) (absolute / this.data.chunkSize);
+			if (index != this.chunkIndex) {
+				this.chunk = this.data.chunks[index].duplicate();
+				this.chunkIndex = index;
+			}
+			this.chunk.position((int) (absolute - (long) index * this.data.chunkSize));
+			return this.chunk;
+		}
+
+	}
+
+}
@@ -64,7 +64,7 @@ class Bytes {
 				return false;
 			}
 			offset += read;
-			length = -read;
+			length -= read;
 		}
 		return true;
 	}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.jar;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * A bounded pool of {@link Inflater Inflaters} owned by a root {@link JarFile} and shared
+ * with the jars nested inside it. Reading many compressed entries (for example when
+ * classes are loaded at startup) then does not need a new native inflater for each
+ * entry.
+ * 
+ * @author Dave Syer
+ */
+class InflaterPool {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private static final byte[] EXTRA_BYTE = new byte[] { 0x0 };
+
+	private final BlockingQueue<Inflater> inflaters;
+
+	InflaterPool() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	InflaterPool(int capacity) {
+		this.inflaters = new ArrayBlockingQueue<Inflater>(capacity);
+	}
+
+	/**
+	 * Returns an {@link Inflater} for raw (no wrap) deflated data, either from the pool
+	 * or newly created. It should be given back with {@link #release(Inflater)}.
+	 * @return an inflater
+	 */
+	public Inflater getInflater() {
+		Inflater inflater = this.inflaters.poll();
+		return (inflater == null ? new Inflater(true) : inflater);
+	}
+
+	/**
+	 * Give back an {@link Inflater} obtained from {@link #getInflater()}. If the pool is
+	 * full the inflater is ended.
+	 * @param inflater the inflater
+	 */
+	public void release(Inflater inflater) {
+		inflater.reset();
+		if (!this.inflaters.offer(inflater)) {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Inflate the given raw deflated data in one go.
+	 * @param data the compressed data
+	 * @param size the size of the uncompressed data
+	 * @return the uncompressed data
+	 * @throws IOException if the data cannot be inflated
+	 */
+	public byte[] inflate(byte[] data, int size) throws IOException {
+		Inflater inflater = getInflater();
+		try {
+			byte[] result = new byte[size];
+			int offset = 0;
+			boolean extraByteWritten = false;
+			inflater.setInput(data);
+			while (offset < size) {
+				int inflated = inflater.inflate(result, offset, size - offset);
+				if (inflated == 0) {
+					if (!inflater.needsInput() || extraByteWritten) {
+						break;
+					}
+					// An extra "dummy" byte is required with JDK 6
+					inflater.setInput(EXTRA_BYTE);
+					extraByteWritten = true;
+				}
+				offset += inflated;
+			}
+			if (offset != size) {
+				throw new ZipException("Inflated " + offset + " bytes, expected "
+						+ size);
+			}
+			return result;
+		}
+		catch (DataFormatException ex) {
+			throw new ZipException(ex.getMessage());
+		}
+		finally {
+			release(inflater);
+		}
+	}
+
+	/**
+	 * End all pooled inflaters.
+	 */
+	public void clear() {
+		Inflater inflater = this.inflaters.poll();
+		while (inflater != null) {
+			inflater.end();
+			inflater = this.inflaters.poll();
+		}
+	}
+
+}
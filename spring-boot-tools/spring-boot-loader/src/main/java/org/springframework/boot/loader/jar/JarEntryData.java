@@ -16,6 +16,7 @@
 
 package org.springframework.boot.loader.jar;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.ref.SoftReference;
@@ -35,6 +36,12 @@ public final class JarEntryData {
 
 	private static final long LOCAL_FILE_HEADER_SIZE = 30;
 
+	/**
+	 * Entries up to this (uncompressed) size are read with a single bulk read rather
+	 * than streamed.
+	 */
+	private static final int BULK_READ_SIZE = 64 * 1024;
+
 	private static final AsciiBytes SLASH = new AsciiBytes("/");
 
 	private final JarFile source;
@@ -78,13 +85,32 @@ public final class JarEntryData {
 	}
 
 	InputStream getInputStream() throws IOException {
+		if (getSize() >= 0 && getSize() <= BULK_READ_SIZE) {
+			return new ByteArrayInputStream(getBytes());
+		}
 		InputStream inputStream = getData().getInputStream(ResourceAccess.PER_READ);
 		if (getMethod() == ZipEntry.DEFLATED) {
-			inputStream = new ZipInflaterInputStream(inputStream, getSize());
+			inputStream = new ZipInflaterInputStream(inputStream, getSize(),
+					this.source.getInflaterPool());
 		}
 		return inputStream;
 	}
 
+	/**
+	 * Read the whole (uncompressed) content of the entry. The compressed data is read
+	 * from the underlying {@link RandomAccessData} in one go and then inflated, without
+	 * any stream layering.
+	 * @return the content of the entry
+	 * @throws IOException
+	 */
+	public byte[] getBytes() throws IOException {
+		byte[] bytes = Bytes.get(getData());
+		if (getMethod() == ZipEntry.DEFLATED) {
+			bytes = this.source.getInflaterPool().inflate(bytes, getSize());
+		}
+		return bytes;
+	}
+
 	RandomAccessData getData() throws IOException {
 		if (this.data == null) {
 			// aspectjrt-1.7.4.jar has a different ext bytes length in the
@@ -30,10 +30,12 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.jar.JarInputStream;
 import java.util.jar.Manifest;
 import java.util.zip.ZipEntry;
 
+import org.springframework.boot.loader.data.MappedRandomAccessDataFile;
 import org.springframework.boot.loader.data.RandomAccessData;
 import org.springframework.boot.loader.data.RandomAccessData.ResourceAccess;
 import org.springframework.boot.loader.data.RandomAccessDataFile;
@@ -53,6 +55,8 @@ import org.springframework.boot.loader.util.AsciiBytes;
  * {@link #getNestedJarFile(ZipEntry, JarEntryFilter...) obtained} for embedded JAR files
  * (as long as their entry is not compressed).</li>
  * <li>Entry data can be accessed as {@link RandomAccessData}.</li>
+ * <li>If the archive contains a {@link NestedJarIndex} the central directory of a nested
+ * jar is only read when one of its entries is actually needed.</li>
  * </ul>
  * 
  * @author Phillip Webb
@@ -69,6 +73,15 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 
 	private static final String HANDLERS_PACKAGE = "org.springframework.boot.loader";
 
+	/**
+	 * System property that can be set to {@code true} to read root jar files through
+	 * memory mapped buffers (see {@link MappedRandomAccessDataFile}) rather than a pool of
+	 * {@code RandomAccessFile}s.
+	 */
+	public static final String MAPPED_PROPERTY = "loader.mapped";
+
+	private static Boolean useMappedData;
+
 	private final RandomAccessDataFile rootFile;
 
 	private final RandomAccessData data;
@@ -77,11 +90,23 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 
 	private final long size;
 
+	private final JarEntryFilter[] filters;
+
+	private final InflaterPool inflaterPool;
+
+	private final boolean inflaterPoolOwner;
+
+	private final Set<AsciiBytes> indexedNames;
+
 	private boolean signed;
 
-	private List<JarEntryData> entries;
+	private volatile List<JarEntryData> entries;
+
+	private Map<AsciiBytes, JarEntryData> entriesByName;
 
-	private SoftReference<Map<AsciiBytes, JarEntryData>> entriesByName;
+	private NestedJarIndex index;
+
+	private boolean indexLoaded;
 
 	private JarEntryData manifestEntry;
 
@@ -94,7 +119,7 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 	 * @throws IOException
 	 */
 	public JarFile(File file, JarEntryFilter... filters) throws IOException {
-		this(new RandomAccessDataFile(file), filters);
+		this(openRootFile(file), filters);
 	}
 
 	/**
@@ -104,7 +129,7 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 	 * @throws IOException
 	 */
 	JarFile(RandomAccessDataFile file, JarEntryFilter... filters) throws IOException {
-		this(file, file.getFile().getAbsolutePath(), file, filters);
+		this(file, file.getFile().getAbsolutePath(), file, null, null, filters);
 	}
 
 	/**
@@ -113,45 +138,93 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 	 * @param rootFile the root jar file
 	 * @param name the name of this file
 	 * @param data the underlying data
+	 * @param inflaterPool the inflater pool shared with the root jar file
+	 * @param filters an optional set of jar entry filters
+	 * @throws IOException
+	 */
+	private JarFile(RandomAccessDataFile rootFile, String name, RandomAccessData data,
+			InflaterPool inflaterPool, JarEntryFilter... filters) throws IOException {
+		this(rootFile, name, data, inflaterPool, null, filters);
+	}
+
+	/**
+	 * Private constructor used to create a new {@link JarFile} for a nested jar whose
+	 * entry names are known from a {@link NestedJarIndex}. The entries are only loaded
+	 * when they are needed.
+	 * @param rootFile the root jar file
+	 * @param name the name of this file
+	 * @param data the underlying data
+	 * @param inflaterPool the inflater pool shared with the root jar file or {@code null}
+	 * if this is the root jar file and should create (and own) the pool
+	 * @param indexedNames the names of the entries or {@code null} if they are not known
 	 * @param filters an optional set of jar entry filters
 	 * @throws IOException
 	 */
 	private JarFile(RandomAccessDataFile rootFile, String name, RandomAccessData data,
+			InflaterPool inflaterPool, Set<AsciiBytes> indexedNames,
 			JarEntryFilter... filters) throws IOException {
 		super(rootFile.getFile());
 		this.rootFile = rootFile;
 		this.name = name;
 		this.data = data;
 		this.size = data.getSize();
-		loadJarEntries(filters);
+		this.filters = filters;
+		this.inflaterPool = (inflaterPool == null ? new InflaterPool() : inflaterPool);
+		this.inflaterPoolOwner = (inflaterPool == null);
+		this.indexedNames = indexedNames;
+		if (indexedNames == null) {
+			loadJarEntries();
+		}
+	}
+
+	private List<JarEntryData> getEntries() {
+		List<JarEntryData> entries = this.entries;
+		if (entries == null) {
+			synchronized (this) {
+				if (this.entries == null) {
+					try {
+						loadJarEntries();
+					}
+					catch (IOException ex) {
+						throw new IllegalStateException("Unable to read entries of "
+								+ this.name, ex);
+					}
+				}
+				entries = this.entries;
+			}
+		}
+		return entries;
 	}
 
-	private void loadJarEntries(JarEntryFilter[] filters) throws IOException {
+	private void loadJarEntries() throws IOException {
 		CentralDirectoryEndRecord endRecord = new CentralDirectoryEndRecord(this.data);
 		RandomAccessData centralDirectory = endRecord.getCentralDirectory(this.data);
 		int numberOfRecords = endRecord.getNumberOfRecords();
-		this.entries = new ArrayList<JarEntryData>(numberOfRecords);
+		List<JarEntryData> entries = new ArrayList<JarEntryData>(numberOfRecords);
+		this.entriesByName = new HashMap<AsciiBytes, JarEntryData>(numberOfRecords * 2);
 		InputStream inputStream = centralDirectory.getInputStream(ResourceAccess.ONCE);
 		try {
 			JarEntryData entry = JarEntryData.fromInputStream(this, inputStream);
 			while (entry != null) {
-				addJarEntry(entry, filters);
+				addJarEntry(entries, entry);
 				entry = JarEntryData.fromInputStream(this, inputStream);
 			}
 		}
 		finally {
 			inputStream.close();
 		}
+		this.entries = entries;
 	}
 
-	private void addJarEntry(JarEntryData entry, JarEntryFilter[] filters) {
+	private void addJarEntry(List<JarEntryData> entries, JarEntryData entry) {
 		AsciiBytes name = entry.getName();
-		for (JarEntryFilter filter : filters) {
+		for (JarEntryFilter filter : this.filters) {
 			name = (filter == null || name == null ? name : filter.apply(name, entry));
 		}
 		if (name != null) {
 			entry.setName(name);
-			this.entries.add(entry);
+			entries.add(entry);
+			this.entriesByName.put(name, entry);
 			if (name.startsWith(META_INF)) {
 				processMetaInfEntry(name, entry);
 			}
@@ -171,12 +244,17 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 		return this.rootFile;
 	}
 
+	InflaterPool getInflaterPool() {
+		return this.inflaterPool;
+	}
+
 	RandomAccessData getData() {
 		return this.data;
 	}
 
 	@Override
 	public Manifest getManifest() throws IOException {
+		getEntries();
 		if (this.manifestEntry == null) {
 			return null;
 		}
@@ -213,7 +291,7 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 
 	@Override
 	public Iterator<JarEntryData> iterator() {
-		return this.entries.iterator();
+		return getEntries().iterator();
 	}
 
 	@Override
@@ -231,25 +309,28 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 		if (name == null) {
 			return null;
 		}
-		Map<AsciiBytes, JarEntryData> entriesByName = (this.entriesByName == null ? null
-				: this.entriesByName.get());
-		if (entriesByName == null) {
-			entriesByName = new HashMap<AsciiBytes, JarEntryData>();
-			for (JarEntryData entry : this.entries) {
-				entriesByName.put(entry.getName(), entry);
-			}
-			this.entriesByName = new SoftReference<Map<AsciiBytes, JarEntryData>>(
-					entriesByName);
+		AsciiBytes asciiName = new AsciiBytes(name);
+		AsciiBytes directoryName = (name.endsWith("/") ? null : new AsciiBytes(name
+				+ "/"));
+		if (this.entries == null && !this.indexedNames.contains(asciiName)
+				&& (directoryName == null || !this.indexedNames.contains(directoryName))) {
+			// Not in the index so no need to read the central directory
+			return null;
 		}
-
-		JarEntryData entryData = entriesByName.get(new AsciiBytes(name));
-		if (entryData == null && !name.endsWith("/")) {
-			entryData = entriesByName.get(new AsciiBytes(name + "/"));
+		getEntries();
+		JarEntryData entryData = this.entriesByName.get(asciiName);
+		if (entryData == null && directoryName != null) {
+			entryData = this.entriesByName.get(directoryName);
 		}
 		return entryData;
 	}
 
-	boolean isSigned() {
+	/**
+	 * Return if this jar file is signed.
+	 * @return {@code true} if the jar contains signature files
+	 */
+	public boolean isSigned() {
+		getEntries();
 		return this.signed;
 	}
 
@@ -333,7 +414,7 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 		};
 		return new JarFile(this.rootFile, getName() + "!/"
 				+ sourceEntry.getName().substring(0, sourceName.length() - 1), this.data,
-				filtersToUse);
+				this.inflaterPool, filtersToUse);
 	}
 
 	private JarFile getNestedJarFileFromFileEntry(JarEntryData sourceEntry,
@@ -342,8 +423,39 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 			throw new IllegalStateException("Unable to open nested compressed entry "
 					+ sourceEntry.getName());
 		}
+		Set<AsciiBytes> indexedNames = null;
+		if (filters.length == 0 && this.data == this.rootFile) {
+			NestedJarIndex index = getIndex();
+			indexedNames = (index == null ? null : index.getEntryNames(sourceEntry));
+		}
 		return new JarFile(this.rootFile, getName() + "!/" + sourceEntry.getName(),
-				sourceEntry.getData(), filters);
+				sourceEntry.getData(), this.inflaterPool, indexedNames, filters);
+	}
+
+	/**
+	 * Return the {@link NestedJarIndex} of this file if it has one. Only a root jar file
+	 * can have an index.
+	 * @return the index or {@code null}
+	 * @throws IOException
+	 */
+	public synchronized NestedJarIndex getIndex() throws IOException {
+		if (!this.indexLoaded) {
+			JarEntryData indexEntry = null;
+			if (this.data == this.rootFile) {
+				indexEntry = getJarEntryData(NestedJarIndex.LOCATION);
+			}
+			if (indexEntry != null) {
+				InputStream inputStream = indexEntry.getInputStream();
+				try {
+					this.index = NestedJarIndex.read(inputStream);
+				}
+				finally {
+					inputStream.close();
+				}
+			}
+			this.indexLoaded = true;
+		}
+		return this.index;
 	}
 
 	/**
@@ -354,7 +466,8 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 	 */
 	public synchronized JarFile getFilteredJarFile(JarEntryFilter... filters)
 			throws IOException {
-		return new JarFile(this.rootFile, getName(), this.data, filters);
+		return new JarFile(this.rootFile, getName(), this.data, this.inflaterPool,
+				filters);
 	}
 
 	private JarEntry getContainedEntry(ZipEntry zipEntry) throws IOException {
@@ -378,6 +491,9 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 	@Override
 	public void close() throws IOException {
 		this.rootFile.close();
+		if (this.inflaterPoolOwner) {
+			this.inflaterPool.clear();
+		}
 	}
 
 	@Override
@@ -396,6 +512,26 @@ public class JarFile extends java.util.jar.JarFile implements Iterable<JarEntryD
 		return new URL("jar", "", -1, "file:" + getName() + "!/", handler);
 	}
 
+	/**
+	 * Set whether root jar files opened from now on should be memory mapped. If not set
+	 * the {@link #MAPPED_PROPERTY} system property is used.
+	 * @param useMappedData if jar files should be memory mapped
+	 */
+	public static void setUseMappedData(boolean useMappedData) {
+		JarFile.useMappedData = useMappedData;
+	}
+
+	private static RandomAccessDataFile openRootFile(File file) throws IOException {
+		Boolean mapped = useMappedData;
+		if (mapped == null) {
+			mapped = Boolean.valueOf(System.getProperty(MAPPED_PROPERTY));
+		}
+		if (mapped && file != null && file.exists()) {
+			return new MappedRandomAccessDataFile(file);
+		}
+		return new RandomAccessDataFile(file);
+	}
+
 	/**
 	 * Register a {@literal 'java.protocol.handler.pkgs'} property so that a
 	 * {@link URLStreamHandler} will be located to deal with jar URLs.
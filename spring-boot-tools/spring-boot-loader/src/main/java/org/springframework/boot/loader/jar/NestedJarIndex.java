@@ -0,0 +1,138 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.jar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.loader.util.AsciiBytes;
+
+/**
+ * Index of the nested jars in an archive, as written by the {@code Repackager} in
+ * {@code spring-boot-loader-tools}. Lists the entry names of every nested jar so that a
+ * nested {@link JarFile} does not have to read its central directory until one of its
+ * entries is actually needed, along with the CRC and size of each nested jar so that an
+ * index that no longer matches the archive is ignored.
+ * <p>
+ * The index is a UTF-8 text file with a version header followed by a blank line and one
+ * section per nested jar. Each section starts with a line containing the jar name, CRC
+ * and size separated by tabs, then lists one entry name per line, and ends with a blank
+ * line.
+ * 
+ * @author Dave Syer
+ */
+public final class NestedJarIndex {
+
+	/**
+	 * The location of the index in the archive.
+	 */
+	public static final String LOCATION = "META-INF/spring-boot.idx";
+
+	/**
+	 * The header on the first line of the index.
+	 */
+	public static final String VERSION_HEADER = "Spring-Boot-Index-Version: 1.0";
+
+	private final Map<AsciiBytes, IndexedJar> jars = new HashMap<AsciiBytes, IndexedJar>();
+
+	private NestedJarIndex() {
+	}
+
+	/**
+	 * Returns the names of the entries in the specified nested jar, or {@code null} if
+	 * the jar is not in the index or has changed since the index was written.
+	 * @param nestedJar the entry of the nested jar in the archive
+	 * @return the entry names or {@code null}
+	 */
+	public Set<AsciiBytes> getEntryNames(JarEntryData nestedJar) {
+		IndexedJar jar = this.jars.get(nestedJar.getName());
+		if (jar == null || jar.crc != nestedJar.getCrc()
+				|| jar.size != nestedJar.getSize()) {
+			return null;
+		}
+		return jar.names;
+	}
+
+	/**
+	 * Read an index from the specified stream.
+	 * @param inputStream the stream to read (closed by the caller)
+	 * @return the index or {@code null} if the stream does not contain a supported index
+	 * @throws IOException
+	 */
+	public static NestedJarIndex read(InputStream inputStream) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream,
+				"UTF-8"));
+		if (!VERSION_HEADER.equals(reader.readLine())) {
+			return null;
+		}
+		NestedJarIndex index = new NestedJarIndex();
+		String line = reader.readLine();
+		IndexedJar jar = null;
+		while (line != null) {
+			if (line.length() == 0) {
+				jar = null;
+			}
+			else if (jar == null) {
+				jar = index.addJar(line);
+			}
+			else {
+				jar.names.add(new AsciiBytes(line));
+			}
+			line = reader.readLine();
+		}
+		return index;
+	}
+
+	private IndexedJar addJar(String line) throws IOException {
+		String[] fields = line.split("\t");
+		if (fields.length != 3) {
+			throw new IOException("Invalid nested jar index line '" + line + "'");
+		}
+		IndexedJar jar = new IndexedJar(fields[0], Long.parseLong(fields[1]),
+				Long.parseLong(fields[2]));
+		this.jars.put(new AsciiBytes(jar.name), jar);
+		return jar;
+	}
+
+	/**
+	 * A nested jar in the index.
+	 */
+	private static class IndexedJar {
+
+		private final String name;
+
+		private final long crc;
+
+		private final long size;
+
+		private final Set<AsciiBytes> names = new HashSet<AsciiBytes>();
+
+		public IndexedJar(String name, long crc, long size) {
+			this.name = name;
+			this.crc = crc;
+			this.size = size;
+		}
+
+	}
+
+}
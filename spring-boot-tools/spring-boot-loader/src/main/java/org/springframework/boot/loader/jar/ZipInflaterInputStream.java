@@ -19,23 +19,29 @@ package org.springframework.boot.loader.jar;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 /**
  * {@link InflaterInputStream} that supports the writing of an extra "dummy" byte (which
- * is required with JDK 6) and returns accurate available() results.
+ * is required with JDK 6) and returns accurate available() results. The inflater is taken
+ * from an {@link InflaterPool} and given back when the stream is closed.
  * 
  * @author Phillip Webb
+ * @author Dave Syer
  */
 class ZipInflaterInputStream extends InflaterInputStream {
 
+	private final InflaterPool pool;
+
 	private boolean extraBytesWritten;
 
 	private int available;
 
-	public ZipInflaterInputStream(InputStream inputStream, int size) {
-		super(inputStream, new Inflater(true), getInflaterBufferSize(size));
+	private boolean closed;
+
+	public ZipInflaterInputStream(InputStream inputStream, int size, InflaterPool pool) {
+		super(inputStream, pool.getInflater(), getInflaterBufferSize(size));
+		this.pool = pool;
 		this.available = size;
 	}
 
@@ -72,6 +78,19 @@ class ZipInflaterInputStream extends InflaterInputStream {
 		}
 	}
 
+	@Override
+	public void close() throws IOException {
+		if (!this.closed) {
+			this.closed = true;
+			try {
+				super.close();
+			}
+			finally {
+				this.pool.release(this.inf);
+			}
+		}
+	}
+
 	private static int getInflaterBufferSize(long size) {
 		size += 2; // inflater likes some space
 		size = (size > 65536 ? 8192 : size);
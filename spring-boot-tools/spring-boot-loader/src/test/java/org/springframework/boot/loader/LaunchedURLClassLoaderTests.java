@@ -16,12 +16,34 @@
 
 package org.springframework.boot.loader;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.loader.jar.JarFile;
+import org.springframework.util.FileCopyUtils;
 
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -31,6 +53,9 @@ import static org.junit.Assert.assertTrue;
  */
 public class LaunchedURLClassLoaderTests {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	@Test
 	public void resolveResourceFromWindowsFilesystem() throws Exception {
 		// This path is invalid - it should return null even on Windows.
@@ -76,4 +101,167 @@ public class LaunchedURLClassLoaderTests {
 		assertTrue(loader.getResources("").hasMoreElements());
 	}
 
+	@Test
+	public void loadClassFromArchive() throws Exception {
+		LaunchedURLClassLoader loader = new LaunchedURLClassLoader(new URL[] { new URL(
+				"jar:file:src/test/resources/jars/app.jar!/") }, getClass()
+				.getClassLoader());
+		Class<?> type = loader.loadClass("demo.Application");
+		assertThat(type.getClassLoader(), sameInstance((ClassLoader) loader));
+		assertNotNull(type.getPackage());
+	}
+
+	@Test
+	public void loadClassFromNestedJarFile() throws Exception {
+		byte[] app = FileCopyUtils.copyToByteArray(new File(
+				"src/test/resources/jars/app.jar"));
+		JarFile jarFile = createJarWithNestedJars(app);
+		try {
+			URL url = getNestedJarUrl(jarFile, 0);
+			LaunchedURLClassLoader loader = new LaunchedURLClassLoader(
+					new URL[] { url }, getClass().getClassLoader());
+			Class<?> type = loader.loadClass("demo.Application");
+			assertThat(type.getClassLoader(), sameInstance((ClassLoader) loader));
+			assertThat(type.getProtectionDomain().getCodeSource().getLocation(),
+					equalTo(url));
+			assertNotNull(type.getPackage());
+		}
+		finally {
+			jarFile.close();
+		}
+	}
+
+	@Test
+	public void loadClassFromNestedJarFileWithoutManifest() throws Exception {
+		JarFile jarFile = createJarWithNestedJars(createJar(null, TestJarCreator.class));
+		try {
+			LaunchedURLClassLoader loader = new LaunchedURLClassLoader(
+					new URL[] { getNestedJarUrl(jarFile, 0) }, null);
+			Class<?> type = loader.loadClass(TestJarCreator.class.getName());
+			assertThat(type.getClassLoader(), sameInstance((ClassLoader) loader));
+			assertThat(type.getPackage().getName(),
+					equalTo(TestJarCreator.class.getPackage().getName()));
+		}
+		finally {
+			jarFile.close();
+		}
+	}
+
+	@Test
+	public void loadClassFromOtherJarInSealedPackage() throws Exception {
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		manifest.getMainAttributes().put(Attributes.Name.SEALED, "true");
+		JarFile jarFile = createJarWithNestedJars(
+				createJar(manifest, TestJarCreator.class),
+				createJar(null, LaunchedURLClassLoaderTests.class));
+		try {
+			LaunchedURLClassLoader loader = new LaunchedURLClassLoader(new URL[] {
+					getNestedJarUrl(jarFile, 0), getNestedJarUrl(jarFile, 1) }, null);
+			Class<?> type = loader.loadClass(TestJarCreator.class.getName());
+			assertTrue(type.getPackage().isSealed());
+			try {
+				loader.loadClass(LaunchedURLClassLoaderTests.class.getName());
+				throw new AssertionError("Expected SecurityException");
+			}
+			catch (SecurityException ex) {
+				// Expected
+			}
+		}
+		finally {
+			jarFile.close();
+		}
+	}
+
+	@Test
+	public void loadClassConcurrently() throws Exception {
+		final LaunchedURLClassLoader loader = new LaunchedURLClassLoader(
+				new URL[] { new URL("jar:file:src/test/resources/jars/app.jar!/") },
+				getClass().getClassLoader());
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Class<?>>> results = new ArrayList<Future<Class<?>>>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(new Callable<Class<?>>() {
+					@Override
+					public Class<?> call() throws Exception {
+						return loader.loadClass("demo.Application");
+					}
+				}));
+			}
+			Class<?> type = results.get(0).get();
+			for (Future<Class<?>> result : results) {
+				assertThat(result.get(), sameInstance((Object) type));
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void loadMissingClassAfterRootMiss() throws Exception {
+		LaunchedURLClassLoader loader = new LaunchedURLClassLoader(new URL[] { new URL(
+				"jar:file:src/test/resources/jars/app.jar!/") }, getClass()
+				.getClassLoader());
+		for (int i = 0; i < 2; i++) {
+			try {
+				loader.loadClass("demo.Missing");
+				throw new AssertionError("Expected ClassNotFoundException");
+			}
+			catch (ClassNotFoundException ex) {
+				// Expected
+			}
+		}
+		// A root class loader miss does not stop the class being found locally
+		assertNotNull(loader.loadClass("demo.Application"));
+	}
+
+	private JarFile createJarWithNestedJars(byte[]... nestedJars) throws Exception {
+		File file = this.temporaryFolder.newFile("test.jar");
+		JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file));
+		try {
+			for (int i = 0; i < nestedJars.length; i++) {
+				JarEntry nestedEntry = new JarEntry("lib" + i + ".jar");
+				nestedEntry.setSize(nestedJars[i].length);
+				nestedEntry.setCompressedSize(nestedJars[i].length);
+				CRC32 crc32 = new CRC32();
+				crc32.update(nestedJars[i]);
+				nestedEntry.setCrc(crc32.getValue());
+				nestedEntry.setMethod(ZipEntry.STORED);
+				jarOutputStream.putNextEntry(nestedEntry);
+				jarOutputStream.write(nestedJars[i]);
+				jarOutputStream.closeEntry();
+			}
+		}
+		finally {
+			jarOutputStream.close();
+		}
+		return new JarFile(file);
+	}
+
+	private URL getNestedJarUrl(JarFile jarFile, int index) throws Exception {
+		return jarFile.getNestedJarFile(jarFile.getEntry("lib" + index + ".jar"))
+				.getUrl();
+	}
+
+	private byte[] createJar(Manifest manifest, Class<?>... classes) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		JarOutputStream jarOutputStream = (manifest == null ? new JarOutputStream(bytes)
+				: new JarOutputStream(bytes, manifest));
+		try {
+			for (Class<?> type : classes) {
+				String name = type.getName().replace('.', '/') + ".class";
+				jarOutputStream.putNextEntry(new JarEntry(name));
+				jarOutputStream.write(FileCopyUtils.copyToByteArray(getClass()
+						.getResourceAsStream("/" + name)));
+				jarOutputStream.closeEntry();
+			}
+		}
+		finally {
+			jarOutputStream.close();
+		}
+		return bytes.toByteArray();
+	}
+
 }
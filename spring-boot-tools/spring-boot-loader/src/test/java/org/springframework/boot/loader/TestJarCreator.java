@@ -35,6 +35,10 @@ import java.util.zip.ZipEntry;
 public abstract class TestJarCreator {
 
 	public static void createTestJar(File file) throws Exception {
+		createTestJar(file, false);
+	}
+
+	public static void createTestJar(File file, boolean indexed) throws Exception {
 		FileOutputStream fileOutputStream = new FileOutputStream(file);
 		JarOutputStream jarOutputStream = new JarOutputStream(fileOutputStream);
 		try {
@@ -58,6 +62,15 @@ public abstract class TestJarCreator {
 			jarOutputStream.putNextEntry(nestedEntry);
 			jarOutputStream.write(nestedJarData);
 			jarOutputStream.closeEntry();
+
+			if (indexed) {
+				String index = "Spring-Boot-Index-Version: 1.0\n\nnested.jar\t"
+						+ crc32.getValue() + "\t" + nestedJarData.length
+						+ "\nMETA-INF/\nMETA-INF/MANIFEST.MF\n3.dat\n4.dat\n\u00E4.dat\n\n";
+				jarOutputStream.putNextEntry(new JarEntry("META-INF/spring-boot.idx"));
+				jarOutputStream.write(index.getBytes("UTF-8"));
+				jarOutputStream.closeEntry();
+			}
 		}
 		finally {
 			jarOutputStream.close();
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.data;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.loader.data.RandomAccessData.ResourceAccess;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link MappedRandomAccessDataFile}. Files are mapped in small chunks so that
+ * reads across chunk boundaries are covered.
+ * 
+ * @author Dave Syer
+ */
+public class MappedRandomAccessDataFileTests {
+
+	private static final byte[] BYTES;
+	static {
+		BYTES = new byte[256];
+		for (int i = 0; i < BYTES.length; i++) {
+			BYTES[i] = (byte) i;
+		}
+	}
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File tempFile;
+
+	private MappedRandomAccessDataFile file;
+
+	private InputStream inputStream;
+
+	@Before
+	public void setup() throws Exception {
+		this.tempFile = this.temporaryFolder.newFile();
+		FileOutputStream outputStream = new FileOutputStream(this.tempFile);
+		outputStream.write(BYTES);
+		outputStream.close();
+		this.file = new MappedRandomAccessDataFile(this.tempFile, 7);
+		this.inputStream = this.file.getInputStream(ResourceAccess.PER_READ);
+	}
+
+	@After
+	public void cleanup() throws Exception {
+		this.inputStream.close();
+		this.file.close();
+	}
+
+	@Test
+	public void fileExists() throws Exception {
+		this.thrown.expect(IllegalArgumentException.class);
+		new MappedRandomAccessDataFile(new File("/does/not/exist"));
+	}
+
+	@Test
+	public void emptyFile() throws Exception {
+		MappedRandomAccessDataFile file = new MappedRandomAccessDataFile(
+				this.temporaryFolder.newFile());
+		assertThat(file.getSize(), equalTo(0L));
+		assertThat(file.getInputStream(ResourceAccess.ONCE).read(), equalTo(-1));
+	}
+
+	@Test
+	public void inputStreamRead() throws Exception {
+		for (int i = 0; i <= 255; i++) {
+			assertThat(this.inputStream.read(), equalTo(i));
+		}
+		assertThat(this.inputStream.read(), equalTo(-1));
+	}
+
+	@Test
+	public void inputStreamReadBytes() throws Exception {
+		byte[] b = new byte[256];
+		int amountRead = this.inputStream.read(b);
+		assertThat(b, equalTo(BYTES));
+		assertThat(amountRead, equalTo(256));
+	}
+
+	@Test
+	public void inputSteamReadOffsetBytes() throws Exception {
+		byte[] b = new byte[7];
+		this.inputStream.skip(1);
+		int amountRead = this.inputStream.read(b, 2, 3);
+		assertThat(b, equalTo(new byte[] { 0, 0, 1, 2, 3, 0, 0 }));
+		assertThat(amountRead, equalTo(3));
+	}
+
+	@Test
+	public void inputStreamReadNullBytes() throws Exception {
+		this.thrown.expect(NullPointerException.class);
+		this.thrown.expectMessage("Bytes must not be null");
+		this.inputStream.read(null);
+	}
+
+	@Test
+	public void inputStreamSkipMoreThanAvailable() throws Exception {
+		long amountSkipped = this.inputStream.skip(257);
+		assertThat(this.inputStream.read(), equalTo(-1));
+		assertThat(amountSkipped, equalTo(256L));
+	}
+
+	@Test
+	public void subsectionTooBig() throws Exception {
+		this.file.getSubsection(1, 255);
+		this.thrown.expect(IndexOutOfBoundsException.class);
+		this.file.getSubsection(1, 256);
+	}
+
+	@Test
+	public void nestedSubsection() throws Exception {
+		RandomAccessData subsection = this.file.getSubsection(5, 20).getSubsection(3, 10);
+		InputStream inputStream = subsection.getInputStream(ResourceAccess.PER_READ);
+		byte[] b = new byte[11];
+		assertThat(inputStream.read(b), equalTo(10));
+		assertThat(b, equalTo(new byte[] { 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 0 }));
+		assertThat(inputStream.read(), equalTo(-1));
+	}
+
+	@Test
+	public void concurrentReads() throws Exception {
+		ExecutorService executorService = Executors.newFixedThreadPool(20);
+		List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+		for (int i = 0; i < 100; i++) {
+			results.add(executorService.submit(new Callable<Boolean>() {
+
+				@Override
+				public Boolean call() throws Exception {
+					InputStream subsectionInputStream = MappedRandomAccessDataFileTests.this.file
+							.getSubsection(0, 256)
+							.getInputStream(ResourceAccess.PER_READ);
+					byte[] b = new byte[256];
+					subsectionInputStream.read(b);
+					return Arrays.equals(b, BYTES);
+				}
+			}));
+		}
+		for (Future<Boolean> future : results) {
+			assertThat(future.get(), equalTo(true));
+		}
+		executorService.shutdown();
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.jar;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link InflaterPool}.
+ * 
+ * @author Dave Syer
+ */
+public class InflaterPoolTests {
+
+	private final InflaterPool pool = new InflaterPool(1);
+
+	@Test
+	public void inflaterIsReused() throws Exception {
+		Inflater inflater = this.pool.getInflater();
+		this.pool.release(inflater);
+		assertThat(this.pool.getInflater(), sameInstance(inflater));
+	}
+
+	@Test
+	public void poolIsBounded() throws Exception {
+		Inflater first = this.pool.getInflater();
+		Inflater second = this.pool.getInflater();
+		this.pool.release(first);
+		this.pool.release(second);
+		assertThat(this.pool.getInflater(), sameInstance(first));
+		assertThat(this.pool.getInflater(), not(sameInstance(second)));
+	}
+
+	@Test
+	public void inflate() throws Exception {
+		byte[] content = "Hello World Hello World Hello World".getBytes("UTF-8");
+		byte[] deflated = deflate(content);
+		assertThat(this.pool.inflate(deflated, content.length), equalTo(content));
+		// And again with the pooled inflater
+		assertThat(this.pool.inflate(deflated, content.length), equalTo(content));
+	}
+
+	@Test(expected = ZipException.class)
+	public void inflateWithWrongSize() throws Exception {
+		byte[] content = "Hello World".getBytes("UTF-8");
+		this.pool.inflate(deflate(content), content.length + 1);
+	}
+
+	private byte[] deflate(byte[] content) throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(
+				outputStream, new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+		deflaterOutputStream.write(content);
+		deflaterOutputStream.close();
+		return outputStream.toByteArray();
+	}
+
+}
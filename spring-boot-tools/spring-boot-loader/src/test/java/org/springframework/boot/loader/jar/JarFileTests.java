@@ -16,15 +16,19 @@
 
 package org.springframework.boot.loader.jar;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.Enumeration;
 import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
+import java.util.zip.Inflater;
 import java.util.zip.ZipEntry;
 
 import org.junit.Before;
@@ -33,6 +37,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 import org.springframework.boot.loader.TestJarCreator;
+import org.springframework.boot.loader.data.MappedRandomAccessDataFile;
 import org.springframework.boot.loader.data.RandomAccessDataFile;
 import org.springframework.boot.loader.util.AsciiBytes;
 
@@ -151,6 +156,44 @@ public class JarFileTests {
 		assertThat(inputStream.read(), equalTo(-1));
 	}
 
+	@Test
+	public void getInputStreamForLargeCompressedEntry() throws Exception {
+		byte[] content = new byte[200 * 1024];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) (i % 251);
+		}
+		File file = this.temporaryFolder.newFile();
+		JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file));
+		try {
+			for (int i = 0; i < 3; i++) {
+				jarOutputStream.putNextEntry(new JarEntry("large" + i + ".dat"));
+				jarOutputStream.write(content);
+				jarOutputStream.closeEntry();
+			}
+		}
+		finally {
+			jarOutputStream.close();
+		}
+		JarFile jarFile = new JarFile(file);
+		for (int i = 0; i < 3; i++) {
+			InputStream inputStream = jarFile.getInputStream(jarFile.getEntry("large"
+					+ i + ".dat"));
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			try {
+				byte[] buffer = new byte[4096];
+				int read;
+				while ((read = inputStream.read(buffer)) != -1) {
+					outputStream.write(buffer, 0, read);
+				}
+			}
+			finally {
+				inputStream.close();
+			}
+			assertThat(outputStream.toByteArray(), equalTo(content));
+		}
+		jarFile.close();
+	}
+
 	@Test
 	public void getName() throws Exception {
 		assertThat(this.jarFile.getName(), equalTo(this.rootJarFile.getPath()));
@@ -170,6 +213,18 @@ public class JarFileTests {
 		verify(randomAccessDataFile).close();
 	}
 
+	@Test
+	public void closeNestedJarFileDoesNotClearSharedInflaterPool() throws Exception {
+		JarFile nestedJarFile = this.jarFile.getNestedJarFile(this.jarFile
+				.getEntry("nested.jar"));
+		InflaterPool pool = this.jarFile.getInflaterPool();
+		assertThat(nestedJarFile.getInflaterPool(), sameInstance(pool));
+		Inflater inflater = pool.getInflater();
+		pool.release(inflater);
+		nestedJarFile.close();
+		assertThat(pool.getInflater(), sameInstance(inflater));
+	}
+
 	@Test
 	public void getUrl() throws Exception {
 		URL url = this.jarFile.getUrl();
@@ -252,6 +307,44 @@ public class JarFileTests {
 				+ this.rootJarFile.getPath() + "!/nested.jar"));
 	}
 
+	@Test
+	public void getNestedJarFileFromMappedFile() throws Exception {
+		JarFile jarFile = new JarFile(new MappedRandomAccessDataFile(this.rootJarFile));
+		JarFile nestedJarFile = jarFile.getNestedJarFile(jarFile.getEntry("nested.jar"));
+		assertThat(nestedJarFile.getManifest(), notNullValue());
+		InputStream inputStream = nestedJarFile.getInputStream(nestedJarFile
+				.getEntry("3.dat"));
+		assertThat(inputStream.read(), equalTo(3));
+		assertThat(inputStream.read(), equalTo(-1));
+		inputStream = jarFile.getInputStream(jarFile.getEntry("d/9.dat"));
+		assertThat(inputStream.read(), equalTo(9));
+		assertThat(inputStream.read(), equalTo(-1));
+		jarFile.close();
+	}
+
+	@Test
+	public void getNestedJarFileWithIndex() throws Exception {
+		File indexedJarFile = this.temporaryFolder.newFile();
+		TestJarCreator.createTestJar(indexedJarFile, true);
+		JarFile jarFile = new JarFile(indexedJarFile);
+		assertThat(jarFile.getIndex(), notNullValue());
+		JarFile nestedJarFile = jarFile.getNestedJarFile(jarFile.getEntry("nested.jar"));
+		assertThat(nestedJarFile.getEntry("missing.dat"), nullValue());
+		InputStream inputStream = nestedJarFile.getInputStream(nestedJarFile
+				.getEntry("4.dat"));
+		assertThat(inputStream.read(), equalTo(4));
+		assertThat(nestedJarFile.getManifest().getMainAttributes().getValue("Built-By"),
+				equalTo("j2"));
+		Enumeration<java.util.jar.JarEntry> entries = nestedJarFile.entries();
+		assertThat(entries.nextElement().getName(), equalTo("META-INF/"));
+		jarFile.close();
+	}
+
+	@Test
+	public void getIndexWhenNoIndex() throws Exception {
+		assertThat(this.jarFile.getIndex(), nullValue());
+	}
+
 	@Test
 	public void getNestedJarDirectory() throws Exception {
 		JarFile nestedJarFile = this.jarFile
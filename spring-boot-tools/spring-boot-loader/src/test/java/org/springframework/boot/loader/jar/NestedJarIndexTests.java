@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.loader.jar;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link NestedJarIndex}.
+ * 
+ * @author Dave Syer
+ */
+public class NestedJarIndexTests {
+
+	@Test
+	public void readNestedJars() throws Exception {
+		NestedJarIndex index = read("Spring-Boot-Index-Version: 1.0\n\n"
+				+ "lib/a.jar\t1\t2\nMETA-INF/\na/\na/b/\na/b/C.class\na/D.class\n\n"
+				+ "lib/b.jar\t3\t4\na/b/E.class\na/b/F.txt\nG.class\n\n");
+		assertThat(index, notNullValue());
+	}
+
+	@Test(expected = IOException.class)
+	public void invalidNestedJarLine() throws Exception {
+		read("Spring-Boot-Index-Version: 1.0\n\nlib/a.jar\t1\na/B.class\n\n");
+	}
+
+	@Test
+	public void unsupportedVersion() throws Exception {
+		assertThat(read("Spring-Boot-Index-Version: 2.0\n\n"), nullValue());
+	}
+
+	private NestedJarIndex read(String content) throws Exception {
+		return NestedJarIndex.read(new ByteArrayInputStream(content.getBytes("UTF-8")));
+	}
+
+}
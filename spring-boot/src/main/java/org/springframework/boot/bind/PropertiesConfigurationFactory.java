@@ -17,6 +17,8 @@
 package org.springframework.boot.bind;
 
 import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Properties;
@@ -34,6 +36,7 @@ import org.springframework.context.MessageSourceAware;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.env.PropertySources;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.DataBinder;
@@ -271,7 +274,7 @@ public class PropertiesConfigurationFactory<T> implements FactoryBean<T>,
 
 		PropertyValues propertyValues = (this.properties != null ? new MutablePropertyValues(
 				this.properties) : new PropertySourcesPropertyValues(
-				this.propertySources, patterns, names));
+				this.propertySources, getPrefixes(), patterns, names));
 		dataBinder.bind(propertyValues);
 
 		if (this.validator != null) {
@@ -279,6 +282,18 @@ public class PropertiesConfigurationFactory<T> implements FactoryBean<T>,
 		}
 	}
 
+	private Collection<String> getPrefixes() {
+		// The binder only uses properties under the target name (if there is one)
+		if (!StringUtils.hasLength(this.targetName)) {
+			return null;
+		}
+		Collection<String> prefixes = new ArrayList<String>();
+		for (String prefix : new RelaxedNames(this.targetName + ".")) {
+			prefixes.add(prefix);
+		}
+		return prefixes;
+	}
+
 	private void validate(RelaxedDataBinder dataBinder) throws BindException {
 		dataBinder.validate();
 		BindingResult errors = dataBinder.getBindingResult();
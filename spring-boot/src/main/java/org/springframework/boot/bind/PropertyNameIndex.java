@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.bind;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.springframework.core.env.EnumerablePropertySource;
+
+/**
+ * Sorted index of the property names of an {@link EnumerablePropertySource}, so that
+ * the names under a prefix can be found without scanning every property (the system
+ * environment and system properties in particular). The index for a source is shared
+ * and only rebuilt when the names reported by the source change.
+ * 
+ * @author Dave Syer
+ * @see PropertySourcesPropertyValues
+ */
+final class PropertyNameIndex {
+
+	private static final Map<EnumerablePropertySource<?>, PropertyNameIndex> indexes = Collections
+			.synchronizedMap(new WeakHashMap<EnumerablePropertySource<?>, PropertyNameIndex>());
+
+	private final String[] names;
+
+	private final String[] sortedNames;
+
+	private PropertyNameIndex(String[] names) {
+		this.names = names;
+		this.sortedNames = names.clone();
+		Arrays.sort(this.sortedNames);
+	}
+
+	/**
+	 * Return the names of the properties in the source that start with one of the given
+	 * prefixes.
+	 * @param source the property source
+	 * @param prefixes the prefixes or {@code null} for all the property names
+	 * @return the property names
+	 */
+	public static String[] getPropertyNames(EnumerablePropertySource<?> source,
+			Collection<String> prefixes) {
+		String[] names = source.getPropertyNames();
+		if (prefixes == null) {
+			return names;
+		}
+		PropertyNameIndex index = indexes.get(source);
+		if (index == null || !Arrays.equals(index.names, names)) {
+			index = new PropertyNameIndex(names);
+			indexes.put(source, index);
+		}
+		Set<String> result = new LinkedHashSet<String>();
+		for (String prefix : prefixes) {
+			index.collectNamesStartingWith(prefix, result);
+		}
+		return result.toArray(new String[result.size()]);
+	}
+
+	private void collectNamesStartingWith(String prefix, Set<String> result) {
+		int index = Arrays.binarySearch(this.sortedNames, prefix);
+		if (index < 0) {
+			index = -index - 1;
+		}
+		while (index < this.sortedNames.length
+				&& this.sortedNames[index].startsWith(prefix)) {
+			result.add(this.sortedNames[index]);
+			index++;
+		}
+	}
+
+}
@@ -66,6 +66,23 @@ public class PropertySourcesPropertyValues implements PropertyValues {
 	 */
 	public PropertySourcesPropertyValues(PropertySources propertySources,
 			Collection<String> patterns, Collection<String> names) {
+		this(propertySources, null, patterns, names);
+	}
+
+	/**
+	 * Create a new PropertyValues from the given PropertySources, only including
+	 * properties from enumerable sources whose names start with one of the given
+	 * prefixes.
+	 * @param propertySources a PropertySources instance
+	 * @param prefixes property name prefixes to include from enumerable property sources
+	 * (or {@code null} to include all)
+	 * @param patterns property name patterns to include from system properties and
+	 * environment variables
+	 * @param names exact property names to include
+	 */
+	public PropertySourcesPropertyValues(PropertySources propertySources,
+			Collection<String> prefixes, Collection<String> patterns,
+			Collection<String> names) {
 		this.propertySources = propertySources;
 		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(
 				propertySources);
@@ -75,22 +92,22 @@ public class PropertySourcesPropertyValues implements PropertyValues {
 		for (PropertySource<?> source : propertySources) {
 			if (source instanceof EnumerablePropertySource) {
 				EnumerablePropertySource<?> enumerable = (EnumerablePropertySource<?>) source;
-				if (enumerable.getPropertyNames().length > 0) {
-					for (String propertyName : enumerable.getPropertyNames()) {
-						if (this.NON_ENUMERABLE_ENUMERABLES.contains(source.getName())
-								&& !PatternMatchUtils.simpleMatch(includes, propertyName)) {
-							continue;
-						}
-						Object value = source.getProperty(propertyName);
-						try {
-							value = resolver.getProperty(propertyName);
-						}
-						catch (RuntimeException ex) {
-							// Probably could not resolve placeholders, ignore it here
-						}
-						this.propertyValues.put(propertyName, new PropertyValue(
-								propertyName, value));
+				boolean filtered = this.NON_ENUMERABLE_ENUMERABLES.contains(source
+						.getName());
+				for (String propertyName : PropertyNameIndex.getPropertyNames(
+						enumerable, prefixes)) {
+					if (filtered && !PatternMatchUtils.simpleMatch(includes, propertyName)) {
+						continue;
+					}
+					Object value = source.getProperty(propertyName);
+					try {
+						value = resolver.getProperty(propertyName);
+					}
+					catch (RuntimeException ex) {
+						// Probably could not resolve placeholders, ignore it here
 					}
+					this.propertyValues.put(propertyName, new PropertyValue(
+							propertyName, value));
 				}
 			}
 			else {
@@ -16,14 +16,17 @@
 
 package org.springframework.boot.bind;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
-
-import org.springframework.util.StringUtils;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Generates relaxed name variations from a given source.
+ * Generates relaxed name variations from a given source. The variations of a name are
+ * computed once and shared (up to a limit on the number of names remembered), since
+ * binding asks for the same names over and over again.
  * 
  * @author Phillip Webb
  * @author Dave Syer
@@ -32,9 +35,11 @@ import org.springframework.util.StringUtils;
  */
 public final class RelaxedNames implements Iterable<String> {
 
-	private final String name;
+	private static final int CACHE_LIMIT = 4096;
+
+	private static final Map<String, String[]> cache = new ConcurrentHashMap<String, String[]>();
 
-	private final Set<String> values = new LinkedHashSet<String>();
+	private final String[] values;
 
 	/**
 	 * Create a new {@link RelaxedNames} instance.
@@ -42,16 +47,30 @@ public final class RelaxedNames implements Iterable<String> {
 	 * using dashed notation (e.g. {@literal my-property-name}
 	 */
 	public RelaxedNames(String name) {
-		this.name = (name == null ? "" : name);
-		initialize(RelaxedNames.this.name, this.values);
+		this.values = getValues(name == null ? "" : name);
 	}
 
 	@Override
 	public Iterator<String> iterator() {
-		return this.values.iterator();
+		return Arrays.asList(this.values).iterator();
 	}
 
-	private void initialize(String name, Set<String> values) {
+	private static String[] getValues(String name) {
+		String[] values = cache.get(name);
+		if (values == null) {
+			Set<String> set = new LinkedHashSet<String>();
+			initialize(name, set);
+			values = set.toArray(new String[set.size()]);
+			if (cache.size() >= CACHE_LIMIT) {
+				// Names are usually drawn from a small set, so simply start again
+				cache.clear();
+			}
+			cache.put(name, values);
+		}
+		return values;
+	}
+
+	private static void initialize(String name, Set<String> values) {
 		if (values.contains(name)) {
 			return;
 		}
@@ -126,35 +145,79 @@ public final class RelaxedNames implements Iterable<String> {
 		CAMELCASE_TO_UNDERSCORE {
 			@Override
 			public String apply(String value) {
-				value = value.replaceAll("([^A-Z-])([A-Z])", "$1_$2");
-				StringBuilder builder = new StringBuilder();
-				for (String field : value.split("_")) {
-					if (builder.length() == 0) {
-						builder.append(field);
+				// A separator is an '_' or the start of a camel case word (an upper case
+				// letter following anything but an upper case letter or '-'). The first
+				// letter of each word is lower cased, and leading and trailing
+				// separators are dropped.
+				int end = value.length();
+				while (end > 0 && value.charAt(end - 1) == '_') {
+					end--;
+				}
+				StringBuilder builder = new StringBuilder(end + 4);
+				boolean startOfWord = false;
+				for (int i = 0; i < end; i++) {
+					char ch = value.charAt(i);
+					if (ch == '_') {
+						startOfWord = appendSeparator(builder, startOfWord);
+						continue;
 					}
-					else {
-						builder.append("_").append(StringUtils.uncapitalize(field));
+					if (i > 0 && isUpperCase(ch)) {
+						char previous = value.charAt(i - 1);
+						if (!isUpperCase(previous) && previous != '-') {
+							startOfWord = appendSeparator(builder, startOfWord);
+						}
 					}
+					builder.append(startOfWord ? Character.toLowerCase(ch) : ch);
+					startOfWord = false;
 				}
 				return builder.toString();
 			}
+
+			private boolean appendSeparator(StringBuilder builder, boolean startOfWord) {
+				if (builder.length() == 0) {
+					return startOfWord;
+				}
+				builder.append('_');
+				return true;
+			}
+
+			private boolean isUpperCase(char ch) {
+				return ch >= 'A' && ch <= 'Z';
+			}
+
 		},
 
 		SEPARATED_TO_CAMELCASE {
 			@Override
 			public String apply(String value) {
-				StringBuilder builder = new StringBuilder();
-				for (String field : value.split("[_\\-.]")) {
-					builder.append(builder.length() == 0 ? field : StringUtils
-							.capitalize(field));
+				// Words are separated by '_', '-' or '.' and all but the first are
+				// capitalized. A trailing separator is kept.
+				int end = value.length();
+				while (end > 0 && isSeparator(value.charAt(end - 1))) {
+					end--;
 				}
-				for (String suffix : new String[] { "_", "-", "." }) {
-					if (value.endsWith(suffix)) {
-						builder.append(suffix);
+				StringBuilder builder = new StringBuilder(value.length());
+				boolean startOfWord = false;
+				for (int i = 0; i < end; i++) {
+					char ch = value.charAt(i);
+					if (isSeparator(ch)) {
+						startOfWord = true;
+						continue;
 					}
+					builder.append(startOfWord && builder.length() > 0 ? Character
+							.toUpperCase(ch) : ch);
+					startOfWord = false;
+				}
+				if (end < value.length()) {
+					builder.append(value.charAt(value.length() - 1));
 				}
 				return builder.toString();
 			}
+
+			private boolean isSeparator(char ch) {
+				return ch == '_' || ch == '-' || ch == '.';
+			}
+
 		};
 
 		public abstract String apply(String value);
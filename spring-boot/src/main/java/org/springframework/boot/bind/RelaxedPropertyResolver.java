@@ -18,9 +18,11 @@ package org.springframework.boot.bind;
 
 import java.util.Map;
 
+import org.springframework.boot.env.PropertySourcesSnapshot;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.PropertyResolver;
 import org.springframework.core.env.PropertySources;
+import org.springframework.core.env.PropertySourcesPropertyResolver;
 import org.springframework.util.Assert;
 
 import static java.lang.String.format;
@@ -35,6 +37,8 @@ public class RelaxedPropertyResolver implements PropertyResolver {
 
 	private final PropertyResolver resolver;
 
+	private final PropertyResolver lookupResolver;
+
 	private final String prefix;
 
 	public RelaxedPropertyResolver(PropertyResolver resolver) {
@@ -44,9 +48,25 @@ public class RelaxedPropertyResolver implements PropertyResolver {
 	public RelaxedPropertyResolver(PropertyResolver resolver, String prefix) {
 		Assert.notNull(resolver, "PropertyResolver must not be null");
 		this.resolver = resolver;
+		this.lookupResolver = getLookupResolver(resolver);
 		this.prefix = (prefix == null ? "" : prefix);
 	}
 
+	/**
+	 * Use the {@link PropertySourcesSnapshot} of an environment if there is one to find
+	 * out which relaxed name is present, since each name is otherwise looked up in every
+	 * property source. The value itself is still read from the environment, so that it is
+	 * converted and its placeholders are resolved with the environment's own settings.
+	 */
+	private static PropertyResolver getLookupResolver(PropertyResolver resolver) {
+		PropertySourcesSnapshot snapshot = PropertySourcesSnapshot.get(resolver);
+		if (snapshot == null) {
+			return resolver;
+		}
+		snapshot.refreshIfNecessary();
+		return new PropertySourcesPropertyResolver(snapshot);
+	}
+
 	@Override
 	public String getRequiredProperty(String key) throws IllegalStateException {
 		return getRequiredProperty(key, String.class);
@@ -81,7 +101,7 @@ public class RelaxedPropertyResolver implements PropertyResolver {
 		RelaxedNames keys = new RelaxedNames(key);
 		for (String prefix : prefixes) {
 			for (String relaxedKey : keys) {
-				if (this.resolver.containsProperty(prefix + relaxedKey)) {
+				if (this.lookupResolver.containsProperty(prefix + relaxedKey)) {
 					return this.resolver.getProperty(prefix + relaxedKey, targetType);
 				}
 			}
@@ -95,7 +115,7 @@ public class RelaxedPropertyResolver implements PropertyResolver {
 		RelaxedNames keys = new RelaxedNames(key);
 		for (String prefix : prefixes) {
 			for (String relaxedKey : keys) {
-				if (this.resolver.containsProperty(prefix + relaxedKey)) {
+				if (this.lookupResolver.containsProperty(prefix + relaxedKey)) {
 					return this.resolver.getPropertyAsClass(prefix + relaxedKey,
 							targetType);
 				}
@@ -110,7 +130,7 @@ public class RelaxedPropertyResolver implements PropertyResolver {
 		RelaxedNames keys = new RelaxedNames(key);
 		for (String prefix : prefixes) {
 			for (String relaxedKey : keys) {
-				if (this.resolver.containsProperty(prefix + relaxedKey)) {
+				if (this.lookupResolver.containsProperty(prefix + relaxedKey)) {
 					return true;
 				}
 			}
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -267,6 +268,8 @@ public class ConfigFileApplicationListener implements
 
 		private boolean activatedProfiles;
 
+		private final Set<String> missingLocations = new HashSet<String>();
+
 		public Loader(ConfigurableEnvironment environment, ResourceLoader resourceLoader) {
 			this.environment = environment;
 			this.resourceLoader = resourceLoader == null ? new DefaultResourceLoader()
@@ -277,6 +280,7 @@ public class ConfigFileApplicationListener implements
 			this.propertiesLoader = new PropertySourcesLoader();
 			this.profiles = Collections.asLifoQueue(new LinkedList<String>());
 			this.activatedProfiles = false;
+			this.missingLocations.clear();
 
 			if (this.environment.containsProperty(ACTIVE_PROFILES_PROPERTY)) {
 				// Any pre-existing active profiles set via property sources (e.g. System
@@ -345,21 +349,25 @@ public class ConfigFileApplicationListener implements
 
 		private PropertySource<?> loadIntoGroup(String identifier, String location,
 				String profile) throws IOException {
+			// The same locations are tried for every profile, so remember the misses
+			if (this.missingLocations.contains(location)) {
+				return null;
+			}
 			Resource resource = this.resourceLoader.getResource(location);
-			if (resource != null) {
-				String name = "applicationConfig: [" + location + "]";
-				String group = "applicationConfig: [" + identifier + "]";
-				PropertySource<?> propertySource = this.propertiesLoader.load(resource,
-						group, name, profile);
-				if (propertySource != null) {
-					maybeActivateProfiles(propertySource
-							.getProperty(ACTIVE_PROFILES_PROPERTY));
-					addIncludeProfiles(propertySource
-							.getProperty(INCLUDE_PROFILES_PROPERTY));
-				}
-				return propertySource;
+			if (resource == null || !resource.exists()) {
+				this.missingLocations.add(location);
+				return null;
 			}
-			return null;
+			String name = "applicationConfig: [" + location + "]";
+			String group = "applicationConfig: [" + identifier + "]";
+			PropertySource<?> propertySource = this.propertiesLoader.load(resource,
+					group, name, profile);
+			if (propertySource != null) {
+				maybeActivateProfiles(propertySource
+						.getProperty(ACTIVE_PROFILES_PROPERTY));
+				addIncludeProfiles(propertySource.getProperty(INCLUDE_PROFILES_PROPERTY));
+			}
+			return propertySource;
 		}
 
 		private void maybeActivateProfiles(Object value) {
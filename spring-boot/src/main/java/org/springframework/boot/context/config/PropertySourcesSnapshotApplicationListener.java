@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.config;
+
+import org.springframework.boot.bind.RelaxedPropertyResolver;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.env.PropertySourcesSnapshot;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * An {@link ApplicationListener} that installs a {@link PropertySourcesSnapshot} of the
+ * {@link ConfigurableEnvironment} once it has been prepared (so after the application
+ * configuration files have been loaded). By default has no effect, but if you set
+ * <code>spring.property-sources.snapshot=true</code> then
+ * {@link RelaxedPropertyResolver} and <code>@ConfigurationProperties</code> binding
+ * look up properties in the snapshot instead of in each of the property sources in turn.
+ * 
+ * <p>
+ * A {@link RelaxedPropertyResolver} checks once, when it is created, whether a property
+ * source has been added to the environment, removed or replaced, and so does
+ * <code>@ConfigurationProperties</code> binding when it starts. The snapshot is not taken
+ * again when the contents of a property source (other than the system properties)
+ * change, so a property that is added to a source in place is not found until
+ * {@link PropertySourcesSnapshot#refresh()} is called.
+ * 
+ * @author Dave Syer
+ */
+public class PropertySourcesSnapshotApplicationListener implements
+		ApplicationListener<ApplicationEnvironmentPreparedEvent>, Ordered {
+
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+		ConfigurableEnvironment environment = event.getEnvironment();
+		RelaxedPropertyResolver resolver = new RelaxedPropertyResolver(environment,
+				"spring.property-sources.");
+		if (resolver.getProperty("snapshot", Boolean.class, false)) {
+			PropertySourcesSnapshot.install(environment);
+		}
+	}
+
+}
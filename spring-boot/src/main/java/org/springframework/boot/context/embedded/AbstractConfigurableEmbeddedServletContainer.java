@@ -55,6 +55,12 @@ public abstract class AbstractConfigurableEmbeddedServletContainer implements
 
 	private MimeMappings mimeMappings = new MimeMappings(MimeMappings.DEFAULT);
 
+	private Compression compression = new Compression();
+
+	private ConnectorSettings connectorSettings = new ConnectorSettings();
+
+	private StaticResourceSettings staticResourceSettings = new StaticResourceSettings();
+
 	private InetAddress address;
 
 	private int sessionTimeout;
@@ -215,6 +221,45 @@ public abstract class AbstractConfigurableEmbeddedServletContainer implements
 		return this.mimeMappings;
 	}
 
+	@Override
+	public void setCompression(Compression compression) {
+		this.compression = new Compression(compression);
+	}
+
+	/**
+	 * Returns the HTTP response compression settings.
+	 * @return the compression settings
+	 */
+	public Compression getCompression() {
+		return this.compression;
+	}
+
+	@Override
+	public void setConnectorSettings(ConnectorSettings connectorSettings) {
+		this.connectorSettings = new ConnectorSettings(connectorSettings);
+	}
+
+	/**
+	 * Returns the thread pool and connection settings of the HTTP connector.
+	 * @return the connector settings
+	 */
+	public ConnectorSettings getConnectorSettings() {
+		return this.connectorSettings;
+	}
+
+	@Override
+	public void setStaticResourceSettings(StaticResourceSettings staticResourceSettings) {
+		this.staticResourceSettings = new StaticResourceSettings(staticResourceSettings);
+	}
+
+	/**
+	 * Returns the caching and serving settings of the default servlet.
+	 * @return the static resource settings
+	 */
+	public StaticResourceSettings getStaticResourceSettings() {
+		return this.staticResourceSettings;
+	}
+
 	@Override
 	public void setRegisterDefaultServlet(boolean registerDefaultServlet) {
 		this.registerDefaultServlet = registerDefaultServlet;
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.embedded;
+
+import org.springframework.util.Assert;
+
+/**
+ * Simple container-independent abstraction for HTTP response compression. Applied by
+ * each {@link EmbeddedServletContainerFactory} using the native support of the container
+ * (so that compression happens below the servlet API and does not need a filter).
+ * 
+ * @author Dave Syer
+ * @see ConfigurableEmbeddedServletContainer#setCompression(Compression)
+ */
+public class Compression {
+
+	private boolean enabled = false;
+
+	private String[] mimeTypes = new String[] { "text/html", "text/xml", "text/plain",
+			"text/css", "text/javascript", "application/javascript", "application/json",
+			"application/xml" };
+
+	private String[] excludedUserAgents = new String[0];
+
+	private int minResponseSize = 2048;
+
+	/**
+	 * Create a new {@link Compression} instance (initially disabled).
+	 */
+	public Compression() {
+	}
+
+	/**
+	 * Create a new {@link Compression} instance with the same settings as the given one.
+	 * @param compression the compression settings to copy
+	 */
+	public Compression(Compression compression) {
+		Assert.notNull(compression, "Compression must not be null");
+		this.enabled = compression.isEnabled();
+		this.mimeTypes = compression.getMimeTypes().clone();
+		this.excludedUserAgents = compression.getExcludedUserAgents().clone();
+		this.minResponseSize = compression.getMinResponseSize();
+	}
+
+	/**
+	 * @return true if responses should be compressed
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Returns the mime types of the responses that should be compressed.
+	 */
+	public String[] getMimeTypes() {
+		return this.mimeTypes;
+	}
+
+	public void setMimeTypes(String[] mimeTypes) {
+		Assert.notNull(mimeTypes, "MimeTypes must not be null");
+		this.mimeTypes = mimeTypes;
+	}
+
+	/**
+	 * Returns the user agents (matched exactly) that never get compressed responses.
+	 */
+	public String[] getExcludedUserAgents() {
+		return this.excludedUserAgents;
+	}
+
+	public void setExcludedUserAgents(String[] excludedUserAgents) {
+		Assert.notNull(excludedUserAgents, "ExcludedUserAgents must not be null");
+		this.excludedUserAgents = excludedUserAgents;
+	}
+
+	/**
+	 * Returns the minimum response size in bytes for compression to be used. Responses
+	 * of unknown length are always compressed.
+	 */
+	public int getMinResponseSize() {
+		return this.minResponseSize;
+	}
+
+	public void setMinResponseSize(int minResponseSize) {
+		this.minResponseSize = minResponseSize;
+	}
+
+}
@@ -113,6 +113,26 @@ public interface ConfigurableEmbeddedServletContainer {
 	 */
 	void setMimeMappings(MimeMappings mimeMappings);
 
+	/**
+	 * Sets the HTTP response compression settings.
+	 * @param compression the compression settings (defaults to disabled)
+	 */
+	void setCompression(Compression compression);
+
+	/**
+	 * Sets the thread pool and connection settings of the HTTP connector.
+	 * @param connectorSettings the connector settings (defaults to those of the
+	 * container)
+	 */
+	void setConnectorSettings(ConnectorSettings connectorSettings);
+
+	/**
+	 * Sets the caching and serving settings of the default servlet.
+	 * @param staticResourceSettings the static resource settings (defaults to disabled)
+	 * @see #setRegisterDefaultServlet(boolean)
+	 */
+	void setStaticResourceSettings(StaticResourceSettings staticResourceSettings);
+
 	/**
 	 * Sets the document root folder which will be used by the web context to serve static
 	 * files.
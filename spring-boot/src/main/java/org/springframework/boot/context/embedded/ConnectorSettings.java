@@ -0,0 +1,192 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.embedded;
+
+import org.springframework.util.Assert;
+
+/**
+ * Simple container-independent abstraction for the capacity of the HTTP connector: the
+ * worker thread pool, the acceptor and selector threads and the connection limits. Each
+ * setting is {@code null} by default, meaning that the default of the container is used.
+ * 
+ * @author Dave Syer
+ * @see ConfigurableEmbeddedServletContainer#setConnectorSettings(ConnectorSettings)
+ */
+public class ConnectorSettings {
+
+	private Integer minThreads;
+
+	private Integer maxThreads;
+
+	private Integer maxQueuedRequests;
+
+	private Integer threadIdleTimeout;
+
+	private Integer acceptors;
+
+	private Integer selectors;
+
+	private Integer maxConnections;
+
+	private Integer acceptBacklog;
+
+	private Integer maxKeepAliveRequests;
+
+	private Integer keepAliveTimeout;
+
+	/**
+	 * Create a new {@link ConnectorSettings} instance (using the container defaults).
+	 */
+	public ConnectorSettings() {
+	}
+
+	/**
+	 * Create a new {@link ConnectorSettings} instance with the same settings as the given
+	 * one.
+	 * @param settings the settings to copy
+	 */
+	public ConnectorSettings(ConnectorSettings settings) {
+		Assert.notNull(settings, "Settings must not be null");
+		this.minThreads = settings.getMinThreads();
+		this.maxThreads = settings.getMaxThreads();
+		this.maxQueuedRequests = settings.getMaxQueuedRequests();
+		this.threadIdleTimeout = settings.getThreadIdleTimeout();
+		this.acceptors = settings.getAcceptors();
+		this.selectors = settings.getSelectors();
+		this.maxConnections = settings.getMaxConnections();
+		this.acceptBacklog = settings.getAcceptBacklog();
+		this.maxKeepAliveRequests = settings.getMaxKeepAliveRequests();
+		this.keepAliveTimeout = settings.getKeepAliveTimeout();
+	}
+
+	/**
+	 * Returns the minimum number of worker threads kept in the pool.
+	 */
+	public Integer getMinThreads() {
+		return this.minThreads;
+	}
+
+	public void setMinThreads(Integer minThreads) {
+		this.minThreads = minThreads;
+	}
+
+	/**
+	 * Returns the maximum number of worker threads (i.e. requests handled concurrently).
+	 */
+	public Integer getMaxThreads() {
+		return this.maxThreads;
+	}
+
+	public void setMaxThreads(Integer maxThreads) {
+		this.maxThreads = maxThreads;
+	}
+
+	/**
+	 * Returns the maximum number of requests queued when all the worker threads are busy.
+	 */
+	public Integer getMaxQueuedRequests() {
+		return this.maxQueuedRequests;
+	}
+
+	public void setMaxQueuedRequests(Integer maxQueuedRequests) {
+		this.maxQueuedRequests = maxQueuedRequests;
+	}
+
+	/**
+	 * Returns the time in milliseconds that a worker thread above the minimum can stay
+	 * idle before it is stopped.
+	 */
+	public Integer getThreadIdleTimeout() {
+		return this.threadIdleTimeout;
+	}
+
+	public void setThreadIdleTimeout(Integer threadIdleTimeout) {
+		this.threadIdleTimeout = threadIdleTimeout;
+	}
+
+	/**
+	 * Returns the number of threads accepting new connections.
+	 */
+	public Integer getAcceptors() {
+		return this.acceptors;
+	}
+
+	public void setAcceptors(Integer acceptors) {
+		this.acceptors = acceptors;
+	}
+
+	/**
+	 * Returns the number of threads polling the open connections for requests. Jetty 8
+	 * uses one selector per acceptor, so it only applies to Tomcat.
+	 */
+	public Integer getSelectors() {
+		return this.selectors;
+	}
+
+	public void setSelectors(Integer selectors) {
+		this.selectors = selectors;
+	}
+
+	/**
+	 * Returns the maximum number of open connections. Jetty 8 has no hard limit, so it
+	 * only applies to Tomcat.
+	 */
+	public Integer getMaxConnections() {
+		return this.maxConnections;
+	}
+
+	public void setMaxConnections(Integer maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	/**
+	 * Returns the length of the queue of incoming connections waiting to be accepted.
+	 */
+	public Integer getAcceptBacklog() {
+		return this.acceptBacklog;
+	}
+
+	public void setAcceptBacklog(Integer acceptBacklog) {
+		this.acceptBacklog = acceptBacklog;
+	}
+
+	/**
+	 * Returns the maximum number of requests on a keep-alive connection before it is
+	 * closed. Jetty 8 has no such limit, so it only applies to Tomcat.
+	 */
+	public Integer getMaxKeepAliveRequests() {
+		return this.maxKeepAliveRequests;
+	}
+
+	public void setMaxKeepAliveRequests(Integer maxKeepAliveRequests) {
+		this.maxKeepAliveRequests = maxKeepAliveRequests;
+	}
+
+	/**
+	 * Returns the time in milliseconds that an idle keep-alive connection is kept open.
+	 * Jetty 8 only has a general idle timeout (that also applies while a request is being
+	 * read or written), so it only applies to Tomcat.
+	 */
+	public Integer getKeepAliveTimeout() {
+		return this.keepAliveTimeout;
+	}
+
+	public void setKeepAliveTimeout(Integer keepAliveTimeout) {
+		this.keepAliveTimeout = keepAliveTimeout;
+	}
+
+}
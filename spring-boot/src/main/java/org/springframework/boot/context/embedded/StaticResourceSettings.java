@@ -0,0 +1,157 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.embedded;
+
+import org.springframework.util.Assert;
+
+/**
+ * Simple container-independent abstraction for the way the container's default servlet
+ * serves static resources from the document root. When enabled, small resources are kept
+ * (with their ETag and last modified date) in an in-memory cache, so that they are not
+ * read again for every request, and large files on disk are written without copying them
+ * through the JVM heap (Tomcat sendfile or Jetty memory mapped buffers). Disabled by
+ * default, in which case the container defaults are used.
+ * <p>
+ * Nothing else is affected. In particular the resources that Spring MVC serves from the
+ * classpath (for example {@literal classpath:/static/} in an executable jar) go through
+ * its {@code ResourceHttpRequestHandler} and are not cached here. Tomcat applies sizes in
+ * whole kilobytes, rounding up.
+ * 
+ * @author Dave Syer
+ * @see ConfigurableEmbeddedServletContainer#setStaticResourceSettings(StaticResourceSettings)
+ */
+public class StaticResourceSettings {
+
+	private boolean enabled = false;
+
+	private int maxCacheSize = 10 * 1024 * 1024;
+
+	private int maxCachedFileSize = 512 * 1024;
+
+	private int maxCachedFiles = 2048;
+
+	private int cacheTimeToLive = 5000;
+
+	private int sendfileSize = 48 * 1024;
+
+	private boolean gzip = true;
+
+	/**
+	 * Create a new {@link StaticResourceSettings} instance (initially disabled).
+	 */
+	public StaticResourceSettings() {
+	}
+
+	/**
+	 * Create a new {@link StaticResourceSettings} instance with the same settings as the
+	 * given one.
+	 * @param settings the settings to copy
+	 */
+	public StaticResourceSettings(StaticResourceSettings settings) {
+		Assert.notNull(settings, "Settings must not be null");
+		this.enabled = settings.isEnabled();
+		this.maxCacheSize = settings.getMaxCacheSize();
+		this.maxCachedFileSize = settings.getMaxCachedFileSize();
+		this.maxCachedFiles = settings.getMaxCachedFiles();
+		this.cacheTimeToLive = settings.getCacheTimeToLive();
+		this.sendfileSize = settings.getSendfileSize();
+		this.gzip = settings.isGzip();
+	}
+
+	/**
+	 * @return true if the settings should be applied to the default servlet
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Returns the maximum size in bytes of the resource cache.
+	 */
+	public int getMaxCacheSize() {
+		return this.maxCacheSize;
+	}
+
+	public void setMaxCacheSize(int maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	/**
+	 * Returns the size in bytes of the largest resource that is cached.
+	 */
+	public int getMaxCachedFileSize() {
+		return this.maxCachedFileSize;
+	}
+
+	public void setMaxCachedFileSize(int maxCachedFileSize) {
+		this.maxCachedFileSize = maxCachedFileSize;
+	}
+
+	/**
+	 * Returns the maximum number of cached resources (only used by Jetty, Tomcat limits
+	 * the cache by size).
+	 */
+	public int getMaxCachedFiles() {
+		return this.maxCachedFiles;
+	}
+
+	public void setMaxCachedFiles(int maxCachedFiles) {
+		this.maxCachedFiles = maxCachedFiles;
+	}
+
+	/**
+	 * Returns the time in milliseconds before a cached resource is checked for changes
+	 * (only used by Tomcat, Jetty checks the last modified date on each request).
+	 */
+	public int getCacheTimeToLive() {
+		return this.cacheTimeToLive;
+	}
+
+	public void setCacheTimeToLive(int cacheTimeToLive) {
+		this.cacheTimeToLive = cacheTimeToLive;
+	}
+
+	/**
+	 * Returns the size in bytes above which files are served with sendfile (only used by
+	 * Tomcat, Jetty uses memory mapped buffers for all the files it does not cache).
+	 */
+	public int getSendfileSize() {
+		return this.sendfileSize;
+	}
+
+	public void setSendfileSize(int sendfileSize) {
+		this.sendfileSize = sendfileSize;
+	}
+
+	/**
+	 * Returns true if a pre-compressed {@literal .gz} variant of a resource should be
+	 * served to clients that accept it (only supported by Jetty, the Tomcat 7 default
+	 * servlet does not look for them).
+	 */
+	public boolean isGzip() {
+		return this.gzip;
+	}
+
+	public void setGzip(boolean gzip) {
+		this.gzip = gzip;
+	}
+
+}
@@ -86,10 +86,9 @@ public class JettyEmbeddedServletContainer implements EmbeddedServletContainer {
 		}
 		try {
 			this.server.start();
-			for (Handler handler : this.server.getHandlers()) {
-				if (handler instanceof JettyEmbeddedWebAppContext) {
-					((JettyEmbeddedWebAppContext) handler).deferredInitialize();
-				}
+			for (Handler handler : this.server
+					.getChildHandlersByClass(JettyEmbeddedWebAppContext.class)) {
+				((JettyEmbeddedWebAppContext) handler).deferredInitialize();
 			}
 			Connector[] connectors = this.server.getConnectors();
 			for (Connector connector : connectors) {
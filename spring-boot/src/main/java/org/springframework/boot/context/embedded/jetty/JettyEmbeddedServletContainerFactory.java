@@ -21,24 +21,34 @@ import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 
 import org.eclipse.jetty.http.MimeTypes;
+import org.eclipse.jetty.server.AbstractConnector;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.handler.ErrorHandler;
+import org.eclipse.jetty.server.handler.GzipHandler;
+import org.eclipse.jetty.server.handler.HandlerWrapper;
 import org.eclipse.jetty.servlet.ErrorPageErrorHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.eclipse.jetty.servlet.ServletMapping;
 import org.eclipse.jetty.util.resource.Resource;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.webapp.AbstractConfiguration;
 import org.eclipse.jetty.webapp.Configuration;
 import org.eclipse.jetty.webapp.WebAppContext;
 import org.springframework.boot.context.embedded.AbstractEmbeddedServletContainerFactory;
+import org.springframework.boot.context.embedded.Compression;
+import org.springframework.boot.context.embedded.ConnectorSettings;
 import org.springframework.boot.context.embedded.EmbeddedServletContainer;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory;
 import org.springframework.boot.context.embedded.ErrorPage;
 import org.springframework.boot.context.embedded.MimeMappings;
 import org.springframework.boot.context.embedded.ServletContextInitializer;
+import org.springframework.boot.context.embedded.StaticResourceSettings;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.Assert;
@@ -100,6 +110,7 @@ public class JettyEmbeddedServletContainerFactory extends
 		JettyEmbeddedWebAppContext context = new JettyEmbeddedWebAppContext();
 		int port = (getPort() >= 0 ? getPort() : 0);
 		Server server = new Server(new InetSocketAddress(getAddress(), port));
+		configureConnectorSettings(server);
 
 		if (this.resourceLoader != null) {
 			context.setClassLoader(this.resourceLoader.getClassLoader());
@@ -124,7 +135,7 @@ public class JettyEmbeddedServletContainerFactory extends
 				.setMaxInactiveInterval(getSessionTimeout());
 		postProcessWebAppContext(context);
 
-		server.setHandler(context);
+		server.setHandler(addHandlerWrappers(context));
 		this.logger.info("Server initialized with port: " + port);
 		for (JettyServerCustomizer customizer : getServerCustomizers()) {
 			customizer.customize(server);
@@ -133,6 +144,78 @@ public class JettyEmbeddedServletContainerFactory extends
 		return getJettyEmbeddedServletContainer(server);
 	}
 
+	private void configureConnectorSettings(Server server) {
+		ConnectorSettings settings = getConnectorSettings();
+		if (settings.getMinThreads() != null || settings.getMaxThreads() != null
+				|| settings.getMaxQueuedRequests() != null
+				|| settings.getThreadIdleTimeout() != null) {
+			server.setThreadPool(createThreadPool(settings));
+		}
+		for (Connector connector : server.getConnectors()) {
+			if (connector instanceof AbstractConnector) {
+				configureConnector((AbstractConnector) connector, settings);
+			}
+		}
+		if (settings.getSelectors() != null || settings.getMaxConnections() != null
+				|| settings.getMaxKeepAliveRequests() != null
+				|| settings.getKeepAliveTimeout() != null) {
+			this.logger.warn("Jetty does not support the selectors, max connections, "
+					+ "max keep alive requests or keep alive timeout connector settings");
+		}
+	}
+
+	private QueuedThreadPool createThreadPool(ConnectorSettings settings) {
+		QueuedThreadPool threadPool = new QueuedThreadPool();
+		if (settings.getMinThreads() != null) {
+			threadPool.setMinThreads(settings.getMinThreads());
+		}
+		if (settings.getMaxThreads() != null) {
+			threadPool.setMaxThreads(settings.getMaxThreads());
+		}
+		if (settings.getMaxQueuedRequests() != null) {
+			threadPool.setMaxQueued(settings.getMaxQueuedRequests());
+		}
+		if (settings.getThreadIdleTimeout() != null) {
+			threadPool.setMaxIdleTimeMs(settings.getThreadIdleTimeout());
+		}
+		return threadPool;
+	}
+
+	private void configureConnector(AbstractConnector connector,
+			ConnectorSettings settings) {
+		if (settings.getAcceptors() != null) {
+			connector.setAcceptors(settings.getAcceptors());
+		}
+		if (settings.getAcceptBacklog() != null) {
+			connector.setAcceptQueueSize(settings.getAcceptBacklog());
+		}
+	}
+
+	private Handler addHandlerWrappers(Handler handler) {
+		if (getCompression().isEnabled()) {
+			handler = applyWrapper(handler, createGzipHandler());
+		}
+		return handler;
+	}
+
+	private Handler applyWrapper(Handler handler, HandlerWrapper wrapper) {
+		wrapper.setHandler(handler);
+		return wrapper;
+	}
+
+	private GzipHandler createGzipHandler() {
+		Compression compression = getCompression();
+		GzipHandler gzipHandler = new GzipHandler();
+		gzipHandler.setMinGzipSize(compression.getMinResponseSize());
+		gzipHandler.setMimeTypes(new HashSet<String>(Arrays.asList(compression
+				.getMimeTypes())));
+		if (compression.getExcludedUserAgents().length > 0) {
+			gzipHandler.setExcluded(new HashSet<String>(Arrays.asList(compression
+					.getExcludedUserAgents())));
+		}
+		return gzipHandler;
+	}
+
 	private void configureDocumentRoot(WebAppContext handler) {
 		File root = getValidDocumentRoot();
 		if (root != null) {
@@ -156,11 +239,29 @@ public class JettyEmbeddedServletContainerFactory extends
 		holder.setName("default");
 		holder.setClassName("org.eclipse.jetty.servlet.DefaultServlet");
 		holder.setInitParameter("dirAllowed", "false");
+		if (getStaticResourceSettings().isEnabled()) {
+			configureStaticResources(holder);
+		}
 		holder.setInitOrder(1);
 		context.getServletHandler().addServletWithMapping(holder, "/");
 		context.getServletHandler().getServletMapping("/").setDefault(true);
 	}
 
+	private void configureStaticResources(ServletHolder holder) {
+		StaticResourceSettings settings = getStaticResourceSettings();
+		// The cache keeps the content in (direct) buffers along with the ETag and last
+		// modified date, larger files are memory mapped
+		holder.setInitParameter("maxCacheSize",
+				String.valueOf(settings.getMaxCacheSize()));
+		holder.setInitParameter("maxCachedFileSize",
+				String.valueOf(settings.getMaxCachedFileSize()));
+		holder.setInitParameter("maxCachedFiles",
+				String.valueOf(settings.getMaxCachedFiles()));
+		holder.setInitParameter("etags", "true");
+		holder.setInitParameter("useFileMappedBuffer", "true");
+		holder.setInitParameter("gzip", String.valueOf(settings.isGzip()));
+	}
+
 	private void addJspServlet(WebAppContext context) {
 		ServletHolder holder = new ServletHolder();
 		holder.setName("jsp");
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import javax.servlet.ServletContext;
 
@@ -36,24 +37,31 @@ import org.apache.catalina.LifecycleListener;
 import org.apache.catalina.Valve;
 import org.apache.catalina.Wrapper;
 import org.apache.catalina.connector.Connector;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.core.StandardThreadExecutor;
 import org.apache.catalina.loader.WebappLoader;
 import org.apache.catalina.startup.Tomcat;
 import org.apache.catalina.startup.Tomcat.FixContextListener;
 import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
 import org.springframework.beans.BeanUtils;
 import org.springframework.boot.context.embedded.AbstractEmbeddedServletContainerFactory;
+import org.springframework.boot.context.embedded.Compression;
+import org.springframework.boot.context.embedded.ConnectorSettings;
 import org.springframework.boot.context.embedded.EmbeddedServletContainer;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerException;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory;
 import org.springframework.boot.context.embedded.ErrorPage;
 import org.springframework.boot.context.embedded.MimeMappings;
 import org.springframework.boot.context.embedded.ServletContextInitializer;
+import org.springframework.boot.context.embedded.StaticResourceSettings;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * {@link EmbeddedServletContainerFactory} that can be used to create
@@ -184,10 +192,34 @@ public class TomcatEmbeddedServletContainerFactory extends
 		defaultServlet.setLoadOnStartup(1);
 		// Otherwise the default location of a Spring DispatcherServlet cannot be set
 		defaultServlet.setOverridable(true);
+		if (getStaticResourceSettings().isEnabled()) {
+			configureStaticResources(context, defaultServlet);
+		}
 		context.addChild(defaultServlet);
 		context.addServletMapping("/", "default");
 	}
 
+	private void configureStaticResources(Context context, Wrapper defaultServlet) {
+		StaticResourceSettings settings = getStaticResourceSettings();
+		if (context instanceof StandardContext) {
+			// The cache keeps the content along with the ETag and last modified date
+			StandardContext standardContext = (StandardContext) context;
+			standardContext.setCachingAllowed(true);
+			standardContext.setCacheMaxSize(toKilobytes(settings.getMaxCacheSize()));
+			standardContext.setCacheObjectMaxSize(toKilobytes(settings
+					.getMaxCachedFileSize()));
+			standardContext.setCacheTTL(settings.getCacheTimeToLive());
+		}
+		defaultServlet.addInitParameter("sendfileSize",
+				String.valueOf(toKilobytes(settings.getSendfileSize())));
+	}
+
+	private int toKilobytes(int bytes) {
+		// Tomcat takes these sizes in KB, so round up rather than truncate small values
+		// to 0
+		return (int) ((bytes + 1023L) / 1024);
+	}
+
 	private void addJspServlet(Context context) {
 		Wrapper jspServlet = context.createWrapper();
 		jspServlet.setName("jsp");
@@ -212,6 +244,14 @@ public class TomcatEmbeddedServletContainerFactory extends
 		if (getUriEncoding() != null) {
 			connector.setURIEncoding(getUriEncoding());
 		}
+		if (getCompression().isEnabled()
+				&& connector.getProtocolHandler() instanceof AbstractHttp11Protocol) {
+			customizeCompression((AbstractHttp11Protocol) connector.getProtocolHandler());
+		}
+		customizeConnectorSettings(connector);
+		if (getStaticResourceSettings().isEnabled()) {
+			connector.setProperty("useSendfile", "true");
+		}
 
 		// If ApplicationContext is slow to start we want Tomcat not to bind to the socket
 		// prematurely...
@@ -221,6 +261,69 @@ public class TomcatEmbeddedServletContainerFactory extends
 		}
 	}
 
+	private void customizeCompression(AbstractHttp11Protocol protocol) {
+		Compression compression = getCompression();
+		protocol.setCompression("on");
+		protocol.setCompressionMinSize(compression.getMinResponseSize());
+		protocol.setCompressableMimeTypes(StringUtils
+				.arrayToCommaDelimitedString(compression.getMimeTypes()));
+		if (compression.getExcludedUserAgents().length > 0) {
+			// Tomcat takes a regular expression, so quote the names to match exactly
+			StringBuilder excluded = new StringBuilder();
+			for (String userAgent : compression.getExcludedUserAgents()) {
+				excluded.append(excluded.length() == 0 ? "" : "|");
+				excluded.append(Pattern.quote(userAgent));
+			}
+			protocol.setNoCompressionUserAgents(excluded.toString());
+		}
+	}
+
+	private void customizeConnectorSettings(Connector connector) {
+		ConnectorSettings settings = getConnectorSettings();
+		setProperty(connector, "minSpareThreads", settings.getMinThreads());
+		setProperty(connector, "maxThreads", settings.getMaxThreads());
+		setProperty(connector, "acceptorThreadCount", settings.getAcceptors());
+		setProperty(connector, "pollerThreadCount", settings.getSelectors());
+		setProperty(connector, "maxConnections", settings.getMaxConnections());
+		setProperty(connector, "acceptCount", settings.getAcceptBacklog());
+		setProperty(connector, "maxKeepAliveRequests",
+				settings.getMaxKeepAliveRequests());
+		setProperty(connector, "keepAliveTimeout", settings.getKeepAliveTimeout());
+		if ((settings.getMaxQueuedRequests() != null || settings
+				.getThreadIdleTimeout() != null)
+				&& connector.getService() != null
+				&& connector.getProtocolHandler() instanceof AbstractProtocol) {
+			// The internal executor has an unbounded queue and a fixed idle timeout
+			StandardThreadExecutor executor = createExecutor(settings);
+			connector.getService().addExecutor(executor);
+			((AbstractProtocol) connector.getProtocolHandler()).setExecutor(executor);
+		}
+	}
+
+	private void setProperty(Connector connector, String name, Integer value) {
+		if (value != null) {
+			connector.setProperty(name, value.toString());
+		}
+	}
+
+	private StandardThreadExecutor createExecutor(ConnectorSettings settings) {
+		StandardThreadExecutor executor = new StandardThreadExecutor();
+		executor.setName("tomcatThreadPool-" + getPort());
+		if (settings.getMinThreads() != null) {
+			executor.setMinSpareThreads(settings.getMinThreads());
+		}
+		if (settings.getMaxThreads() != null) {
+			executor.setMaxThreads(settings.getMaxThreads());
+		}
+		if (settings.getMaxQueuedRequests() != null) {
+			executor.setMaxQueueSize(settings.getMaxQueuedRequests());
+		}
+		if (settings.getThreadIdleTimeout() != null) {
+			executor.setMaxIdleTime(settings.getThreadIdleTimeout());
+		}
+		return executor;
+	}
+
 	/**
 	 * Configure the Tomcat {@link Context}.
 	 * @param context the Tomcat context
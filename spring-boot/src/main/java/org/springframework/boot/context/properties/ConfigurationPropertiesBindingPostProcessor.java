@@ -29,6 +29,7 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.bind.PropertiesConfigurationFactory;
 import org.springframework.boot.env.PropertySourcesLoader;
+import org.springframework.boot.env.PropertySourcesSnapshot;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -203,8 +204,8 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 		}
 
 		if (this.environment instanceof ConfigurableEnvironment) {
-			return flattenPropertySources(((ConfigurableEnvironment) this.environment)
-					.getPropertySources());
+			return flattenPropertySources(getPropertySources(
+					(ConfigurableEnvironment) this.environment));
 		}
 
 		// empty, so not very useful, but fulfils the contract
@@ -260,7 +261,7 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 		Object source = propertySource.getSource();
 		if (source instanceof ConfigurableEnvironment) {
 			ConfigurableEnvironment environment = (ConfigurableEnvironment) source;
-			for (PropertySource<?> childSource : environment.getPropertySources()) {
+			for (PropertySource<?> childSource : getPropertySources(environment)) {
 				flattenPropertySources(childSource, result);
 			}
 		}
@@ -269,6 +270,23 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 		}
 	}
 
+	/**
+	 * Return the {@link PropertySourcesSnapshot} of the environment if one has been
+	 * installed (its merged sources are quicker to bind from), or else the environment's
+	 * own property sources. The snapshot is taken again first if property sources have
+	 * been added since it was taken (e.g. by <code>@PropertySource</code>).
+	 * @param environment the environment
+	 * @return the property sources to bind from
+	 */
+	private PropertySources getPropertySources(ConfigurableEnvironment environment) {
+		PropertySourcesSnapshot snapshot = PropertySourcesSnapshot.get(environment);
+		if (snapshot == null) {
+			return environment.getPropertySources();
+		}
+		snapshot.refreshIfNecessary();
+		return snapshot;
+	}
+
 	@Override
 	public Object postProcessBeforeInitialization(Object bean, String beanName)
 			throws BeansException {
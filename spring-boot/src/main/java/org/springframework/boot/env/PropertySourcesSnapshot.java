@@ -0,0 +1,300 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.env;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertiesPropertySource;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.PropertySources;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.util.Assert;
+
+/**
+ * A copy of some {@link PropertySources} that can be searched more quickly than the
+ * original. Each run of consecutive enumerable sources is merged into a single map (with
+ * the precedence of the original sources already resolved), so looking up a property
+ * costs one hash lookup per run instead of one per source. Sources that can match names
+ * they do not enumerate (e.g. the system environment or random values) and the system
+ * properties (which can change at any time) are kept in between the merged maps. The
+ * merged maps and the system properties also answer {@code containsProperty} with a
+ * hash lookup, instead of searching all of their property names.
+ * <p>
+ * The snapshot is never checked against the original sources when it is searched. Call
+ * {@link #refreshIfNecessary()} to take it again if a source has been added to the
+ * original sources, removed or replaced since it was taken, or {@link #refresh()} if the
+ * contents of a merged source might have changed.
+ * <p>
+ * Use {@link #install(ConfigurableEnvironment)} to make a snapshot of the environment
+ * available to {@code RelaxedPropertyResolver} and to configuration properties binding.
+ * 
+ * @author Dave Syer
+ */
+public class PropertySourcesSnapshot implements PropertySources {
+
+	/**
+	 * The name of the property source that holds an installed snapshot.
+	 */
+	public static final String PROPERTY_SOURCE_NAME = "propertySourcesSnapshot";
+
+	private static final Set<Class<?>> FLATTENABLE_TYPES;
+	static {
+		Set<Class<?>> types = new HashSet<Class<?>>();
+		types.add(MapPropertySource.class);
+		types.add(PropertiesPropertySource.class);
+		types.add(ResourcePropertySource.class);
+		FLATTENABLE_TYPES = Collections.unmodifiableSet(types);
+	}
+
+	private final PropertySources propertySources;
+
+	private volatile Snapshot snapshot;
+
+	/**
+	 * Create a new {@link PropertySourcesSnapshot} of the given property sources.
+	 * @param propertySources the property sources to copy
+	 */
+	public PropertySourcesSnapshot(PropertySources propertySources) {
+		Assert.notNull(propertySources, "PropertySources must not be null");
+		this.propertySources = propertySources;
+		refresh();
+	}
+
+	/**
+	 * Discard the current snapshot and take a new one from the original property
+	 * sources. Should be called after the contents of the sources change.
+	 */
+	public void refresh() {
+		this.snapshot = new Snapshot(this.propertySources);
+	}
+
+	/**
+	 * Take a new snapshot if a source has been added to the original property sources,
+	 * removed or replaced since the current one was taken. This compares each of the
+	 * original sources, so call it once before a batch of lookups rather than before each
+	 * one.
+	 */
+	public void refreshIfNecessary() {
+		if (!this.snapshot.isCurrent(this.propertySources)) {
+			refresh();
+		}
+	}
+
+	@Override
+	public Iterator<PropertySource<?>> iterator() {
+		return this.snapshot.flattened.iterator();
+	}
+
+	/**
+	 * Returns {@code true} if one of the original property sources has the given name.
+	 */
+	@Override
+	public boolean contains(String name) {
+		return this.snapshot.named.containsKey(name);
+	}
+
+	/**
+	 * Returns the original property source with the given name, or {@code null} if
+	 * there is none.
+	 */
+	@Override
+	public PropertySource<?> get(String name) {
+		return this.snapshot.named.get(name);
+	}
+
+	@Override
+	public String toString() {
+		return "PropertySourcesSnapshot " + this.snapshot.flattened;
+	}
+
+	/**
+	 * Install a snapshot of the property sources of the given environment, so that it is
+	 * returned by {@link #get(PropertyResolver)}. The environment itself is not changed
+	 * apart from an extra (empty) property source that holds the snapshot.
+	 * @param environment the environment
+	 * @return the installed snapshot
+	 */
+	public static PropertySourcesSnapshot install(ConfigurableEnvironment environment) {
+		PropertySourcesSnapshot snapshot = get(environment);
+		if (snapshot == null) {
+			MutablePropertySources propertySources = environment.getPropertySources();
+			snapshot = new PropertySourcesSnapshot(propertySources);
+			propertySources.addLast(new SnapshotPropertySource(snapshot));
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Return the snapshot installed in the given property resolver, if it is an
+	 * environment.
+	 * @param resolver the property resolver
+	 * @return the installed snapshot or {@code null}
+	 * @see #install(ConfigurableEnvironment)
+	 */
+	public static PropertySourcesSnapshot get(PropertyResolver resolver) {
+		if (resolver instanceof ConfigurableEnvironment) {
+			PropertySource<?> source = ((ConfigurableEnvironment) resolver)
+					.getPropertySources().get(PROPERTY_SOURCE_NAME);
+			if (source instanceof SnapshotPropertySource) {
+				return ((SnapshotPropertySource) source).getSource();
+			}
+		}
+		return null;
+	}
+
+	private static boolean isFlattenable(PropertySource<?> source) {
+		if (source instanceof EnumerableCompositePropertySource) {
+			for (PropertySource<?> nested : ((EnumerableCompositePropertySource) source)
+					.getSource()) {
+				if (!isFlattenable(nested)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		// Only types known to resolve exactly the names they enumerate (subclasses might
+		// override getProperty) and not the system properties, which are mutable
+		return FLATTENABLE_TYPES.contains(source.getClass())
+				&& !isSystemProperties(source);
+	}
+
+	private static boolean isSystemProperties(PropertySource<?> source) {
+		return FLATTENABLE_TYPES.contains(source.getClass())
+				&& StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME
+						.equals(source.getName());
+	}
+
+	private static class Snapshot {
+
+		private final List<PropertySource<?>> sources = new ArrayList<PropertySource<?>>();
+
+		private final Map<String, PropertySource<?>> named = new LinkedHashMap<String, PropertySource<?>>();
+
+		private final List<PropertySource<?>> flattened;
+
+		public Snapshot(PropertySources propertySources) {
+			List<PropertySource<?>> flattened = new ArrayList<PropertySource<?>>();
+			List<String> names = new ArrayList<String>();
+			Map<String, Object> values = new LinkedHashMap<String, Object>();
+			for (PropertySource<?> source : propertySources) {
+				if (source instanceof SnapshotPropertySource) {
+					continue;
+				}
+				this.sources.add(source);
+				this.named.put(source.getName(), source);
+				if (isFlattenable(source)) {
+					names.add(source.getName());
+					for (String name : ((EnumerablePropertySource<?>) source)
+							.getPropertyNames()) {
+						if (!values.containsKey(name)) {
+							Object value = source.getProperty(name);
+							if (value != null) {
+								values.put(name, value);
+							}
+						}
+					}
+				}
+				else {
+					addMerged(flattened, names, values);
+					names = new ArrayList<String>();
+					values = new LinkedHashMap<String, Object>();
+					flattened.add(isSystemProperties(source) ? new LookupMapPropertySource(
+							source.getName(), ((MapPropertySource) source).getSource())
+							: source);
+				}
+			}
+			addMerged(flattened, names, values);
+			this.flattened = Collections.unmodifiableList(flattened);
+		}
+
+		private void addMerged(List<PropertySource<?>> flattened, List<String> names,
+				Map<String, Object> values) {
+			if (!names.isEmpty()) {
+				flattened.add(new LookupMapPropertySource("snapshot " + names,
+						Collections.unmodifiableMap(values)));
+			}
+		}
+
+		/**
+		 * Returns {@code true} if the given sources are the same (identical) sources
+		 * that this snapshot was taken from.
+		 */
+		public boolean isCurrent(PropertySources propertySources) {
+			int index = 0;
+			for (PropertySource<?> source : propertySources) {
+				if (source instanceof SnapshotPropertySource) {
+					continue;
+				}
+				if (index >= this.sources.size() || this.sources.get(index) != source) {
+					return false;
+				}
+				index++;
+			}
+			return index == this.sources.size();
+		}
+
+	}
+
+	/**
+	 * {@link MapPropertySource} that looks up the name in the map to find out if it
+	 * contains a property (the default copies and searches all the names).
+	 */
+	private static class LookupMapPropertySource extends MapPropertySource {
+
+		public LookupMapPropertySource(String name, Map<String, Object> source) {
+			super(name, source);
+		}
+
+		@Override
+		public boolean containsProperty(String name) {
+			return this.source.containsKey(name);
+		}
+
+	}
+
+	/**
+	 * Property source that holds an installed snapshot. It never contains any properties
+	 * itself, so it does not change what the environment resolves.
+	 */
+	private static class SnapshotPropertySource extends
+			PropertySource<PropertySourcesSnapshot> {
+
+		public SnapshotPropertySource(PropertySourcesSnapshot snapshot) {
+			super(PROPERTY_SOURCE_NAME, snapshot);
+		}
+
+		@Override
+		public Object getProperty(String name) {
+			return null;
+		}
+
+	}
+
+}
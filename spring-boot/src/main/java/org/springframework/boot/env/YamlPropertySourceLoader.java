@@ -17,6 +17,10 @@
 package org.springframework.boot.env;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import org.springframework.boot.yaml.SpringProfileDocumentMatcher;
@@ -25,15 +29,22 @@ import org.springframework.core.env.PropertiesPropertySource;
 import org.springframework.core.env.PropertySource;
 import org.springframework.core.io.Resource;
 import org.springframework.util.ClassUtils;
+import org.yaml.snakeyaml.Yaml;
 
 /**
- * Strategy to load '.yml' files into a {@link PropertySource}.
+ * Strategy to load '.yml' files into a {@link PropertySource}. A file is typically
+ * loaded once for each active profile, so the documents in each resource are only
+ * parsed the first time and then matched against the profile on each load. Loaders are
+ * created for each {@link PropertySourcesLoader} so they do not see later changes to a
+ * resource.
  * 
  * @author Dave Syer
  * @author Phillip Webb
  */
 public class YamlPropertySourceLoader implements PropertySourceLoader {
 
+	private final Map<Resource, List<Object>> documents = new HashMap<Resource, List<Object>>();
+
 	@Override
 	public String[] getFileExtensions() {
 		return new String[] { "yml" };
@@ -43,7 +54,8 @@ public class YamlPropertySourceLoader implements PropertySourceLoader {
 	public PropertySource<?> load(String name, Resource resource, String profile)
 			throws IOException {
 		if (ClassUtils.isPresent("org.yaml.snakeyaml.Yaml", null)) {
-			YamlPropertiesFactoryBean factory = new YamlPropertiesFactoryBean();
+			YamlPropertiesFactoryBean factory = new CachingYamlPropertiesFactoryBean(
+					this.documents);
 			if (profile == null) {
 				factory.setMatchDefault(true);
 				factory.setDocumentMatchers(new SpringProfileDocumentMatcher());
@@ -61,4 +73,35 @@ public class YamlPropertySourceLoader implements PropertySourceLoader {
 		return null;
 	}
 
+	/**
+	 * {@link YamlPropertiesFactoryBean} that parses each resource only once. Inner class
+	 * so that Snake YAML is only needed when it is used.
+	 */
+	private static class CachingYamlPropertiesFactoryBean extends
+			YamlPropertiesFactoryBean {
+
+		private final Map<Resource, List<Object>> documents;
+
+		public CachingYamlPropertiesFactoryBean(Map<Resource, List<Object>> documents) {
+			this.documents = documents;
+		}
+
+		@Override
+		protected Iterable<Object> loadAll(Yaml yaml, Resource resource)
+				throws IOException {
+			synchronized (this.documents) {
+				List<Object> documents = this.documents.get(resource);
+				if (documents == null) {
+					documents = new ArrayList<Object>();
+					for (Object document : super.loadAll(yaml, resource)) {
+						documents.add(document);
+					}
+					this.documents.put(resource, documents);
+				}
+				return documents;
+			}
+		}
+
+	}
+
 }
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.json;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dependency free JSON parser that reads the input in a single pass, character by
+ * character, without splitting it into substrings for each nested level. Objects are
+ * returned as (ordered) maps, arrays as lists, numbers as {@link Long} or
+ * {@link Double}, and {@literal true}, {@literal false} and {@literal null} as
+ * {@link Boolean} values and {@code null}. Unquoted values that are not valid JSON
+ * literals are tolerated and returned as strings.
+ * 
+ * @author Dave Syer
+ * @see JsonParserFactory
+ */
+public class BasicJsonParser implements JsonParser {
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Map<String, Object> parseMap(String json) {
+		if (json != null) {
+			json = json.trim();
+			if (json.startsWith("{")) {
+				return (Map<String, Object>) new Parser(json).parse();
+			}
+			else if (json.equals("")) {
+				return new HashMap<String, Object>();
+			}
+		}
+		return null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Object> parseList(String json) {
+		if (json != null) {
+			json = json.trim();
+			if (json.startsWith("[")) {
+				return (List<Object>) new Parser(json).parse();
+			}
+			else if (json.equals("")) {
+				return new ArrayList<Object>();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Parser state for a single JSON document.
+	 */
+	private static class Parser {
+
+		private final String json;
+
+		private final int length;
+
+		private int index;
+
+		private final StringBuilder buffer = new StringBuilder();
+
+		public Parser(String json) {
+			this.json = json;
+			this.length = json.length();
+		}
+
+		public Object parse() {
+			Object value = parseValue();
+			skipWhitespace();
+			if (this.index < this.length) {
+				throw error("Unexpected content");
+			}
+			return value;
+		}
+
+		private Object parseValue() {
+			skipWhitespace();
+			if (this.index >= this.length) {
+				throw error("Unexpected end of input");
+			}
+			char ch = this.json.charAt(this.index);
+			if (ch == '{') {
+				return parseObject();
+			}
+			if (ch == '[') {
+				return parseArray();
+			}
+			if (ch == '"') {
+				return parseString();
+			}
+			return parseLiteral();
+		}
+
+		private Map<String, Object> parseObject() {
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			this.index++;
+			if (skipWhitespaceAndConsume('}')) {
+				return map;
+			}
+			do {
+				skipWhitespace();
+				if (this.index >= this.length || this.json.charAt(this.index) != '"') {
+					throw error("Expected a field name");
+				}
+				String key = parseString();
+				if (!skipWhitespaceAndConsume(':')) {
+					throw error("Expected ':'");
+				}
+				map.put(key, parseValue());
+			}
+			while (skipWhitespaceAndConsume(','));
+			if (!skipWhitespaceAndConsume('}')) {
+				throw error("Expected ',' or '}'");
+			}
+			return map;
+		}
+
+		private List<Object> parseArray() {
+			List<Object> list = new ArrayList<Object>();
+			this.index++;
+			if (skipWhitespaceAndConsume(']')) {
+				return list;
+			}
+			do {
+				list.add(parseValue());
+			}
+			while (skipWhitespaceAndConsume(','));
+			if (!skipWhitespaceAndConsume(']')) {
+				throw error("Expected ',' or ']'");
+			}
+			return list;
+		}
+
+		private String parseString() {
+			int start = ++this.index;
+			// Fast path for strings without escapes
+			while (this.index < this.length) {
+				char ch = this.json.charAt(this.index);
+				if (ch == '"') {
+					return this.json.substring(start, this.index++);
+				}
+				if (ch == '\\') {
+					break;
+				}
+				this.index++;
+			}
+			this.buffer.setLength(0);
+			this.buffer.append(this.json, start, this.index);
+			while (this.index < this.length) {
+				char ch = this.json.charAt(this.index++);
+				if (ch == '"') {
+					return this.buffer.toString();
+				}
+				this.buffer.append(ch == '\\' ? parseEscape() : ch);
+			}
+			throw error("Unterminated string");
+		}
+
+		private char parseEscape() {
+			if (this.index >= this.length) {
+				throw error("Unterminated string");
+			}
+			char ch = this.json.charAt(this.index++);
+			switch (ch) {
+			case 'b':
+				return '\b';
+			case 'f':
+				return '\f';
+			case 'n':
+				return '\n';
+			case 'r':
+				return '\r';
+			case 't':
+				return '\t';
+			case 'u':
+				if (this.index + 4 > this.length) {
+					throw error("Invalid unicode escape");
+				}
+				try {
+					char unicode = (char) Integer.parseInt(
+							this.json.substring(this.index, this.index + 4), 16);
+					this.index += 4;
+					return unicode;
+				}
+				catch (NumberFormatException ex) {
+					throw error("Invalid unicode escape");
+				}
+			default:
+				return ch;
+			}
+		}
+
+		private Object parseLiteral() {
+			int start = this.index;
+			while (this.index < this.length && !isDelimiter(this.json.charAt(this.index))) {
+				this.index++;
+			}
+			String literal = this.json.substring(start, this.index).trim();
+			if (literal.equals("true")) {
+				return Boolean.TRUE;
+			}
+			if (literal.equals("false")) {
+				return Boolean.FALSE;
+			}
+			if (literal.equals("null")) {
+				return null;
+			}
+			if (isNumber(literal)) {
+				try {
+					return Long.valueOf(literal);
+				}
+				catch (NumberFormatException ex) {
+					// Not a long
+				}
+				try {
+					return Double.valueOf(literal);
+				}
+				catch (NumberFormatException ex) {
+					// Not a number after all
+				}
+			}
+			return literal;
+		}
+
+		private boolean isNumber(String literal) {
+			if (literal.length() == 0) {
+				return false;
+			}
+			char first = literal.charAt(0);
+			return (first == '-' || (first >= '0' && first <= '9'));
+		}
+
+		private boolean isDelimiter(char ch) {
+			return ch == ',' || ch == '}' || ch == ']';
+		}
+
+		private void skipWhitespace() {
+			while (this.index < this.length
+					&& Character.isWhitespace(this.json.charAt(this.index))) {
+				this.index++;
+			}
+		}
+
+		private boolean skipWhitespaceAndConsume(char expected) {
+			skipWhitespace();
+			if (this.index < this.length && this.json.charAt(this.index) == expected) {
+				this.index++;
+				return true;
+			}
+			return false;
+		}
+
+		private IllegalArgumentException error(String message) {
+			return new IllegalArgumentException("Cannot parse JSON: " + message
+					+ " at index " + this.index);
+		}
+
+	}
+
+}
@@ -24,13 +24,13 @@ import org.springframework.util.ClassUtils;
  * @author Dave Syer
  * @see JacksonJsonParser
  * @see YamlJsonParser
- * @see SimpleJsonParser
+ * @see BasicJsonParser
  */
 public abstract class JsonParserFactory {
 
 	/**
 	 * Static factory for the "best" JSON parser available on the classpath. Tries Jackson
-	 * 2, then Snake YAML, and then falls back to the {@link SimpleJsonParser}.
+	 * 2, then Snake YAML, and then falls back to the {@link BasicJsonParser}.
 	 * @return a {@link JsonParser}
 	 */
 	public static JsonParser getJsonParser() {
@@ -40,7 +40,7 @@ public abstract class JsonParserFactory {
 		if (ClassUtils.isPresent("org.yaml.snakeyaml.Yaml", null)) {
 			return new YamlJsonParser();
 		}
-		return new SimpleJsonParser();
+		return new BasicJsonParser();
 	}
 
 }
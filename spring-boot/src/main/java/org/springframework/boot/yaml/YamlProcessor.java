@@ -136,7 +136,7 @@ public abstract class YamlProcessor {
 			if (this.logger.isDebugEnabled()) {
 				this.logger.debug("Loading from YAML: " + resource);
 			}
-			for (Object object : yaml.loadAll(resource.getInputStream())) {
+			for (Object object : loadAll(yaml, resource)) {
 				if (object != null && process(asMap(object), callback)) {
 					count++;
 					if (this.resolutionMethod == ResolutionMethod.FIRST_FOUND) {
@@ -155,6 +155,18 @@ public abstract class YamlProcessor {
 		return count > 0;
 	}
 
+	/**
+	 * Parse the documents in the given resource. Subclasses can override this method to
+	 * reuse documents that were parsed before.
+	 * @param yaml the parser to use
+	 * @param resource the resource
+	 * @return the parsed documents
+	 * @throws IOException if the resource cannot be read
+	 */
+	protected Iterable<Object> loadAll(Yaml yaml, Resource resource) throws IOException {
+		return yaml.loadAll(resource.getInputStream());
+	}
+
 	private void handleProcessError(Resource resource, IOException ex) {
 		if (this.resolutionMethod != ResolutionMethod.FIRST_FOUND
 				&& this.resolutionMethod != ResolutionMethod.OVERRIDE_AND_IGNORE) {
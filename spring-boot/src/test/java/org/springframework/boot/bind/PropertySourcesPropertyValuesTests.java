@@ -16,7 +16,11 @@
 
 package org.springframework.boot.bind;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -59,6 +63,37 @@ public class PropertySourcesPropertyValuesTests {
 		assertEquals(1, propertyValues.getPropertyValues().length);
 	}
 
+	@Test
+	public void testPrefixes() {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("foo.name", "spam");
+		map.put("FOO_AGE", "12");
+		map.put("food", "bar");
+		map.put("bar.name", "bar");
+		this.propertySources.addFirst(new MapPropertySource("prefixed", map));
+		PropertySourcesPropertyValues propertyValues = new PropertySourcesPropertyValues(
+				this.propertySources, Arrays.asList("foo.", "FOO_"), null, null);
+		assertEquals(2, propertyValues.getPropertyValues().length);
+		assertEquals("spam", propertyValues.getPropertyValue("foo.name").getValue());
+		assertEquals("12", propertyValues.getPropertyValue("FOO_AGE").getValue());
+	}
+
+	@Test
+	public void testPrefixesAfterSourceChanges() {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("foo.name", "spam");
+		this.propertySources.addFirst(new MapPropertySource("prefixed", map));
+		List<String> prefixes = Arrays.asList("foo.");
+		assertEquals(1, new PropertySourcesPropertyValues(this.propertySources,
+				prefixes, null, null).getPropertyValues().length);
+		map.remove("foo.name");
+		map.put("foo.age", "12");
+		PropertySourcesPropertyValues propertyValues = new PropertySourcesPropertyValues(
+				this.propertySources, prefixes, null, null);
+		assertEquals(1, propertyValues.getPropertyValues().length);
+		assertEquals("foo.age", propertyValues.getPropertyValues()[0].getName());
+	}
+
 	@Test
 	public void testNonEnumeratedValue() {
 		PropertySourcesPropertyValues propertyValues = new PropertySourcesPropertyValues(
@@ -101,6 +101,47 @@ public class RelaxedNamesTests {
 		assertThat(iterator.hasNext(), equalTo(false));
 	}
 
+	@Test
+	public void fromMixedCamelCaseAndSeparators() throws Exception {
+		Iterator<String> iterator = new RelaxedNames("fooBar.bazQux_").iterator();
+		assertThat(iterator.next(), equalTo("fooBar.bazQux_"));
+		assertThat(iterator.next(), equalTo("fooBar.bazQux."));
+		assertThat(iterator.next(), equalTo("fooBar_bazQux_"));
+		assertThat(iterator.next(), equalTo("foo_bar.baz_qux"));
+		assertThat(iterator.next(), equalTo("fooBarBazQux_"));
+		assertThat(iterator.next(), equalTo("foobar.bazqux_"));
+		assertThat(iterator.next(), equalTo("foobar.bazqux."));
+		assertThat(iterator.next(), equalTo("foobar_bazqux_"));
+		assertThat(iterator.next(), equalTo("foobarbazqux_"));
+		assertThat(iterator.next(), equalTo("FOOBAR.BAZQUX_"));
+		assertThat(iterator.next(), equalTo("FOOBAR.BAZQUX."));
+		assertThat(iterator.next(), equalTo("FOOBAR_BAZQUX_"));
+		assertThat(iterator.next(), equalTo("FOO_BAR.BAZ_QUX"));
+		assertThat(iterator.next(), equalTo("FOOBARBAZQUX_"));
+		assertThat(iterator.hasNext(), equalTo(false));
+	}
+
+	@Test
+	public void fromDoubleUnderscore() throws Exception {
+		Iterator<String> iterator = new RelaxedNames("a__b").iterator();
+		assertThat(iterator.next(), equalTo("a__b"));
+		assertThat(iterator.next(), equalTo("a..b"));
+		assertThat(iterator.next(), equalTo("aB"));
+		assertThat(iterator.next(), equalTo("ab"));
+		assertThat(iterator.next(), equalTo("A__B"));
+		assertThat(iterator.next(), equalTo("A..B"));
+		assertThat(iterator.next(), equalTo("AB"));
+		assertThat(iterator.hasNext(), equalTo(false));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void sharedValuesCannotBeRemoved() throws Exception {
+		new RelaxedNames("plain").iterator();
+		Iterator<String> iterator = new RelaxedNames("plain").iterator();
+		iterator.next();
+		iterator.remove();
+	}
+
 	@Test
 	public void fromEmpty() throws Exception {
 		Iterator<String> iterator = new RelaxedNames("").iterator();
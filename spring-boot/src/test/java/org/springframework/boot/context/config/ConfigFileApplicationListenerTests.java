@@ -18,12 +18,16 @@ package org.springframework.boot.context.config;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import org.hamcrest.Description;
@@ -112,6 +116,53 @@ public class ConfigFileApplicationListenerTests {
 		assertThat(property, equalTo("fromcustom"));
 	}
 
+	@Test
+	public void loadCustomYamlResourceOncePerProfile() throws Exception {
+		final List<String> opened = new ArrayList<String>();
+		final Map<String, Integer> lookups = new HashMap<String, Integer>();
+		this.event.getSpringApplication().setResourceLoader(new ResourceLoader() {
+			@Override
+			public Resource getResource(final String location) {
+				Integer count = lookups.get(location);
+				lookups.put(location, count == null ? 1 : count + 1);
+				if (location.equals("classpath:/custom.yml")) {
+					String yaml = "my.property: fromcustom\n---\n"
+							+ "spring.profiles: dev\nmy.property: fromdev\n";
+					return new ByteArrayResource(yaml.getBytes(), location) {
+						@Override
+						public String getFilename() {
+							return location;
+						}
+
+						@Override
+						public InputStream getInputStream() throws IOException {
+							opened.add(location);
+							return super.getInputStream();
+						}
+					};
+				}
+				return new ByteArrayResource(new byte[0], location) {
+					@Override
+					public boolean exists() {
+						return false;
+					}
+				};
+			}
+
+			@Override
+			public ClassLoader getClassLoader() {
+				return getClass().getClassLoader();
+			}
+		});
+		this.environment.setActiveProfiles("dev");
+		this.initializer.setSearchNames("custom");
+		this.initializer.onApplicationEvent(this.event);
+		String property = this.environment.getProperty("my.property");
+		assertThat(property, equalTo("fromdev"));
+		assertThat(opened, contains("classpath:/custom.yml"));
+		assertThat(lookups.get("classpath:/custom.properties"), equalTo(1));
+	}
+
 	@Test
 	public void loadPropertiesFile() throws Exception {
 		this.initializer.setSearchNames("testproperties");
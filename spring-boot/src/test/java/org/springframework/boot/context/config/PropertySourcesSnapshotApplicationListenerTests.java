@@ -0,0 +1,115 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.config;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.bind.RelaxedPropertyResolver;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.env.PropertySourcesSnapshot;
+import org.springframework.boot.test.EnvironmentTestUtils;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link PropertySourcesSnapshotApplicationListener}.
+ * 
+ * @author Dave Syer
+ */
+public class PropertySourcesSnapshotApplicationListenerTests {
+
+	private final PropertySourcesSnapshotApplicationListener listener = new PropertySourcesSnapshotApplicationListener();
+
+	private final ConfigurableEnvironment environment = new StandardEnvironment();
+
+	private final ApplicationEnvironmentPreparedEvent event = new ApplicationEnvironmentPreparedEvent(
+			new SpringApplication(), new String[0], this.environment);
+
+	@Test
+	public void disabledByDefault() {
+		this.listener.onApplicationEvent(this.event);
+		assertThat(PropertySourcesSnapshot.get(this.environment), nullValue());
+	}
+
+	@Test
+	public void installedWhenEnabled() {
+		EnvironmentTestUtils.addEnvironment(this.environment,
+				"spring.property-sources.snapshot:true", "foo.barBaz:spam");
+		this.listener.onApplicationEvent(this.event);
+		assertThat(PropertySourcesSnapshot.get(this.environment), notNullValue());
+		assertThat(new RelaxedPropertyResolver(this.environment, "foo.")
+				.getProperty("bar-baz"), equalTo("spam"));
+		// The environment itself resolves the same properties
+		assertThat(this.environment.getProperty("foo.barBaz"), equalTo("spam"));
+	}
+
+	@Test
+	public void addedPropertySourcesAreVisible() {
+		EnvironmentTestUtils.addEnvironment(this.environment,
+				"spring.property-sources.snapshot:true", "foo.bar:spam");
+		this.listener.onApplicationEvent(this.event);
+		this.environment.getPropertySources().addFirst(
+				new MapPropertySource("other", Collections.<String, Object> singletonMap(
+						"foo.bar", "other")));
+		assertThat(new RelaxedPropertyResolver(this.environment, "foo.")
+				.getProperty("bar"), equalTo("other"));
+	}
+
+	@Test
+	public void placeholdersResolvedWithEnvironmentSettings() {
+		this.environment.setPlaceholderPrefix("%{");
+		EnvironmentTestUtils.addEnvironment(this.environment,
+				"spring.property-sources.snapshot:true", "foo.bar:%{foo.baz}",
+				"foo.baz:spam");
+		this.listener.onApplicationEvent(this.event);
+		assertThat(new RelaxedPropertyResolver(this.environment, "foo.")
+				.getProperty("bar"), equalTo("spam"));
+	}
+
+	@Test
+	public void addedPropertiesAreVisibleAfterRefresh() {
+		EnvironmentTestUtils.addEnvironment(this.environment,
+				"spring.property-sources.snapshot:true", "foo.bar:spam");
+		this.listener.onApplicationEvent(this.event);
+		RelaxedPropertyResolver resolver = new RelaxedPropertyResolver(this.environment,
+				"foo.");
+		EnvironmentTestUtils.addEnvironment(this.environment, "foo.baz:other");
+		assertThat(resolver.getProperty("baz"), nullValue());
+		PropertySourcesSnapshot.get(this.environment).refresh();
+		assertThat(resolver.getProperty("baz"), equalTo("other"));
+	}
+
+	@Test
+	public void changedPropertiesAreVisible() {
+		EnvironmentTestUtils.addEnvironment(this.environment,
+				"spring.property-sources.snapshot:true", "foo.bar:spam");
+		this.listener.onApplicationEvent(this.event);
+		RelaxedPropertyResolver resolver = new RelaxedPropertyResolver(this.environment,
+				"foo.");
+		EnvironmentTestUtils.addEnvironment(this.environment, "foo.bar:other");
+		assertThat(resolver.getProperty("bar"), equalTo("other"));
+	}
+
+}
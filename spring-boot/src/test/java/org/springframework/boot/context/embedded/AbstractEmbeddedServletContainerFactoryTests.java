@@ -18,19 +18,26 @@ package org.springframework.boot.context.embedded;
 
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import javax.servlet.GenericServlet;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.junit.After;
 import org.junit.Rule;
 import org.junit.Test;
@@ -48,6 +55,7 @@ import org.springframework.util.StreamUtils;
 import org.springframework.util.concurrent.ListenableFuture;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
@@ -267,6 +275,32 @@ public abstract class AbstractEmbeddedServletContainerFactoryTests {
 		assertThat(getResponse("http://localhost:8080/test.txt"), equalTo("test"));
 	}
 
+	@Test
+	public void staticResources() throws Exception {
+		FileCopyUtils.copy("test",
+				new FileWriter(this.temporaryFolder.newFile("test.txt")));
+		AbstractEmbeddedServletContainerFactory factory = getFactory();
+		factory.setDocumentRoot(this.temporaryFolder.getRoot());
+		StaticResourceSettings settings = new StaticResourceSettings();
+		settings.setEnabled(true);
+		factory.setStaticResourceSettings(settings);
+		this.container = factory.getEmbeddedServletContainer();
+		this.container.start();
+		ClientHttpResponse response = getClientResponse("http://localhost:8080/test.txt");
+		String etag = response.getHeaders().getETag();
+		assertThat(etag, notNullValue());
+		assertThat(response.getHeaders().getLastModified(), not(equalTo(-1L)));
+		assertThat(StreamUtils.copyToString(response.getBody(), Charset.forName("UTF-8")),
+				equalTo("test"));
+		response.close();
+		ClientHttpRequest request = new HttpComponentsClientHttpRequestFactory()
+				.createRequest(new URI("http://localhost:8080/test.txt"), HttpMethod.GET);
+		request.getHeaders().setIfNoneMatch(etag);
+		response = request.execute();
+		assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+		response.close();
+	}
+
 	@Test
 	public void mimeType() throws Exception {
 		FileCopyUtils.copy("test",
@@ -294,6 +328,74 @@ public abstract class AbstractEmbeddedServletContainerFactoryTests {
 		assertThat(getResponse("http://localhost:8080/bang"), equalTo("Hello World"));
 	}
 
+	@Test
+	public void compression() throws Exception {
+		assertThat(doTestCompression(10000, null, null), equalTo(true));
+	}
+
+	@Test
+	public void noCompressionForSmallResponse() throws Exception {
+		assertThat(doTestCompression(100, null, null), equalTo(false));
+	}
+
+	@Test
+	public void noCompressionForMimeType() throws Exception {
+		String[] mimeTypes = new String[] { "text/html", "text/xml", "text/css" };
+		assertThat(doTestCompression(10000, mimeTypes, null), equalTo(false));
+	}
+
+	@Test
+	public void noCompressionForUserAgent() throws Exception {
+		assertThat(doTestCompression(10000, null, new String[] { "testUserAgent" }),
+				equalTo(false));
+	}
+
+	private boolean doTestCompression(int contentSize, String[] mimeTypes,
+			String[] excludedUserAgents) throws Exception {
+		final String content = new String(new char[contentSize]).replace('\0', 'F');
+		AbstractEmbeddedServletContainerFactory factory = getFactory();
+		Compression compression = new Compression();
+		compression.setEnabled(true);
+		if (mimeTypes != null) {
+			compression.setMimeTypes(mimeTypes);
+		}
+		if (excludedUserAgents != null) {
+			compression.setExcludedUserAgents(excludedUserAgents);
+		}
+		factory.setCompression(compression);
+		this.container = factory.getEmbeddedServletContainer(new ServletRegistrationBean(
+				new HttpServlet() {
+					@Override
+					protected void service(HttpServletRequest request,
+							HttpServletResponse response) throws IOException {
+						response.setContentType("text/plain");
+						response.setContentLength(content.length());
+						response.getWriter().write(content);
+						response.getWriter().flush();
+					}
+				}, "/test.txt"));
+		this.container.start();
+		HttpClient client = HttpClientBuilder.create().disableContentCompression()
+				.setUserAgent("testUserAgent").build();
+		ClientHttpRequest request = new HttpComponentsClientHttpRequestFactory(client)
+				.createRequest(new URI("http://localhost:8080/test.txt"), HttpMethod.GET);
+		request.getHeaders().set("Accept-Encoding", "gzip");
+		ClientHttpResponse response = request.execute();
+		try {
+			String encoding = response.getHeaders().getFirst("Content-Encoding");
+			InputStream body = response.getBody();
+			if ("gzip".equals(encoding)) {
+				body = new GZIPInputStream(body);
+			}
+			assertThat(StreamUtils.copyToString(body, Charset.forName("UTF-8")),
+					equalTo(content));
+			return "gzip".equals(encoding);
+		}
+		finally {
+			response.close();
+		}
+	}
+
 	protected String getResponse(String url) throws IOException, URISyntaxException {
 		ClientHttpResponse response = getClientResponse(url);
 		try {
@@ -19,15 +19,21 @@ package org.springframework.boot.context.embedded.jetty;
 import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.jetty.server.AbstractConnector;
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.webapp.Configuration;
 import org.eclipse.jetty.webapp.WebAppContext;
 import org.junit.Test;
 import org.mockito.InOrder;
 import org.springframework.boot.context.embedded.AbstractEmbeddedServletContainerFactoryTests;
+import org.springframework.boot.context.embedded.ConnectorSettings;
+import org.springframework.boot.context.embedded.StaticResourceSettings;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.inOrder;
@@ -94,6 +100,50 @@ public class JettyEmbeddedServletContainerFactoryTests extends
 		assertTimeout(factory, 60);
 	}
 
+	@Test
+	public void connectorSettings() throws Exception {
+		JettyEmbeddedServletContainerFactory factory = getFactory();
+		ConnectorSettings settings = new ConnectorSettings();
+		settings.setMinThreads(5);
+		settings.setMaxThreads(50);
+		settings.setMaxQueuedRequests(100);
+		settings.setThreadIdleTimeout(10000);
+		settings.setAcceptors(2);
+		settings.setAcceptBacklog(20);
+		settings.setKeepAliveTimeout(15000);
+		factory.setConnectorSettings(settings);
+		this.container = factory.getEmbeddedServletContainer();
+		Server server = ((JettyEmbeddedServletContainer) this.container).getServer();
+		QueuedThreadPool threadPool = (QueuedThreadPool) server.getThreadPool();
+		assertThat(threadPool.getMinThreads(), equalTo(5));
+		assertThat(threadPool.getMaxThreads(), equalTo(50));
+		assertThat(threadPool.getMaxQueued(), equalTo(100));
+		assertThat(threadPool.getMaxIdleTimeMs(), equalTo(10000));
+		AbstractConnector connector = (AbstractConnector) server.getConnectors()[0];
+		assertThat(connector.getAcceptors(), equalTo(2));
+		assertThat(connector.getAcceptQueueSize(), equalTo(20));
+		// The keep alive timeout is not mapped to Jetty's general idle timeout
+		assertThat(connector.getMaxIdleTime(), not(equalTo(15000)));
+	}
+
+	@Test
+	public void staticResourceSettings() throws Exception {
+		JettyEmbeddedServletContainerFactory factory = getFactory();
+		StaticResourceSettings settings = new StaticResourceSettings();
+		settings.setEnabled(true);
+		settings.setMaxCachedFiles(100);
+		settings.setGzip(false);
+		factory.setStaticResourceSettings(settings);
+		this.container = factory.getEmbeddedServletContainer();
+		Handler[] handlers = ((JettyEmbeddedServletContainer) this.container).getServer()
+				.getChildHandlersByClass(WebAppContext.class);
+		ServletHolder holder = ((WebAppContext) handlers[0]).getServletHandler()
+				.getServlet("default");
+		assertThat(holder.getInitParameter("maxCachedFiles"), equalTo("100"));
+		assertThat(holder.getInitParameter("gzip"), equalTo("false"));
+		assertThat(holder.getInitParameter("useFileMappedBuffer"), equalTo("true"));
+	}
+
 	private void assertTimeout(JettyEmbeddedServletContainerFactory factory, int expected) {
 		this.container = factory.getEmbeddedServletContainer();
 		JettyEmbeddedServletContainer jettyContainer = (JettyEmbeddedServletContainer) this.container;
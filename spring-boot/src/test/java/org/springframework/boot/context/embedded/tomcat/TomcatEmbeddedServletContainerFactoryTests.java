@@ -23,11 +23,18 @@ import org.apache.catalina.Context;
 import org.apache.catalina.LifecycleEvent;
 import org.apache.catalina.LifecycleListener;
 import org.apache.catalina.Valve;
+import org.apache.catalina.Wrapper;
 import org.apache.catalina.connector.Connector;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.core.StandardThreadExecutor;
 import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
 import org.junit.Test;
 import org.mockito.InOrder;
 import org.springframework.boot.context.embedded.AbstractEmbeddedServletContainerFactoryTests;
+import org.springframework.boot.context.embedded.ConnectorSettings;
+import org.springframework.boot.context.embedded.StaticResourceSettings;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertEquals;
@@ -206,6 +213,76 @@ public class TomcatEmbeddedServletContainerFactoryTests extends
 		assertEquals("UTF-8", tomcat.getConnector().getURIEncoding());
 	}
 
+	@Test
+	public void connectorSettings() throws Exception {
+		TomcatEmbeddedServletContainerFactory factory = getFactory();
+		ConnectorSettings settings = new ConnectorSettings();
+		settings.setMinThreads(5);
+		settings.setMaxThreads(50);
+		settings.setMaxConnections(500);
+		settings.setAcceptBacklog(20);
+		settings.setMaxKeepAliveRequests(30);
+		settings.setKeepAliveTimeout(15000);
+		factory.setConnectorSettings(settings);
+		Tomcat tomcat = getTomcat(factory);
+		AbstractHttp11Protocol protocol = (AbstractHttp11Protocol) tomcat.getConnector()
+				.getProtocolHandler();
+		assertEquals(5, protocol.getMinSpareThreads());
+		assertEquals(50, protocol.getMaxThreads());
+		assertEquals(500, protocol.getMaxConnections());
+		assertEquals(20, protocol.getBacklog());
+		assertEquals(30, protocol.getMaxKeepAliveRequests());
+		assertEquals(15000, protocol.getKeepAliveTimeout());
+	}
+
+	@Test
+	public void connectorSettingsWithQueue() throws Exception {
+		TomcatEmbeddedServletContainerFactory factory = getFactory();
+		ConnectorSettings settings = new ConnectorSettings();
+		settings.setMaxThreads(50);
+		settings.setMaxQueuedRequests(100);
+		settings.setThreadIdleTimeout(10000);
+		factory.setConnectorSettings(settings);
+		Tomcat tomcat = getTomcat(factory);
+		StandardThreadExecutor executor = (StandardThreadExecutor) ((AbstractProtocol) tomcat
+				.getConnector().getProtocolHandler()).getExecutor();
+		assertEquals(50, executor.getMaxThreads());
+		assertEquals(100, executor.getMaxQueueSize());
+		assertEquals(10000, executor.getMaxIdleTime());
+	}
+
+	@Test
+	public void staticResourceSettings() throws Exception {
+		TomcatEmbeddedServletContainerFactory factory = getFactory();
+		StaticResourceSettings settings = new StaticResourceSettings();
+		settings.setEnabled(true);
+		settings.setMaxCacheSize(20 * 1024 * 1024);
+		settings.setMaxCachedFileSize(256 * 1024);
+		settings.setSendfileSize(64 * 1024);
+		factory.setStaticResourceSettings(settings);
+		Tomcat tomcat = getTomcat(factory);
+		StandardContext context = (StandardContext) tomcat.getHost().findChildren()[0];
+		assertEquals(20 * 1024, context.getCacheMaxSize());
+		assertEquals(256, context.getCacheObjectMaxSize());
+		Wrapper defaultServlet = (Wrapper) context.findChild("default");
+		assertEquals("64", defaultServlet.findInitParameter("sendfileSize"));
+	}
+
+	@Test
+	public void staticResourceSizesAreRoundedUpToKilobytes() throws Exception {
+		TomcatEmbeddedServletContainerFactory factory = getFactory();
+		StaticResourceSettings settings = new StaticResourceSettings();
+		settings.setEnabled(true);
+		settings.setMaxCachedFileSize(512);
+		settings.setSendfileSize(1025);
+		factory.setStaticResourceSettings(settings);
+		Tomcat tomcat = getTomcat(factory);
+		StandardContext context = (StandardContext) tomcat.getHost().findChildren()[0];
+		assertEquals(1, context.getCacheObjectMaxSize());
+		Wrapper defaultServlet = (Wrapper) context.findChild("default");
+		assertEquals("2", defaultServlet.findInitParameter("sendfileSize"));
+	}
+
 	private void assertTimeout(TomcatEmbeddedServletContainerFactory factory, int expected) {
 		Tomcat tomcat = getTomcat(factory);
 		Context context = (Context) tomcat.getHost().findChildren()[0];
@@ -16,22 +16,28 @@
 
 package org.springframework.boot.context.properties;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import javax.annotation.PostConstruct;
 import javax.validation.constraints.NotNull;
 
 import org.junit.After;
 import org.junit.Test;
 import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.boot.env.PropertySourcesSnapshot;
 import org.springframework.boot.test.EnvironmentTestUtils;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
 import org.springframework.mock.env.MockEnvironment;
 import org.springframework.validation.BindException;
 import org.springframework.validation.Errors;
 import org.springframework.validation.ValidationUtils;
 import org.springframework.validation.Validator;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -117,6 +123,30 @@ public class ConfigurationPropertiesBindingPostProcessorTests {
 		this.context.refresh();
 	}
 
+	@Test
+	public void testBindingFromPropertySourcesSnapshot() {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("test.foo", "123456");
+		this.context = new AnnotationConfigApplicationContext();
+		this.context.getEnvironment().getPropertySources()
+				.addFirst(new MapPropertySource("test", map));
+		EnvironmentTestUtils.addEnvironment(this.context, "test.bar:654321");
+		PropertySourcesSnapshot.install(this.context.getEnvironment());
+		// Not visible until the snapshot is refreshed
+		map.put("test.foo", "changed");
+		this.context.register(TestConfigurationWithProperties.class);
+		this.context.refresh();
+		PropertyWithJSR303 bean = this.context.getBean(PropertyWithJSR303.class);
+		assertEquals("123456", bean.getFoo());
+		assertEquals("654321", bean.getBar());
+	}
+
+	@Configuration
+	@EnableConfigurationProperties(PropertyWithJSR303.class)
+	public static class TestConfigurationWithProperties {
+
+	}
+
 	@Configuration
 	@EnableConfigurationProperties
 	public static class TestConfigurationWithValidatingSetter {
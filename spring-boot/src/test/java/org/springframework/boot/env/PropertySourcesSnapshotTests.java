@@ -0,0 +1,201 @@
+/*
+ * Copyright 2012-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.env;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.PropertySourcesPropertyResolver;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.env.SystemEnvironmentPropertySource;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link PropertySourcesSnapshot}.
+ * 
+ * @author Dave Syer
+ */
+public class PropertySourcesSnapshotTests {
+
+	private final MutablePropertySources sources = new MutablePropertySources();
+
+	@Test
+	public void consecutiveSourcesAreMerged() throws Exception {
+		this.sources.addLast(new MapPropertySource("one", Collections
+				.<String, Object> singletonMap("foo", "one")));
+		EnumerableCompositePropertySource composite = new EnumerableCompositePropertySource(
+				"composite");
+		composite.add(new MapPropertySource("two", Collections
+				.<String, Object> singletonMap("foo", "two")));
+		composite.add(new MapPropertySource("three", Collections
+				.<String, Object> singletonMap("bar", "three")));
+		this.sources.addLast(composite);
+		PropertySourcesSnapshot snapshot = new PropertySourcesSnapshot(this.sources);
+		assertThat(getNames(snapshot).size(), equalTo(1));
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(
+				snapshot);
+		assertThat(resolver.getProperty("foo"), equalTo("one"));
+		assertThat(resolver.getProperty("bar"), equalTo("three"));
+		assertThat(resolver.getProperty("baz"), nullValue());
+	}
+
+	@Test
+	public void nonEnumerableSourcesKeepTheirPrecedence() throws Exception {
+		this.sources.addLast(new MapPropertySource("first", Collections
+				.<String, Object> singletonMap("foo", "first")));
+		this.sources.addLast(new SystemEnvironmentPropertySource("env", Collections
+				.<String, Object> singletonMap("FOO_BAR", "env")));
+		this.sources.addLast(new PropertySource<Object>("random") {
+			@Override
+			public Object getProperty(String name) {
+				return (name.startsWith("random.") ? "random" : null);
+			}
+		});
+		this.sources.addLast(new MapPropertySource("last", Collections
+				.<String, Object> singletonMap("foo.bar", "last")));
+		PropertySourcesSnapshot snapshot = new PropertySourcesSnapshot(this.sources);
+		assertThat(getNames(snapshot).size(), equalTo(4));
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(
+				snapshot);
+		assertThat(resolver.getProperty("foo"), equalTo("first"));
+		assertThat(resolver.getProperty("foo.bar"), equalTo("env"));
+		assertThat(resolver.getProperty("random.value"), equalTo("random"));
+	}
+
+	@Test
+	public void originalSourcesByName() throws Exception {
+		MapPropertySource source = new MapPropertySource("source",
+				Collections.<String, Object> singletonMap("foo", "bar"));
+		this.sources.addLast(source);
+		PropertySourcesSnapshot snapshot = new PropertySourcesSnapshot(this.sources);
+		assertThat(snapshot.contains("source"), equalTo(true));
+		assertThat(snapshot.get("source"), sameInstance((Object) source));
+		assertThat(snapshot.get("other"), nullValue());
+	}
+
+	@Test
+	public void snapshotTakenAgainWhenSourcesChange() throws Exception {
+		this.sources.addLast(new MapPropertySource("one", Collections
+				.<String, Object> singletonMap("foo", "one")));
+		PropertySourcesSnapshot snapshot = new PropertySourcesSnapshot(this.sources);
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(
+				snapshot);
+		assertThat(resolver.getProperty("foo"), equalTo("one"));
+		this.sources.addFirst(new MapPropertySource("two", Collections
+				.<String, Object> singletonMap("foo", "two")));
+		assertThat(resolver.getProperty("foo"), equalTo("one"));
+		snapshot.refreshIfNecessary();
+		assertThat(resolver.getProperty("foo"), equalTo("two"));
+		this.sources.replace("two", new MapPropertySource("two", Collections
+				.<String, Object> singletonMap("foo", "three")));
+		snapshot.refreshIfNecessary();
+		assertThat(resolver.getProperty("foo"), equalTo("three"));
+		this.sources.remove("two");
+		snapshot.refreshIfNecessary();
+		assertThat(resolver.getProperty("foo"), equalTo("one"));
+	}
+
+	@Test
+	public void snapshotNotTakenAgainWhenSourcesAreUnchanged() throws Exception {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("foo", "one");
+		this.sources.addLast(new MapPropertySource("one", map));
+		PropertySourcesSnapshot snapshot = new PropertySourcesSnapshot(this.sources);
+		map.put("foo", "two");
+		snapshot.refreshIfNecessary();
+		assertThat(new PropertySourcesPropertyResolver(snapshot).getProperty("foo"),
+				equalTo("one"));
+	}
+
+	@Test
+	public void contentChangesOnlyVisibleAfterRefresh() throws Exception {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("foo", "one");
+		this.sources.addLast(new MapPropertySource("one", map));
+		PropertySourcesSnapshot snapshot = new PropertySourcesSnapshot(this.sources);
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(
+				snapshot);
+		map.put("foo", "two");
+		assertThat(resolver.getProperty("foo"), equalTo("one"));
+		snapshot.refresh();
+		assertThat(resolver.getProperty("foo"), equalTo("two"));
+	}
+
+	@Test
+	public void subclassesAreNotMerged() throws Exception {
+		this.sources.addLast(new MapPropertySource("one", Collections
+				.<String, Object> singletonMap("foo", "one")));
+		this.sources.addLast(new MapPropertySource("prefixed", Collections
+				.<String, Object> singletonMap("bar", "prefixed")) {
+			@Override
+			public Object getProperty(String name) {
+				return (name.startsWith("prefix.") ? super.getProperty(name
+						.substring("prefix.".length())) : null);
+			}
+		});
+		PropertySourcesSnapshot snapshot = new PropertySourcesSnapshot(this.sources);
+		assertThat(getNames(snapshot).size(), equalTo(2));
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(
+				snapshot);
+		assertThat(resolver.getProperty("prefix.bar"), equalTo("prefixed"));
+		assertThat(resolver.getProperty("bar"), nullValue());
+	}
+
+	@Test
+	public void systemPropertiesAreNotMerged() throws Exception {
+		Map<String, Object> map = new HashMap<String, Object>();
+		this.sources.addLast(new MapPropertySource(
+				StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME, map));
+		PropertySourcesSnapshot snapshot = new PropertySourcesSnapshot(this.sources);
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(
+				snapshot);
+		map.put("foo", "bar");
+		assertThat(resolver.containsProperty("foo"), equalTo(true));
+		assertThat(resolver.getProperty("foo"), equalTo("bar"));
+	}
+
+	@Test
+	public void installInEnvironment() throws Exception {
+		StandardEnvironment environment = new StandardEnvironment();
+		assertThat(PropertySourcesSnapshot.get(environment), nullValue());
+		PropertySourcesSnapshot snapshot = PropertySourcesSnapshot.install(environment);
+		assertThat(PropertySourcesSnapshot.get(environment), sameInstance(snapshot));
+		assertThat(PropertySourcesSnapshot.install(environment), sameInstance(snapshot));
+		assertThat(snapshot.contains(PropertySourcesSnapshot.PROPERTY_SOURCE_NAME),
+				equalTo(false));
+	}
+
+	private List<String> getNames(PropertySourcesSnapshot snapshot) {
+		List<String> names = new ArrayList<String>();
+		for (PropertySource<?> source : snapshot) {
+			names.add(source.getName());
+		}
+		return names;
+	}
+
+}